@@ -0,0 +1,62 @@
+package com.algaworks.junit.blog;
+
+import com.algaworks.junit.blog.modelo.Editor;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+/**
+ * Dados usados pelos benchmarks do blog, gerados sempre com a mesma semente para que
+ * execuções diferentes meçam o mesmo trabalho.
+ */
+public final class FixturesBlog {
+
+    public enum Titulo {
+        PORTUGUES("Como configurar a integração contínua em três passos, sem complicação"),
+        INGLES("How to configure continuous integration in three easy steps"),
+        LONGO("Análise detalhada: por que a migração do monólito para microsserviços levou dezoito meses, "
+                + "quais decisões tomaríamos de novo e o que aprendemos sobre observabilidade, testes e deploy");
+
+        private final String texto;
+
+        Titulo(String texto) {
+            this.texto = texto;
+        }
+
+        public String getTexto() {
+            return texto;
+        }
+    }
+
+    private static final String[] PALAVRAS = {
+            "o", "a", "de", "que", "para", "com", "não", "uma", "teste", "código", "integração",
+            "função", "aplicação", "performance", "configuração", "java", "junit", "mock", "editor",
+            "publicação", "é", "são", "também", "então", "método", "classe", "dependência"
+    };
+
+    private FixturesBlog() {
+
+    }
+
+    /**
+     * @return um texto com a quantidade de palavras informada, separadas por espaço e com pontuação
+     */
+    public static String conteudo(int quantidadePalavras) {
+        Random aleatorio = new Random(quantidadePalavras);
+        StringBuilder conteudo = new StringBuilder(quantidadePalavras * 8);
+        for (int i = 0; i < quantidadePalavras; i++) {
+            if (i > 0) {
+                conteudo.append(' ');
+            }
+            conteudo.append(PALAVRAS[aleatorio.nextInt(PALAVRAS.length)]);
+            if (aleatorio.nextInt(12) == 0) {
+                conteudo.append(aleatorio.nextBoolean() ? '.' : ',');
+            }
+        }
+        return conteudo.toString();
+    }
+
+    public static Editor editor(long id, boolean premium) {
+        return new Editor(id, "Editor " + id, "editor" + id + "@email.com", new BigDecimal("0.15"), premium);
+    }
+}
@@ -0,0 +1,110 @@
+package com.algaworks.junit.blog.negocio;
+
+import com.algaworks.junit.blog.FixturesBlog;
+import com.algaworks.junit.blog.armazenamento.ArmazenamentoEditor;
+import com.algaworks.junit.blog.modelo.Editor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CadastroEditorBenchmark {
+
+    @Param({"10", "10000"})
+    int quantidadeEditores;
+
+    CadastroEditor cadastroEditor;
+    long proximoId;
+
+    @Setup
+    public void setup(Blackhole blackhole) {
+        ArmazenamentoEditorEmMemoria armazenamento = new ArmazenamentoEditorEmMemoria();
+        for (long id = 1; id <= quantidadeEditores; id++) {
+            armazenamento.editoresPorEmail.put("editor" + id + "@email.com", FixturesBlog.editor(id, id % 2 == 0));
+        }
+        cadastroEditor = new CadastroEditor(armazenamento, new GerenciadorEnvioEmailDescartavel(blackhole));
+        proximoId = quantidadeEditores + 1;
+    }
+
+    @Benchmark
+    public Editor criar() {
+        long id = proximoId++;
+        return cadastroEditor.criar(new Editor("Editor " + id, "novo" + id + "@email.com", new BigDecimal("0.15"), false));
+    }
+
+    /**
+     * Consulta os editores pré-carregados pelo e-mail; os novos não são guardados para que o
+     * tamanho não mude ao longo da medição.
+     */
+    static class ArmazenamentoEditorEmMemoria implements ArmazenamentoEditor {
+        final Map<String, Editor> editoresPorEmail = new HashMap<>();
+
+        @Override
+        public Editor salvar(Editor editor) {
+            if (editor.getId() == null) {
+                editor.setId((long) editoresPorEmail.size() + 1);
+            }
+            return editor;
+        }
+
+        @Override
+        public Optional<Editor> encontrarPorId(Long editor) {
+            return Optional.empty();
+        }
+
+        @Override
+        public Optional<Editor> encontrarPorEmail(String email) {
+            return Optional.ofNullable(editoresPorEmail.get(email));
+        }
+
+        @Override
+        public Optional<Editor> encontrarPorEmailComIdDiferenteDe(String email, Long id) {
+            return encontrarPorEmail(email).filter(editor -> !editor.getId().equals(id));
+        }
+
+        @Override
+        public void remover(Long editorId) {
+
+        }
+
+        @Override
+        public List<Editor> encontrarTodos() {
+            return new ArrayList<>(editoresPorEmail.values());
+        }
+    }
+
+    static class GerenciadorEnvioEmailDescartavel extends GerenciadorEnvioEmail {
+        private final Blackhole blackhole;
+
+        GerenciadorEnvioEmailDescartavel(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Override
+        void enviarEmail(Mensagem mensagem) {
+            blackhole.consume(mensagem);
+        }
+    }
+}
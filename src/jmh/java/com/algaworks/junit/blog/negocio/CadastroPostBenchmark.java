@@ -0,0 +1,96 @@
+package com.algaworks.junit.blog.negocio;
+
+import com.algaworks.junit.blog.FixturesBlog;
+import com.algaworks.junit.blog.armazenamento.ArmazenamentoPost;
+import com.algaworks.junit.blog.modelo.Editor;
+import com.algaworks.junit.blog.modelo.Post;
+import com.algaworks.junit.blog.utilidade.ProcessadorTextoSimples;
+import com.algaworks.junit.blog.utilidade.Relogio;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caminho completo de criação de um post: slug, cálculo de ganhos, armazenamento e notificação.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CadastroPostBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    int quantidadePalavras;
+
+    @Param({"PORTUGUES", "INGLES", "LONGO"})
+    FixturesBlog.Titulo titulo;
+
+    @Param({"sistema", "cacheado"})
+    String relogio;
+
+    CadastroPost cadastroPost;
+    Editor autor;
+    String conteudo;
+
+    @Setup
+    public void setup(Blackhole blackhole) {
+        Relogio relogioCadastro = relogio.equals("cacheado") ? Relogio.cacheado(Duration.ofMillis(1)) : Relogio.sistema();
+        cadastroPost = new CadastroPost(new ArmazenamentoPostDescartavel(),
+                new CalculadoraGanhos(new ProcessadorTextoSimples(), BigDecimal.TEN),
+                blackhole::consume, relogioCadastro);
+        autor = FixturesBlog.editor(1L, true);
+        conteudo = FixturesBlog.conteudo(quantidadePalavras);
+    }
+
+    @Benchmark
+    public Post criar() {
+        return cadastroPost.criar(new Post(titulo.getTexto(), conteudo, autor, false, false));
+    }
+
+    /**
+     * Atribui o id sem guardar o post, para que a memória não cresça ao longo da medição.
+     */
+    static class ArmazenamentoPostDescartavel implements ArmazenamentoPost {
+        private long proximoId = 1;
+
+        @Override
+        public Post salvar(Post post) {
+            if (post.getId() == null) {
+                post.setId(proximoId++);
+            }
+            return post;
+        }
+
+        @Override
+        public Optional<Post> encontrarPorId(Long post) {
+            return Optional.empty();
+        }
+
+        @Override
+        public void remover(Long postId) {
+
+        }
+
+        @Override
+        public List<Post> encontrarTodos() {
+            return List.of();
+        }
+    }
+}
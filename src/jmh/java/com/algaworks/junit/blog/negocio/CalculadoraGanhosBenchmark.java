@@ -0,0 +1,49 @@
+package com.algaworks.junit.blog.negocio;
+
+import com.algaworks.junit.blog.FixturesBlog;
+import com.algaworks.junit.blog.modelo.Ganhos;
+import com.algaworks.junit.blog.modelo.Post;
+import com.algaworks.junit.blog.utilidade.ProcessadorTextoSimples;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CalculadoraGanhosBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    int quantidadePalavras;
+
+    @Param({"false", "true"})
+    boolean premium;
+
+    CalculadoraGanhos calculadoraGanhos = new CalculadoraGanhos(new ProcessadorTextoSimples(), BigDecimal.TEN);
+    Post post;
+
+    @Setup
+    public void setup() {
+        post = new Post(FixturesBlog.Titulo.PORTUGUES.getTexto(), FixturesBlog.conteudo(quantidadePalavras),
+                FixturesBlog.editor(1L, premium), false, false);
+    }
+
+    @Benchmark
+    public Ganhos calcular() {
+        return calculadoraGanhos.calcular(post);
+    }
+}
@@ -0,0 +1,45 @@
+package com.algaworks.junit.blog.utilidade;
+
+import com.algaworks.junit.blog.FixturesBlog;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConversorSlugBenchmark {
+
+    @Param({"PORTUGUES", "INGLES", "LONGO"})
+    FixturesBlog.Titulo titulo;
+
+    String texto;
+
+    @Setup
+    public void setup() {
+        texto = titulo.getTexto();
+    }
+
+    @Benchmark
+    public String converter() {
+        return ConversorSlug.converter(texto);
+    }
+
+    @Benchmark
+    public String converterJuntoComCodigo() {
+        return ConversorSlug.converterJuntoComCodigo(texto);
+    }
+}
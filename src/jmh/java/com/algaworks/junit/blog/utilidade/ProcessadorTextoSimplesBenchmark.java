@@ -0,0 +1,41 @@
+package com.algaworks.junit.blog.utilidade;
+
+import com.algaworks.junit.blog.FixturesBlog;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProcessadorTextoSimplesBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    int quantidadePalavras;
+
+    ProcessadorTextoSimples processador = new ProcessadorTextoSimples();
+    String conteudo;
+
+    @Setup
+    public void setup() {
+        conteudo = FixturesBlog.conteudo(quantidadePalavras);
+    }
+
+    @Benchmark
+    public int quantidadePalavras() {
+        return processador.quantidadePalavras(conteudo);
+    }
+}
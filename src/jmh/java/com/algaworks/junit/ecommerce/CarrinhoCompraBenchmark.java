@@ -0,0 +1,85 @@
+package com.algaworks.junit.ecommerce;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Operações de um carrinho com a quantidade de itens parametrizada. As alterações são feitas
+ * aos pares (aumenta e diminui) para que o carrinho tenha o mesmo tamanho em toda a medição.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CarrinhoCompraBenchmark {
+
+	@Param({"1", "100", "10000"})
+	int quantidadeItens;
+
+	CarrinhoCompra carrinho;
+	CarrinhoCompacto carrinhoCompacto;
+	Produto ultimoProduto;
+
+	@Setup
+	public void setup() {
+		carrinho = FixturesEcommerce.carrinho(1L, quantidadeItens, 2);
+		carrinhoCompacto = CarrinhoCompacto.de(carrinho);
+		ultimoProduto = carrinho.getItensSomenteLeitura().get(quantidadeItens - 1).getProduto();
+	}
+
+	@Benchmark
+	public BigDecimal aumentarDiminuirEValorTotal() {
+		carrinho.aumentarQuantidadeProduto(ultimoProduto);
+		carrinho.diminuirQuantidadeProduto(ultimoProduto);
+		return carrinho.getValorTotal();
+	}
+
+	@Benchmark
+	public int adicionarERemoverProduto() {
+		carrinho.adicionarProduto(FixturesEcommerce.PRODUTO_AVULSO, 1);
+		carrinho.removerProduto(FixturesEcommerce.PRODUTO_AVULSO);
+		return carrinho.getQuantidadeTotalDeProdutos();
+	}
+
+	@Benchmark
+	public List<ItemCarrinhoCompra> getItens() {
+		return carrinho.getItens();
+	}
+
+	@Benchmark
+	public List<ItemCarrinhoCompra> getItensSomenteLeitura() {
+		return carrinho.getItensSomenteLeitura();
+	}
+
+	@Benchmark
+	public BigDecimal somarItensComBigDecimal() {
+		BigDecimal total = BigDecimal.ZERO;
+		for (ItemCarrinhoCompra item : carrinho.getItensSomenteLeitura()) {
+			total = total.add(item.getValorTotal());
+		}
+		return total;
+	}
+
+	@Benchmark
+	public int aumentarEDiminuirCompacto() {
+		long idProduto = ultimoProduto.getId();
+		carrinhoCompacto.aumentarQuantidadeProduto(idProduto);
+		carrinhoCompacto.diminuirQuantidadeProduto(idProduto);
+		return carrinhoCompacto.quantidadeDoProduto(idProduto);
+	}
+}
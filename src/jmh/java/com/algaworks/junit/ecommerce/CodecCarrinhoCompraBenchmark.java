@@ -0,0 +1,68 @@
+package com.algaworks.junit.ecommerce;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Codificação e decodificação de um carrinho. Com um codec novo a cada registro todos os produtos
+ * são escritos por completo; reaproveitando o codec, apenas referências, como em uma sessão.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CodecCarrinhoCompraBenchmark {
+
+	@Param({"1", "100", "10000"})
+	int quantidadeItens;
+
+	CarrinhoCompra carrinho;
+	ByteBuffer buffer;
+	ByteBuffer registro;
+	CodecCarrinhoCompra codecSessao;
+
+	@Setup
+	public void setup() {
+		carrinho = FixturesEcommerce.carrinho(1L, quantidadeItens, 5);
+		buffer = ByteBuffer.allocateDirect(256 + quantidadeItens * 128);
+		codecSessao = new CodecCarrinhoCompra();
+		codecSessao.escrever(carrinho, buffer); //Produtos passam a ser referências
+
+		registro = ByteBuffer.allocateDirect(buffer.capacity());
+		new CodecCarrinhoCompra().escrever(carrinho, registro);
+		registro.flip();
+	}
+
+	@Benchmark
+	public int escreverCompleto() {
+		buffer.clear();
+		new CodecCarrinhoCompra().escrever(carrinho, buffer);
+		return buffer.position();
+	}
+
+	@Benchmark
+	public int escreverComReferencias() {
+		buffer.clear();
+		codecSessao.escrever(carrinho, buffer);
+		return buffer.position();
+	}
+
+	@Benchmark
+	public CarrinhoCompra ler() {
+		return new CodecCarrinhoCompra().ler(registro.duplicate());
+	}
+}
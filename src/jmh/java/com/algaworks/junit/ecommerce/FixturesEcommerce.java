@@ -0,0 +1,46 @@
+package com.algaworks.junit.ecommerce;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Carrinhos usados pelos benchmarks, gerados sempre com a mesma semente.
+ */
+final class FixturesEcommerce {
+
+	static final Produto PRODUTO_AVULSO = new Produto(-1L, "Avulso", "Produto fora do catálogo", new BigDecimal("9.90"));
+
+	private static final int QUANTIDADE_PRODUTOS = 20_000;
+	private static final List<Produto> PRODUTOS = new ArrayList<>(QUANTIDADE_PRODUTOS);
+
+	static {
+		Random aleatorio = new Random(QUANTIDADE_PRODUTOS);
+		for (long id = 1; id <= QUANTIDADE_PRODUTOS; id++) {
+			BigDecimal valor = BigDecimal.valueOf(100 + aleatorio.nextInt(500_000), 2);
+			PRODUTOS.add(new Produto(id, "Produto " + id, "Descrição do produto " + id, valor));
+		}
+	}
+
+	private FixturesEcommerce() {
+
+	}
+
+	static List<Produto> produtos() {
+		return PRODUTOS;
+	}
+
+	/**
+	 * @return um carrinho com itens distintos escolhidos a partir de {@code semente}
+	 */
+	static CarrinhoCompra carrinho(long semente, int quantidadeItens, int quantidadeMaximaPorItem) {
+		Random aleatorio = new Random(semente);
+		CarrinhoCompra carrinho = new CarrinhoCompra(new Cliente(semente, "Cliente " + semente));
+		int inicio = aleatorio.nextInt(QUANTIDADE_PRODUTOS);
+		for (int i = 0; i < quantidadeItens; i++) {
+			carrinho.adicionarProduto(PRODUTOS.get((inicio + i) % QUANTIDADE_PRODUTOS), 1 + aleatorio.nextInt(quantidadeMaximaPorItem));
+		}
+		return carrinho;
+	}
+}
@@ -0,0 +1,92 @@
+package com.algaworks.junit.ecommerce;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reprecificação de muitos carrinhos de uma vez, como em um pico de checkout.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PrecificadorCarrinhosBenchmark {
+
+	@Param({"100", "10000"})
+	int quantidadeCarrinhos;
+
+	@Param({"10", "100"})
+	int itensPorCarrinho;
+
+	List<CarrinhoCompra> carrinhos;
+	List<CarrinhoCompacto> carrinhosCompactos;
+	CatalogoProdutos catalogo;
+
+	@Setup
+	public void setup() {
+		carrinhos = new ArrayList<>(quantidadeCarrinhos);
+		carrinhosCompactos = new ArrayList<>(quantidadeCarrinhos);
+		for (int c = 0; c < quantidadeCarrinhos; c++) {
+			CarrinhoCompra carrinho = FixturesEcommerce.carrinho(c, itensPorCarrinho, 5);
+			carrinhos.add(carrinho);
+			carrinhosCompactos.add(CarrinhoCompacto.de(carrinho));
+		}
+		catalogo = new CatalogoProdutos();
+		FixturesEcommerce.produtos().forEach(catalogo::internar);
+	}
+
+	/**
+	 * Total mantido por cada carrinho, já calculado a cada alteração: o custo de apenas consultar.
+	 */
+	@Benchmark
+	public BigDecimal[] valorTotalDeCadaCarrinho() {
+		BigDecimal[] totais = new BigDecimal[carrinhos.size()];
+		for (int c = 0; c < totais.length; c++) {
+			totais[c] = carrinhos.get(c).getValorTotal();
+		}
+		return totais;
+	}
+
+	/**
+	 * Recalcula cada carrinho a partir dos itens com {@link BigDecimal}, o mesmo trabalho que o precificador faz
+	 * em ponto fixo.
+	 */
+	@Benchmark
+	public BigDecimal[] individualComBigDecimal() {
+		BigDecimal[] totais = new BigDecimal[carrinhos.size()];
+		for (int c = 0; c < totais.length; c++) {
+			BigDecimal total = BigDecimal.ZERO;
+			for (ItemCarrinhoCompra item : carrinhos.get(c).getItensSomenteLeitura()) {
+				total = total.add(item.getValorTotal());
+			}
+			totais[c] = total;
+		}
+		return totais;
+	}
+
+	@Benchmark
+	public PrecificadorCarrinhos.TotaisCarrinhos emLote() {
+		return PrecificadorCarrinhos.precificar(carrinhos);
+	}
+
+	@Benchmark
+	public long[] emLoteCompactosComCatalogo() {
+		return PrecificadorCarrinhos.precificar(carrinhosCompactos, catalogo.getTabelaPrecos());
+	}
+}
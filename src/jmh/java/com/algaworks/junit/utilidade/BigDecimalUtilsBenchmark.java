@@ -0,0 +1,70 @@
+package com.algaworks.junit.utilidade;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara os valores de duas colunas posição a posição, metade delas iguais com escalas diferentes.
+ * O maior tamanho é 1M, já que 10M de {@link BigDecimal} ocupariam alguns GB de heap.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BigDecimalUtilsBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    int tamanho;
+
+    BigDecimal[] x;
+    BigDecimal[] y;
+    ColunaDecimal colunaX;
+    ColunaDecimal colunaY;
+
+    @Setup
+    public void setup() {
+        Random aleatorio = new Random(tamanho);
+        x = new BigDecimal[tamanho];
+        y = new BigDecimal[tamanho];
+        colunaX = new ColunaDecimal(tamanho);
+        colunaY = new ColunaDecimal(tamanho);
+        for (int i = 0; i < tamanho; i++) {
+            long centavos = aleatorio.nextInt(10_000_000);
+            x[i] = BigDecimal.valueOf(centavos, 2);
+            y[i] = aleatorio.nextBoolean() ? BigDecimal.valueOf(centavos * 100, 4) : BigDecimal.valueOf(centavos + 1, 2);
+            colunaX.adicionar(x[i].unscaledValue().longValueExact(), x[i].scale());
+            colunaY.adicionar(y[i].unscaledValue().longValueExact(), y[i].scale());
+        }
+    }
+
+    @Benchmark
+    public int iguaisBigDecimal() {
+        int iguais = 0;
+        for (int i = 0; i < tamanho; i++) {
+            if (BigDecimalUtils.iguais(x[i], y[i])) {
+                iguais++;
+            }
+        }
+        return iguais;
+    }
+
+    @Benchmark
+    public ConjuntoBits posicoesIguaisColunas() {
+        return BigDecimalUtils.posicoesIguais(colunaX, colunaY);
+    }
+}
@@ -0,0 +1,83 @@
+package com.algaworks.junit.utilidade;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Depósito seguido de saque do mesmo valor, com uma conta por thread (sem disputa) ou uma única
+ * conta para todas as threads (com disputa). Use {@code -t} para variar a quantidade de threads.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class ContaBancariaBenchmark {
+
+    private static final BigDecimal VALOR = new BigDecimal("10.50");
+    private static final long VALOR_EM_CENTAVOS = 1050;
+
+    @State(Scope.Thread)
+    public static class ContasPorThread {
+        ContaBancaria conta = new ContaBancaria(new BigDecimal("1000.00"));
+        ContaBancariaConcorrente contaConcorrente = new ContaBancariaConcorrente(new BigDecimal("1000.00"));
+    }
+
+    @State(Scope.Benchmark)
+    public static class ContasCompartilhadas {
+        ContaBancaria conta = new ContaBancaria(new BigDecimal("1000.00"));
+        ContaBancariaConcorrente contaConcorrente = new ContaBancariaConcorrente(new BigDecimal("1000.00"));
+    }
+
+    @Benchmark
+    public BigDecimal semDisputaContaBancaria(ContasPorThread contas) {
+        contas.conta.deposito(VALOR);
+        contas.conta.saque(VALOR);
+        return contas.conta.saldo();
+    }
+
+    @Benchmark
+    public long semDisputaContaConcorrente(ContasPorThread contas) {
+        contas.contaConcorrente.depositoEmCentavos(VALOR_EM_CENTAVOS);
+        contas.contaConcorrente.saqueEmCentavos(VALOR_EM_CENTAVOS);
+        return contas.contaConcorrente.saldoEmCentavos();
+    }
+
+    /**
+     * {@link ContaBancaria} não é thread safe, então o acesso compartilhado usa um lock.
+     */
+    @Benchmark
+    public BigDecimal comDisputaContaBancariaSincronizada(ContasCompartilhadas contas) {
+        synchronized (contas.conta) {
+            contas.conta.deposito(VALOR);
+            contas.conta.saque(VALOR);
+            return contas.conta.saldo();
+        }
+    }
+
+    @Benchmark
+    public long comDisputaContaConcorrente(ContasCompartilhadas contas) {
+        contas.contaConcorrente.depositoEmCentavos(VALOR_EM_CENTAVOS);
+        contas.contaConcorrente.saqueEmCentavos(VALOR_EM_CENTAVOS);
+        return contas.contaConcorrente.saldoEmCentavos();
+    }
+
+    @Benchmark
+    public BigDecimal comDisputaContaConcorrenteBigDecimal(ContasCompartilhadas contas) {
+        contas.contaConcorrente.deposito(VALOR);
+        contas.contaConcorrente.saque(VALOR);
+        return contas.contaConcorrente.saldo();
+    }
+}
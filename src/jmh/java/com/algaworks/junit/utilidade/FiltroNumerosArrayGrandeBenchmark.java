@@ -0,0 +1,60 @@
+package com.algaworks.junit.utilidade;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filtros sobre 100M de números, apenas em {@code int[]}: a mesma quantidade como
+ * {@code List<Integer>} ocuparia alguns GB de heap. Complementa o {@link FiltroNumerosBenchmark}.
+ * Cada iteração aloca centenas de MB, por isso o heap do fork é aumentado.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class FiltroNumerosArrayGrandeBenchmark {
+
+    @Param({"100000000"})
+    int tamanho;
+
+    int[] numeros;
+
+    @Setup
+    public void setup() {
+        numeros = new Random(tamanho).ints(tamanho).toArray();
+    }
+
+    @Benchmark
+    public int[] paresArray() {
+        return FiltroNumeros.numerosPares(numeros);
+    }
+
+    @Benchmark
+    public int[] paresArrayParalelo() {
+        return FiltroNumerosParalelo.numerosPares(numeros);
+    }
+
+    @Benchmark
+    public ConjuntoBits posicoesPares() {
+        return FiltroNumeros.posicoesPares(numeros);
+    }
+
+    @Benchmark
+    public FiltroNumeros.Particao particionar() {
+        return FiltroNumeros.particionar(numeros);
+    }
+}
@@ -0,0 +1,65 @@
+package com.algaworks.junit.utilidade;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FiltroNumerosBenchmark {
+
+    @Param({"1000", "100000", "10000000"})
+    int tamanho;
+
+    int[] numeros;
+    List<Integer> lista;
+
+    @Setup
+    public void setup() {
+        numeros = new Random(tamanho).ints(tamanho).toArray();
+        lista = Arrays.stream(numeros).boxed().collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<Integer> paresLista() {
+        return FiltroNumeros.numerosPares(lista);
+    }
+
+    @Benchmark
+    public int[] paresArray() {
+        return FiltroNumeros.numerosPares(numeros);
+    }
+
+    @Benchmark
+    public int[] paresArrayParalelo() {
+        return FiltroNumerosParalelo.numerosPares(numeros);
+    }
+
+    @Benchmark
+    public ConjuntoBits posicoesPares() {
+        return FiltroNumeros.posicoesPares(numeros);
+    }
+
+    @Benchmark
+    public FiltroNumeros.Particao particionar() {
+        return FiltroNumeros.particionar(numeros);
+    }
+}
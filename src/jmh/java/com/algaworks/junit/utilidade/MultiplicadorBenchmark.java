@@ -0,0 +1,66 @@
+package com.algaworks.junit.utilidade;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MultiplicadorBenchmark {
+
+    @Param({"1000", "100000", "10000000"})
+    int tamanho;
+
+    double[] valores;
+    double[] destino;
+    Double[] valoresBoxed;
+    Double[] destinoBoxed;
+
+    @Setup
+    public void setup() {
+        valores = new Random(tamanho).doubles(tamanho, -1_000, 1_000).toArray();
+        destino = new double[tamanho];
+        valoresBoxed = new Double[tamanho];
+        for (int i = 0; i < tamanho; i++) {
+            valoresBoxed[i] = valores[i];
+        }
+        destinoBoxed = new Double[tamanho];
+    }
+
+    @Benchmark
+    public Double[] aplicarBoxed() {
+        for (int i = 0; i < valoresBoxed.length; i++) {
+            destinoBoxed[i] = Multiplicador.TRIPLO.aplicarMultiplicador(valoresBoxed[i]);
+        }
+        return destinoBoxed;
+    }
+
+    @Benchmark
+    public double[] aplicarPrimitivo() {
+        for (int i = 0; i < valores.length; i++) {
+            destino[i] = Multiplicador.TRIPLO.multiplicar(valores[i]);
+        }
+        return destino;
+    }
+
+    @Benchmark
+    public double[] aplicarEmLote() {
+        Multiplicador.TRIPLO.aplicarEmLote(valores, destino);
+        return destino;
+    }
+}
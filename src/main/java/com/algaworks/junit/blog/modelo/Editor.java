@@ -1,19 +1,25 @@
 package com.algaworks.junit.blog.modelo;
 
+import com.algaworks.junit.blog.utilidade.Relogio;
+
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.OffsetDateTime;
 import java.util.Objects;
 
 public class Editor {
+    //Compartilhado pelos editores criados sem relógio, para não consultar o fuso a cada instância
+    private static final Relogio RELOGIO_PADRAO = Relogio.cacheado(Duration.ofMillis(1));
+
     private Long id;
     private String nome;
     private String email;
     private BigDecimal valorPagoPorPalavra;
     private boolean premium;
-    private OffsetDateTime dataCriacao = OffsetDateTime.now();
+    private OffsetDateTime dataCriacao;
 
     public Editor() {
-
+        this.dataCriacao = RELOGIO_PADRAO.agora();
     }
 
     public Editor(String nome, String email, BigDecimal valorPagoPorPalavra, boolean premium) {
@@ -21,14 +27,23 @@ public class Editor {
     }
 
     public Editor(Long id, String nome, String email, BigDecimal valorPagoPorPalavra, boolean premium) {
+        this(id, nome, email, valorPagoPorPalavra, premium, RELOGIO_PADRAO);
+    }
+
+    /**
+     * @param relogio usado para preencher a data de criação
+     */
+    public Editor(Long id, String nome, String email, BigDecimal valorPagoPorPalavra, boolean premium, Relogio relogio) {
         Objects.requireNonNull(nome);
         Objects.requireNonNull(email);
         Objects.requireNonNull(valorPagoPorPalavra);
+        Objects.requireNonNull(relogio);
         this.id = id; //Pode ser nulo, caso seja um editor novo
         this.nome = nome;
         this.email = email;
         this.valorPagoPorPalavra = valorPagoPorPalavra;
         this.premium = premium;
+        this.dataCriacao = relogio.agora();
     }
 
     /**
@@ -114,6 +129,7 @@ public class Editor {
         private String email;
         private BigDecimal valorPagoPorPalavra;
         private boolean premium;
+        private Relogio relogio = RELOGIO_PADRAO;
 
         private Builder() {
 
@@ -144,13 +160,19 @@ public class Editor {
             return this;
         }
 
+        public Builder comRelogio(Relogio relogio) {
+            this.relogio = relogio;
+            return this;
+        }
+
         public Editor build() {
             return new Editor(
                     this.id,
                     this.nome,
                     this.email,
                     this.valorPagoPorPalavra,
-                    this.premium
+                    this.premium,
+                    this.relogio
             );
         }
     }
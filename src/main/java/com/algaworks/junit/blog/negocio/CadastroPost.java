@@ -6,8 +6,8 @@ import com.algaworks.junit.blog.armazenamento.ArmazenamentoPost;
 import com.algaworks.junit.blog.modelo.Post;
 import com.algaworks.junit.blog.modelo.Notificacao;
 import com.algaworks.junit.blog.utilidade.ConversorSlug;
+import com.algaworks.junit.blog.utilidade.Relogio;
 
-import java.time.OffsetDateTime;
 import java.util.Objects;
 
 public class CadastroPost {
@@ -15,13 +15,22 @@ public class CadastroPost {
     private final ArmazenamentoPost armazenamentoPost;
     private final CalculadoraGanhos calculadoraGanhos;
     private final GerenciadorNotificacao gerenciadorNotificacao;
+    private final Relogio relogio;
 
     public CadastroPost(ArmazenamentoPost armazenamentoPost,
                         CalculadoraGanhos calculadoraGanhos,
                         GerenciadorNotificacao gerenciadorNotificacao) {
+        this(armazenamentoPost, calculadoraGanhos, gerenciadorNotificacao, Relogio.sistema());
+    }
+
+    public CadastroPost(ArmazenamentoPost armazenamentoPost,
+                        CalculadoraGanhos calculadoraGanhos,
+                        GerenciadorNotificacao gerenciadorNotificacao,
+                        Relogio relogio) {
         this.armazenamentoPost = armazenamentoPost;
         this.calculadoraGanhos = calculadoraGanhos;
         this.gerenciadorNotificacao = gerenciadorNotificacao;
+        this.relogio = relogio;
     }
 
     public Post criar(Post post) {
@@ -66,7 +75,7 @@ public class CadastroPost {
 
     private void enviarNotificacao(Post post) {
         Notificacao notificacao = new Notificacao(
-                OffsetDateTime.now(),
+                relogio.agora(),
                 "Novo post criado -> " + post.getTitulo()
         );
         this.gerenciadorNotificacao.enviar(notificacao);
@@ -0,0 +1,256 @@
+package com.algaworks.junit.blog.negocio;
+
+import com.algaworks.junit.blog.modelo.Notificacao;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Agrupa as notificações recebidas em lotes, fechados por tamanho ou por janela de tempo,
+ * e entrega um único resumo de cada lote a todos os assinantes.
+ * <p>
+ * A janela é verificada a cada envio e em {@link #descarregarSeExpirado()}, que deve ser
+ * chamado periodicamente (ex: por um {@link java.util.concurrent.ScheduledExecutorService})
+ * para que um lote parado não fique retido.
+ * <p>
+ * Cada assinante tem sua própria thread e fila, então quem envia nunca espera pela entrega e um
+ * assinante lento não atrasa os demais. Cada assinante recebe os resumos na mesma ordem em que os
+ * lotes foram fechados; falhas de um assinante são contadas e não interrompem as entregas seguintes.
+ * <p>
+ * A fila de cada assinante é limitada. Quando ela está cheia, o resumo é descartado apenas para
+ * esse assinante e contado em {@link #getDescartes()}; quem envia continua sem esperar e a memória
+ * não cresce por causa de um assinante lento.
+ */
+public class GerenciadorNotificacaoAgrupada implements GerenciadorNotificacao, AutoCloseable {
+
+    public static final int CAPACIDADE_PADRAO_FILA = 1024;
+
+    private final int tamanhoMaximoLote;
+    private final long janelaNanos;
+    private final List<GerenciadorNotificacao> assinantes;
+    private final List<ExecutorService> entregadores;
+    private final LongSupplier relogioNanos;
+    private final LongAdder falhas = new LongAdder();
+    private final LongAdder descartes = new LongAdder();
+
+    private final ReentrantLock lockLote = new ReentrantLock();
+    private List<Notificacao> lote;
+    private long inicioLoteNanos;
+    private boolean encerrado;
+
+    public GerenciadorNotificacaoAgrupada(int tamanhoMaximoLote,
+                                          Duration janela,
+                                          List<GerenciadorNotificacao> assinantes) {
+        this(tamanhoMaximoLote, janela, assinantes, CAPACIDADE_PADRAO_FILA);
+    }
+
+    /**
+     * @param capacidadeFila quantos resumos podem aguardar entrega em cada assinante
+     */
+    public GerenciadorNotificacaoAgrupada(int tamanhoMaximoLote,
+                                          Duration janela,
+                                          List<GerenciadorNotificacao> assinantes,
+                                          int capacidadeFila) {
+        this(tamanhoMaximoLote, janela, assinantes, capacidadeFila, System::nanoTime);
+    }
+
+    GerenciadorNotificacaoAgrupada(int tamanhoMaximoLote,
+                                   Duration janela,
+                                   List<GerenciadorNotificacao> assinantes,
+                                   LongSupplier relogioNanos) {
+        this(tamanhoMaximoLote, janela, assinantes, CAPACIDADE_PADRAO_FILA, relogioNanos);
+    }
+
+    GerenciadorNotificacaoAgrupada(int tamanhoMaximoLote,
+                                   Duration janela,
+                                   List<GerenciadorNotificacao> assinantes,
+                                   int capacidadeFila,
+                                   LongSupplier relogioNanos) {
+        if (tamanhoMaximoLote < 1) {
+            throw new IllegalArgumentException("Tamanho do lote deve ser maior que zero");
+        }
+        if (capacidadeFila < 1) {
+            throw new IllegalArgumentException("Capacidade da fila deve ser maior que zero");
+        }
+        Objects.requireNonNull(janela);
+        Objects.requireNonNull(assinantes);
+        this.tamanhoMaximoLote = tamanhoMaximoLote;
+        this.janelaNanos = janela.toNanos();
+        this.assinantes = List.copyOf(assinantes);
+        this.relogioNanos = relogioNanos;
+        this.lote = new ArrayList<>(tamanhoMaximoLote);
+        this.entregadores = new ArrayList<>(this.assinantes.size());
+        for (int i = 0; i < this.assinantes.size(); i++) {
+            String nome = "assinante-notificacoes-" + i;
+            this.entregadores.add(new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(capacidadeFila), tarefa -> {
+                        Thread thread = new Thread(tarefa, nome);
+                        thread.setDaemon(true);
+                        return thread;
+                    }));
+        }
+    }
+
+    @Override
+    public void enviar(Notificacao notificacao) {
+        Objects.requireNonNull(notificacao);
+
+        lockLote.lock();
+        try {
+            if (encerrado) {
+                throw new IllegalStateException("Gerenciador de notificações encerrado");
+            }
+            long agora = relogioNanos.getAsLong();
+            if (lote.isEmpty()) {
+                inicioLoteNanos = agora;
+            }
+            lote.add(notificacao);
+            if (lote.size() >= tamanhoMaximoLote || agora - inicioLoteNanos >= janelaNanos) {
+                fecharLote();
+            }
+        } finally {
+            lockLote.unlock();
+        }
+    }
+
+    /**
+     * Entrega o lote atual caso a janela de tempo já tenha terminado.
+     */
+    public void descarregarSeExpirado() {
+        descarregar(false);
+    }
+
+    /**
+     * Entrega o lote atual, mesmo que incompleto.
+     */
+    public void descarregar() {
+        descarregar(true);
+    }
+
+    /**
+     * @return quantas entregas a assinantes lançaram exception
+     */
+    public long getFalhas() {
+        return falhas.sum();
+    }
+
+    /**
+     * @return quantos resumos deixaram de ser entregues porque a fila do assinante estava cheia
+     */
+    public long getDescartes() {
+        return descartes.sum();
+    }
+
+    /**
+     * Entrega o lote atual, para de aceitar notificações e aguarda a entrega de todos os resumos.
+     */
+    @Override
+    public void close() {
+        lockLote.lock();
+        try {
+            if (!lote.isEmpty()) {
+                fecharLote();
+            }
+            encerrado = true;
+        } finally {
+            lockLote.unlock();
+        }
+
+        entregadores.forEach(ExecutorService::shutdown);
+        try {
+            for (ExecutorService entregador : entregadores) {
+                entregador.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Aguarda até que todos os resumos já fechados tenham sido entregues ou descartados.
+     */
+    void aguardarEntregas() throws InterruptedException {
+        List<Future<?>> marcadores = new ArrayList<>(entregadores.size());
+        for (ExecutorService entregador : entregadores) {
+            while (true) {
+                try {
+                    marcadores.add(entregador.submit(() -> { }));
+                    break;
+                } catch (RejectedExecutionException e) {
+                    TimeUnit.MILLISECONDS.sleep(1);
+                }
+            }
+        }
+        for (Future<?> marcador : marcadores) {
+            try {
+                marcador.get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    private void descarregar(boolean forcar) {
+        lockLote.lock();
+        try {
+            boolean expirado = relogioNanos.getAsLong() - inicioLoteNanos >= janelaNanos;
+            if (!encerrado && !lote.isEmpty() && (forcar || expirado)) {
+                fecharLote();
+            }
+        } finally {
+            lockLote.unlock();
+        }
+    }
+
+    /**
+     * Deve ser chamado com o lockLote adquirido, para que os resumos entrem nas filas dos
+     * assinantes na ordem em que os lotes foram fechados. Apenas enfileira; não espera a entrega
+     * e descarta o resumo para o assinante cuja fila estiver cheia.
+     */
+    private void fecharLote() {
+        Notificacao resumo = criarResumo(lote);
+        lote = new ArrayList<>(tamanhoMaximoLote);
+        for (int i = 0; i < assinantes.size(); i++) {
+            GerenciadorNotificacao assinante = assinantes.get(i);
+            try {
+                entregadores.get(i).execute(() -> {
+                    try {
+                        assinante.enviar(resumo);
+                    } catch (RuntimeException e) {
+                        falhas.increment();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                descartes.increment();
+            }
+        }
+    }
+
+    private Notificacao criarResumo(List<Notificacao> loteFechado) {
+        if (loteFechado.size() == 1) {
+            return loteFechado.get(0);
+        }
+
+        StringBuilder conteudo = new StringBuilder();
+        for (Notificacao notificacao : loteFechado) {
+            if (conteudo.length() > 0) {
+                conteudo.append('\n');
+            }
+            conteudo.append(notificacao.getConteudo());
+        }
+        Notificacao ultima = loteFechado.get(loteFechado.size() - 1);
+        return new Notificacao(ultima.getOffsetDateTime(), conteudo.toString());
+    }
+}
@@ -0,0 +1,247 @@
+package com.algaworks.junit.blog.negocio;
+
+import com.algaworks.junit.blog.modelo.Notificacao;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Entrega notificações aos consumidores em uma thread própria, para que quem publica
+ * (ex: {@link CadastroPost#criar}) não espere pela entrega.
+ * <p>
+ * As notificações ficam em um buffer circular pré-alocado. Cada posição tem uma sequência
+ * que indica se está livre ou publicada; o cursor dos produtores é disputado via CAS e a
+ * sequência de consumo é escrita apenas pela thread despachante.
+ * <p>
+ * Depois do {@link #close()} novas notificações são rejeitadas; as aceitas por envios que já estavam
+ * em andamento ainda são entregues antes do despachante terminar.
+ */
+public class GerenciadorNotificacaoAssincrono implements GerenciadorNotificacao, AutoCloseable {
+
+    public enum PoliticaContencao {
+        /**
+         * Espera até existir espaço no buffer.
+         */
+        BLOQUEAR,
+        /**
+         * Descarta a notificação quando o buffer está cheio.
+         */
+        DESCARTAR,
+        /**
+         * Com o buffer cheio, mantém apenas a notificação mais recente, entregue assim que o buffer esvaziar.
+         */
+        AGRUPAR
+    }
+
+    private static final long ESPERA_OCIOSA_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long ESPERA_BLOQUEIO_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final Notificacao[] notificacoes;
+    private final long[] instantesPublicacao;
+    private final AtomicLongArray sequencias;
+    private final int mascara;
+    private final AtomicLong cursorProdutor = new AtomicLong();
+    private final AtomicInteger enviosEmAndamento = new AtomicInteger();
+    private volatile long sequenciaConsumo;
+
+    private final AtomicReference<Notificacao> notificacaoAgrupada = new AtomicReference<>();
+    private final List<GerenciadorNotificacao> consumidores;
+    private final PoliticaContencao politica;
+    private final MetricasNotificacao metricas;
+    private final Thread despachante;
+    private volatile boolean ativo = true;
+    private volatile boolean despachanteOcioso;
+
+    public GerenciadorNotificacaoAssincrono(int capacidade,
+                                            PoliticaContencao politica,
+                                            List<GerenciadorNotificacao> consumidores) {
+        if (capacidade < 2 || Integer.bitCount(capacidade) != 1) {
+            throw new IllegalArgumentException("Capacidade deve ser uma potência de 2");
+        }
+        Objects.requireNonNull(politica);
+        Objects.requireNonNull(consumidores);
+
+        this.notificacoes = new Notificacao[capacidade];
+        this.instantesPublicacao = new long[capacidade];
+        this.sequencias = new AtomicLongArray(capacidade);
+        for (int i = 0; i < capacidade; i++) {
+            this.sequencias.set(i, i);
+        }
+        this.mascara = capacidade - 1;
+        this.politica = politica;
+        this.consumidores = List.copyOf(consumidores);
+        this.metricas = new MetricasNotificacao(() -> cursorProdutor.get() - sequenciaConsumo);
+
+        this.despachante = new Thread(this::despachar, "despachante-notificacoes");
+        this.despachante.setDaemon(true);
+        this.despachante.start();
+    }
+
+    @Override
+    public void enviar(Notificacao notificacao) {
+        Objects.requireNonNull(notificacao);
+        //Registrado antes de conferir se está ativo, para que o despachante espere este envio ao encerrar
+        enviosEmAndamento.incrementAndGet();
+        try {
+            if (!ativo) {
+                throw new IllegalStateException("Gerenciador de notificações encerrado");
+            }
+
+            metricas.registrarPublicacao();
+            if (notificacaoAgrupada.get() == null && tentarPublicar(notificacao)) {
+                return;
+            }
+
+            switch (politica) {
+                case BLOQUEAR -> publicarAguardando(notificacao);
+                case DESCARTAR -> metricas.registrarDescarte();
+                case AGRUPAR -> agrupar(notificacao);
+            }
+        } finally {
+            enviosEmAndamento.decrementAndGet();
+            acordarDespachante();
+        }
+    }
+
+    public MetricasNotificacao getMetricas() {
+        return metricas;
+    }
+
+    /**
+     * Para de aceitar notificações e aguarda a entrega das que já foram aceitas.
+     */
+    @Override
+    public void close() {
+        ativo = false;
+        LockSupport.unpark(despachante);
+        try {
+            despachante.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean tentarPublicar(Notificacao notificacao) {
+        while (true) {
+            long posicao = cursorProdutor.get();
+            int indice = (int) posicao & mascara;
+            long diferenca = sequencias.get(indice) - posicao;
+
+            if (diferenca < 0) {
+                return false; //Buffer cheio
+            }
+            if (diferenca == 0 && cursorProdutor.compareAndSet(posicao, posicao + 1)) {
+                notificacoes[indice] = notificacao;
+                instantesPublicacao[indice] = System.nanoTime();
+                sequencias.set(indice, posicao + 1);
+                return true;
+            }
+        }
+    }
+
+    private void publicarAguardando(Notificacao notificacao) {
+        while (!tentarPublicar(notificacao)) {
+            if (!ativo) {
+                throw new IllegalStateException("Gerenciador de notificações encerrado");
+            }
+            acordarDespachante();
+            LockSupport.parkNanos(ESPERA_BLOQUEIO_NANOS);
+        }
+    }
+
+    private void agrupar(Notificacao notificacao) {
+        if (notificacaoAgrupada.getAndSet(notificacao) != null) {
+            metricas.registrarAgrupamento();
+        }
+    }
+
+    private void acordarDespachante() {
+        if (despachanteOcioso) {
+            LockSupport.unpark(despachante);
+        }
+    }
+
+    private void despachar() {
+        while (true) {
+            if (consumirDisponiveis() || entregarAgrupada()) {
+                continue;
+            }
+            if (!ativo) {
+                if (enviosEmAndamento.get() > 0) {
+                    LockSupport.parkNanos(this, ESPERA_BLOQUEIO_NANOS);
+                    continue;
+                }
+                //Sem envios em andamento nada mais será publicado, mas um pode ter terminado após a última leitura
+                if (!consumirDisponiveis() && !entregarAgrupada()) {
+                    return;
+                }
+                continue;
+            }
+
+            despachanteOcioso = true;
+            if (!haNotificacaoPublicada() && notificacaoAgrupada.get() == null) {
+                LockSupport.parkNanos(this, ESPERA_OCIOSA_NANOS);
+            }
+            despachanteOcioso = false;
+        }
+    }
+
+    private boolean consumirDisponiveis() {
+        boolean consumiu = false;
+        long posicao = sequenciaConsumo;
+
+        while (true) {
+            int indice = (int) posicao & mascara;
+            if (sequencias.get(indice) != posicao + 1) {
+                break;
+            }
+
+            Notificacao notificacao = notificacoes[indice];
+            long instantePublicacao = instantesPublicacao[indice];
+            notificacoes[indice] = null;
+            sequencias.set(indice, posicao + notificacoes.length);
+            sequenciaConsumo = ++posicao;
+
+            entregar(notificacao);
+            metricas.registrarLatencia(System.nanoTime() - instantePublicacao);
+            consumiu = true;
+        }
+
+        return consumiu;
+    }
+
+    private boolean haNotificacaoPublicada() {
+        long posicao = sequenciaConsumo;
+        return sequencias.get((int) posicao & mascara) == posicao + 1;
+    }
+
+    private boolean entregarAgrupada() {
+        //Só entrega depois de esvaziar o buffer, preservando a ordem de publicação
+        if (haNotificacaoPublicada()) {
+            return false;
+        }
+        Notificacao notificacao = notificacaoAgrupada.getAndSet(null);
+        if (notificacao == null) {
+            return false;
+        }
+        entregar(notificacao);
+        return true;
+    }
+
+    private void entregar(Notificacao notificacao) {
+        for (GerenciadorNotificacao consumidor : consumidores) {
+            try {
+                consumidor.enviar(notificacao);
+                metricas.registrarEntrega();
+            } catch (RuntimeException e) {
+                metricas.registrarFalha();
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.algaworks.junit.blog.negocio;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Contadores do {@link GerenciadorNotificacaoAssincrono}, lidos sem bloquear o despacho.
+ */
+public class MetricasNotificacao {
+
+    private final LongAdder publicadas = new LongAdder();
+    private final LongAdder entregues = new LongAdder();
+    private final LongAdder descartadas = new LongAdder();
+    private final LongAdder agrupadas = new LongAdder();
+    private final LongAdder falhas = new LongAdder();
+    private final LongSupplier profundidadeFila;
+
+    //Escritos apenas pela thread despachante
+    private volatile long latenciaTotalNanos;
+    private volatile long latenciaMaximaNanos;
+    private volatile long amostrasLatencia;
+
+    MetricasNotificacao(LongSupplier profundidadeFila) {
+        this.profundidadeFila = profundidadeFila;
+    }
+
+    void registrarPublicacao() {
+        publicadas.increment();
+    }
+
+    void registrarEntrega() {
+        entregues.increment();
+    }
+
+    void registrarDescarte() {
+        descartadas.increment();
+    }
+
+    void registrarAgrupamento() {
+        agrupadas.increment();
+    }
+
+    void registrarFalha() {
+        falhas.increment();
+    }
+
+    void registrarLatencia(long nanos) {
+        latenciaTotalNanos += nanos;
+        amostrasLatencia++;
+        if (nanos > latenciaMaximaNanos) {
+            latenciaMaximaNanos = nanos;
+        }
+    }
+
+    public long getPublicadas() {
+        return publicadas.sum();
+    }
+
+    public long getEntregues() {
+        return entregues.sum();
+    }
+
+    public long getDescartadas() {
+        return descartadas.sum();
+    }
+
+    public long getAgrupadas() {
+        return agrupadas.sum();
+    }
+
+    public long getFalhas() {
+        return falhas.sum();
+    }
+
+    public long getProfundidadeFila() {
+        return profundidadeFila.getAsLong();
+    }
+
+    public long getLatenciaMediaNanos() {
+        long amostras = amostrasLatencia;
+        return amostras == 0 ? 0 : latenciaTotalNanos / amostras;
+    }
+
+    public long getLatenciaMaximaNanos() {
+        return latenciaMaximaNanos;
+    }
+}
@@ -0,0 +1,24 @@
+package com.algaworks.junit.blog.utilidade;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+
+/**
+ * Fonte da data/hora atual, permitindo trocar o relógio do sistema por uma versão em cache ou fixa.
+ */
+public interface Relogio {
+
+    OffsetDateTime agora();
+
+    static Relogio sistema() {
+        return OffsetDateTime::now;
+    }
+
+    /**
+     * Relógio que reaproveita o mesmo {@link OffsetDateTime} enquanto durar a granularidade,
+     * evitando a consulta às regras de fuso horário e a alocação a cada chamada.
+     */
+    static Relogio cacheado(Duration granularidade) {
+        return new RelogioCacheado(granularidade);
+    }
+}
@@ -0,0 +1,56 @@
+package com.algaworks.junit.blog.utilidade;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.Objects;
+import java.util.function.LongSupplier;
+
+public class RelogioCacheado implements Relogio {
+
+    private final long granularidadeMillis;
+    private final ZoneId zona;
+    private final LongSupplier relogioMillis;
+    private volatile Leitura ultimaLeitura;
+
+    public RelogioCacheado(Duration granularidade) {
+        this(granularidade, ZoneId.systemDefault(), System::currentTimeMillis);
+    }
+
+    RelogioCacheado(Duration granularidade, ZoneId zona, LongSupplier relogioMillis) {
+        Objects.requireNonNull(granularidade);
+        Objects.requireNonNull(zona);
+        if (granularidade.compareTo(Duration.ofMillis(1)) < 0) {
+            //O relógio é lido em milissegundos; abaixo disso o cache nunca seria usado
+            throw new IllegalArgumentException("Granularidade deve ser de pelo menos 1 ms");
+        }
+        this.granularidadeMillis = granularidade.toMillis();
+        this.zona = zona;
+        this.relogioMillis = relogioMillis;
+    }
+
+    @Override
+    public OffsetDateTime agora() {
+        long millis = relogioMillis.getAsLong();
+        Leitura leitura = ultimaLeitura;
+        if (leitura != null && millis >= leitura.inicioMillis
+                && millis - leitura.inicioMillis < granularidadeMillis) {
+            return leitura.dataHora;
+        }
+
+        OffsetDateTime dataHora = OffsetDateTime.ofInstant(Instant.ofEpochMilli(millis), zona);
+        ultimaLeitura = new Leitura(millis, dataHora);
+        return dataHora;
+    }
+
+    private static final class Leitura {
+        private final long inicioMillis;
+        private final OffsetDateTime dataHora;
+
+        private Leitura(long inicioMillis, OffsetDateTime dataHora) {
+            this.inicioMillis = inicioMillis;
+            this.dataHora = dataHora;
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.algaworks.junit.ecommerce;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Conteúdo de um carrinho guardado apenas como ids de produto e quantidades em arrays primitivos,
+ * na ordem de inclusão. Ocupa três objetos independente da quantidade de itens, ao invés de um
+ * {@link ItemCarrinhoCompra} e um {@link Produto} por item.
+ * <p>
+ * Não é thread safe.
+ */
+public class CarrinhoCompacto {
+
+	private static final int CAPACIDADE_INICIAL = 4;
+
+	//Tamanhos aproximados em uma JVM 64 bits com referências comprimidas
+	private static final int BYTES_CABECALHO_OBJETO = 12;
+	private static final int BYTES_CABECALHO_ARRAY = 16;
+
+	private long[] idsProdutos;
+	private int[] quantidades;
+	private int tamanho;
+
+	public CarrinhoCompacto() {
+		this(CAPACIDADE_INICIAL);
+	}
+
+	private CarrinhoCompacto(int capacidade) {
+		this.idsProdutos = new long[capacidade];
+		this.quantidades = new int[capacidade];
+	}
+
+	public static CarrinhoCompacto de(CarrinhoCompra carrinhoCompra) {
+		Objects.requireNonNull(carrinhoCompra);
+		CarrinhoCompacto compacto = new CarrinhoCompacto(carrinhoCompra.getItensSomenteLeitura().size());
+		carrinhoCompra.paraCadaItem(item -> compacto.adicionarProduto(item.getProduto().getId(), item.getQuantidade()));
+		return compacto;
+	}
+
+	public void adicionarProduto(long idProduto, int quantidade) {
+		if (quantidade < 1) {
+			throw new IllegalArgumentException();
+		}
+		int posicao = posicaoDoProduto(idProduto);
+		if (posicao >= 0) {
+			quantidades[posicao] = Math.addExact(quantidades[posicao], quantidade);
+			return;
+		}
+		if (tamanho == idsProdutos.length) {
+			int capacidade = Math.max(CAPACIDADE_INICIAL, tamanho * 2);
+			idsProdutos = Arrays.copyOf(idsProdutos, capacidade);
+			quantidades = Arrays.copyOf(quantidades, capacidade);
+		}
+		idsProdutos[tamanho] = idProduto;
+		quantidades[tamanho] = quantidade;
+		tamanho++;
+	}
+
+	public void aumentarQuantidadeProduto(long idProduto) {
+		int posicao = encontrarPosicao(idProduto);
+		quantidades[posicao] = Math.addExact(quantidades[posicao], 1);
+	}
+
+	public void diminuirQuantidadeProduto(long idProduto) {
+		int posicao = encontrarPosicao(idProduto);
+		if (quantidades[posicao] == 1) {
+			remover(posicao);
+		} else {
+			quantidades[posicao]--;
+		}
+	}
+
+	public void removerProduto(long idProduto) {
+		remover(encontrarPosicao(idProduto));
+	}
+
+	public void esvaziar() {
+		tamanho = 0;
+	}
+
+	/**
+	 * @return a quantidade do produto, ou zero caso não esteja no carrinho
+	 */
+	public int quantidadeDoProduto(long idProduto) {
+		int posicao = posicaoDoProduto(idProduto);
+		return posicao >= 0 ? quantidades[posicao] : 0;
+	}
+
+	/**
+	 * @return a quantidade de itens (produtos distintos)
+	 */
+	public int tamanho() {
+		return tamanho;
+	}
+
+	public long getIdProduto(int posicao) {
+		Objects.checkIndex(posicao, tamanho);
+		return idsProdutos[posicao];
+	}
+
+	public int getQuantidade(int posicao) {
+		Objects.checkIndex(posicao, tamanho);
+		return quantidades[posicao];
+	}
+
+	public int getQuantidadeTotalDeProdutos() {
+		int total = 0;
+		for (int i = 0; i < tamanho; i++) {
+			total = Math.addExact(total, quantidades[i]);
+		}
+		return total;
+	}
+
+	/**
+	 * @return uma cópia sem capacidade sobrando
+	 */
+	public CarrinhoCompacto copia() {
+		CarrinhoCompacto copia = new CarrinhoCompacto(tamanho);
+		System.arraycopy(idsProdutos, 0, copia.idsProdutos, 0, tamanho);
+		System.arraycopy(quantidades, 0, copia.quantidades, 0, tamanho);
+		copia.tamanho = tamanho;
+		return copia;
+	}
+
+	/**
+	 * Estima quantos bytes de heap o carrinho ocupa, incluindo a capacidade ainda não usada dos arrays.
+	 */
+	public long estimarTamanhoEmBytes() {
+		long objeto = alinhar(BYTES_CABECALHO_OBJETO + 2 * 4 + 4); //Duas referências e o tamanho
+		long ids = alinhar(BYTES_CABECALHO_ARRAY + (long) idsProdutos.length * Long.BYTES);
+		long qtds = alinhar(BYTES_CABECALHO_ARRAY + (long) quantidades.length * Integer.BYTES);
+		return objeto + ids + qtds;
+	}
+
+	static long alinhar(long bytes) {
+		return (bytes + 7) & ~7L;
+	}
+
+	private int posicaoDoProduto(long idProduto) {
+		for (int i = 0; i < tamanho; i++) {
+			if (idsProdutos[i] == idProduto) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private int encontrarPosicao(long idProduto) {
+		int posicao = posicaoDoProduto(idProduto);
+		if (posicao < 0) {
+			throw new RuntimeException();
+		}
+		return posicao;
+	}
+
+	private void remover(int posicao) {
+		int seguintes = tamanho - posicao - 1;
+		System.arraycopy(idsProdutos, posicao + 1, idsProdutos, posicao, seguintes);
+		System.arraycopy(quantidades, posicao + 1, quantidades, posicao, seguintes);
+		tamanho--;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) return true;
+		if (o == null || getClass() != o.getClass()) return false;
+		CarrinhoCompacto that = (CarrinhoCompacto) o;
+		return tamanho == that.tamanho
+				&& Arrays.equals(idsProdutos, 0, tamanho, that.idsProdutos, 0, tamanho)
+				&& Arrays.equals(quantidades, 0, tamanho, that.quantidades, 0, tamanho);
+	}
+
+	@Override
+	public int hashCode() {
+		int resultado = tamanho;
+		for (int i = 0; i < tamanho; i++) {
+			resultado = 31 * resultado + Long.hashCode(idsProdutos[i]);
+			resultado = 31 * resultado + quantidades[i];
+		}
+		return resultado;
+	}
+}
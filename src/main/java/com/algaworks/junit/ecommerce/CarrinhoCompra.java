@@ -2,15 +2,26 @@ package com.algaworks.junit.ecommerce;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
-import java.util.Optional;
+import java.util.function.Consumer;
 
 public class CarrinhoCompra {
 
 	private final Cliente cliente;
-	private final List<ItemCarrinhoCompra> itens;
+	private final Map<Long, ItemCarrinhoCompra> itens; //Indexados pelo id do produto, na ordem de inclusão
+	private List<ItemCarrinhoCompra> itensSomenteLeitura; //Compartilhada até a próxima inclusão ou remoção de item
+
+	//Totais mantidos a cada alteração. O valor total fica em ponto fixo: valorTotalNaoEscalado * 10^-escalaValorTotal,
+	//com a maior escala entre os itens, como na soma dos itens com BigDecimal.
+	//Se algum valor não couber em um long, o valor total passa a ser a soma dos itens com BigDecimal até o carrinho esvaziar.
+	private int quantidadeTotal;
+	private boolean valorTotalEmPontoFixo = true;
+	private long valorTotalNaoEscalado;
+	private int escalaValorTotal;
+	private BigDecimal valorTotal = BigDecimal.ZERO;
 
 	public CarrinhoCompra(Cliente cliente) {
 		this(cliente, new ArrayList<>());
@@ -20,13 +31,43 @@ public class CarrinhoCompra {
 		Objects.requireNonNull(cliente);
 		Objects.requireNonNull(itens);
 		this.cliente = cliente;
-		this.itens = new ArrayList<>(itens); //Cria lista caso passem uma imutável
+		this.itens = new LinkedHashMap<>();
+		//Copia os itens para que os recebidos não sejam alterados, nem pelo agrupamento nem depois
+		itens.forEach(item -> this.itens.merge(item.getProduto().getId(),
+				new ItemCarrinhoCompra(item.getProduto(), item.getQuantidade()),
+				(existente, novo) -> {
+					existente.adicionarQuantidade(novo.getQuantidade());
+					return existente;
+				}));
+		this.itens.values().forEach(item -> {
+			item.associar(this);
+			somarAosTotais(item, item.getQuantidade());
+		});
 	}
 
 	public List<ItemCarrinhoCompra> getItens() {
 		//TODO deve retornar uma nova lista para que a antiga não seja alterada
 
-		return new ArrayList<>(itens);
+		return new ArrayList<>(itens.values());
+	}
+
+	/**
+	 * Retorna uma lista imutável dos itens, reaproveitada entre chamadas enquanto nenhum item
+	 * for incluído ou removido. Os itens são os mesmos do carrinho, então refletem alterações de quantidade.
+	 */
+	public List<ItemCarrinhoCompra> getItensSomenteLeitura() {
+		if (this.itensSomenteLeitura == null) {
+			this.itensSomenteLeitura = List.copyOf(this.itens.values());
+		}
+		return this.itensSomenteLeitura;
+	}
+
+	/**
+	 * Percorre os itens na ordem de inclusão sem criar cópias. O carrinho não deve ser alterado durante a iteração.
+	 */
+	public void paraCadaItem(Consumer<ItemCarrinhoCompra> acao) {
+		Objects.requireNonNull(acao);
+		this.itens.values().forEach(acao);
 	}
 
 	public Cliente getCliente() {
@@ -41,9 +82,12 @@ public class CarrinhoCompra {
 		Objects.requireNonNull(produto);
 		validaQuantidade(quantidade);
 
-		encontrarItemPeloProduto(produto)
-				.ifPresentOrElse(item -> item.adicionarQuantidade(quantidade),
-						() -> adicionarNovoItem(produto, quantidade));
+		ItemCarrinhoCompra item = itens.get(produto.getId());
+		if (item != null) {
+			item.adicionarQuantidade(quantidade); //O item avisa o carrinho, que atualiza os totais
+		} else {
+			adicionarNovoItem(produto, quantidade);
+		}
 	}
 
 	public void removerProduto(Produto produto) {
@@ -53,8 +97,13 @@ public class CarrinhoCompra {
 
 		Objects.requireNonNull(produto);
 
-		ItemCarrinhoCompra item = encontrarItemPeloProduto(produto).orElseThrow(RuntimeException::new);
-		this.itens.remove(item);
+		ItemCarrinhoCompra item = this.itens.remove(produto.getId());
+		if (item == null) {
+			throw new RuntimeException();
+		}
+		this.itensSomenteLeitura = null;
+		item.associar(null);
+		somarAosTotais(item, -item.getQuantidade());
 	}
 
 	public void aumentarQuantidadeProduto(Produto produto) {
@@ -64,8 +113,7 @@ public class CarrinhoCompra {
 
 		Objects.requireNonNull(produto);
 
-		ItemCarrinhoCompra item = encontrarItemPeloProduto(produto).orElseThrow(RuntimeException::new);
-		item.adicionarQuantidade(1);
+		encontrarItemPeloProduto(produto).adicionarQuantidade(1);
 	}
 
     public void diminuirQuantidadeProduto(Produto produto) {
@@ -75,10 +123,13 @@ public class CarrinhoCompra {
 
 		Objects.requireNonNull(produto);
 
-		ItemCarrinhoCompra item = encontrarItemPeloProduto(produto).orElseThrow(RuntimeException::new);
+		ItemCarrinhoCompra item = encontrarItemPeloProduto(produto);
 
 		if (item.getQuantidade() == 1) {
-			this.itens.remove(item);
+			this.itens.remove(produto.getId());
+			this.itensSomenteLeitura = null;
+			item.associar(null);
+			somarAosTotais(item, -1);
 		} else {
 			item.subtrairQuantidade(1);
 		}
@@ -87,24 +138,30 @@ public class CarrinhoCompra {
     public BigDecimal getValorTotal() {
 		//TODO implementar soma do valor total de todos itens
 
-		return this.itens.stream()
-				.map(ItemCarrinhoCompra::getValorTotal)
-				.reduce(BigDecimal.ZERO, BigDecimal::add);
+		if (this.valorTotal == null) {
+			this.valorTotal = this.valorTotalEmPontoFixo
+					? BigDecimal.valueOf(this.valorTotalNaoEscalado, this.escalaValorTotal)
+					: this.itens.values().stream()
+							.map(ItemCarrinhoCompra::getValorTotal)
+							.reduce(BigDecimal.ZERO, BigDecimal::add);
+		}
+		return this.valorTotal;
     }
 
 	public int getQuantidadeTotalDeProdutos() {
 		//TODO retorna quantidade total de itens no carrinho
 		//TODO Exemplo em um carrinho com 2 itens, com a quantidade 2 e 3 para cada item respectivamente, deve retornar 5
 
-		return this.itens.stream()
-				.map(ItemCarrinhoCompra::getQuantidade)
-				.reduce(0, Integer::sum);
+		return this.quantidadeTotal;
 	}
 
 	public void esvaziar() {
 		//TODO deve remover todos os itens
 
+		this.itens.values().forEach(item -> item.associar(null));
 		this.itens.clear();
+		this.itensSomenteLeitura = null;
+		zerarTotais();
 	}
 
 	private static void validaQuantidade(int quantidade) {
@@ -114,13 +171,95 @@ public class CarrinhoCompra {
 	}
 
 	private void adicionarNovoItem(Produto produto, int quantidade) {
-		this.itens.add(new ItemCarrinhoCompra(produto, quantidade));
+		ItemCarrinhoCompra item = new ItemCarrinhoCompra(produto, quantidade);
+		this.itens.put(produto.getId(), item);
+		this.itensSomenteLeitura = null;
+		item.associar(this);
+		somarAosTotais(item, quantidade);
+	}
+
+	/**
+	 * Chamado pelo item antes de alterar a sua quantidade, inclusive quando alterada fora do carrinho.
+	 */
+	void quantidadeAlterada(ItemCarrinhoCompra item, int variacaoQuantidade) {
+		somarAosTotais(item, variacaoQuantidade);
 	}
 
-	private Optional<ItemCarrinhoCompra> encontrarItemPeloProduto(Produto produto) {
-		return this.itens.stream()
-				.filter(item -> item.getProduto().equals(produto))
-				.findFirst();
+	/**
+	 * Atualiza os totais com a variação de quantidade de um item, que pode ser negativa.
+	 */
+	private void somarAosTotais(ItemCarrinhoCompra item, int variacaoQuantidade) {
+		if (this.itens.isEmpty()) {
+			zerarTotais();
+			return;
+		}
+
+		this.quantidadeTotal = Math.addExact(this.quantidadeTotal, variacaoQuantidade);
+		this.valorTotal = null;
+		if (this.valorTotalEmPontoFixo) {
+			this.valorTotalEmPontoFixo = somarAoValorEmPontoFixo(item, variacaoQuantidade);
+		}
+		boolean itemRemovido = this.itens.get(item.getProduto().getId()) != item;
+		if (this.valorTotalEmPontoFixo && itemRemovido && item.getEscalaValorUnitario() == this.escalaValorTotal) {
+			reduzirEscalaValorTotal();
+		}
+	}
+
+	/**
+	 * Volta à maior escala entre os itens restantes, já que o item removido podia ser o único com ela.
+	 */
+	private void reduzirEscalaValorTotal() {
+		int escala = 0;
+		for (ItemCarrinhoCompra restante : this.itens.values()) {
+			escala = Math.max(escala, restante.getEscalaValorUnitario());
+		}
+		for (; this.escalaValorTotal > escala; this.escalaValorTotal--) {
+			this.valorTotalNaoEscalado /= 10; //Exato: todos os itens restantes cabem na escala menor
+		}
+	}
+
+	/**
+	 * @return false, sem alterar o valor total, caso o resultado não caiba em ponto fixo
+	 */
+	private boolean somarAoValorEmPontoFixo(ItemCarrinhoCompra item, int variacaoQuantidade) {
+		if (!item.temValorUnitarioEmPontoFixo()) {
+			return false;
+		}
+		try {
+			int escalaItem = item.getEscalaValorUnitario();
+			int escala = Math.max(this.escalaValorTotal, escalaItem);
+			long total = multiplicarPorPotenciaDeDez(this.valorTotalNaoEscalado, escala - this.escalaValorTotal);
+			long valorUnitario = multiplicarPorPotenciaDeDez(item.getValorUnitarioNaoEscalado(), escala - escalaItem);
+
+			this.valorTotalNaoEscalado = Math.addExact(total, Math.multiplyExact(valorUnitario, variacaoQuantidade));
+			this.escalaValorTotal = escala;
+			return true;
+		} catch (ArithmeticException e) {
+			return false;
+		}
+	}
+
+	private void zerarTotais() {
+		this.quantidadeTotal = 0;
+		this.valorTotalEmPontoFixo = true;
+		this.valorTotalNaoEscalado = 0;
+		this.escalaValorTotal = 0;
+		this.valorTotal = BigDecimal.ZERO;
+	}
+
+	static long multiplicarPorPotenciaDeDez(long valor, int expoente) {
+		for (int i = 0; i < expoente; i++) {
+			valor = Math.multiplyExact(valor, 10);
+		}
+		return valor;
+	}
+
+	private ItemCarrinhoCompra encontrarItemPeloProduto(Produto produto) {
+		ItemCarrinhoCompra item = this.itens.get(produto.getId());
+		if (item == null) {
+			throw new RuntimeException();
+		}
+		return item;
 	}
 
 	@Override
@@ -128,11 +267,12 @@ public class CarrinhoCompra {
 		if (this == o) return true;
 		if (o == null || getClass() != o.getClass()) return false;
 		CarrinhoCompra that = (CarrinhoCompra) o;
-		return Objects.equals(itens, that.itens) && Objects.equals(cliente, that.cliente);
+		//Compara as listas, e não os mapas, para considerar a ordem dos itens
+		return Objects.equals(getItensSomenteLeitura(), that.getItensSomenteLeitura()) && Objects.equals(cliente, that.cliente);
 	}
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(itens, cliente);
+		return Objects.hash(getItensSomenteLeitura(), cliente);
 	}
 }
\ No newline at end of file
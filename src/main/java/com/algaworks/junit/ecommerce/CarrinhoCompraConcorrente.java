@@ -0,0 +1,234 @@
+package com.algaworks.junit.ecommerce;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Carrinho de compras que pode ser alterado por várias threads ao mesmo tempo (ex: abas e sessões
+ * diferentes do mesmo cliente), sem locks.
+ * <p>
+ * A quantidade de cada item é alterada via CAS. Os totais de quantidade e valor são
+ * atualizados juntos em uma única troca atômica, então uma leitura nunca vê um sem o outro.
+ * Aumentos entram nos totais antes da linha e reduções depois, então durante alterações
+ * concorrentes os totais podem incluir por um instante uma alteração em andamento, mas nunca
+ * ficam abaixo da soma dos itens; sem alterações em andamento, batem com os itens. Uma alteração que
+ * estouraria os totais lança {@link ArithmeticException} sem alterar os totais nem os itens.
+ * Os valores dos produtos são mantidos em centavos e devem ter no máximo duas casas decimais.
+ */
+public class CarrinhoCompraConcorrente {
+
+	private static final int ESCALA = 2;
+	private static final int REMOVIDO = -1;
+
+	private final Cliente cliente;
+	private final ConcurrentHashMap<Long, Linha> linhas = new ConcurrentHashMap<>();
+	private final AtomicLong sequenciaLinhas = new AtomicLong();
+	private final AtomicReference<Totais> totais = new AtomicReference<>(Totais.ZERO);
+
+	public CarrinhoCompraConcorrente(Cliente cliente) {
+		Objects.requireNonNull(cliente);
+		this.cliente = cliente;
+	}
+
+	public Cliente getCliente() {
+		return cliente;
+	}
+
+	public void adicionarProduto(Produto produto, int quantidade) {
+		Objects.requireNonNull(produto);
+		if (quantidade < 1) {
+			throw new IllegalArgumentException();
+		}
+
+		while (true) {
+			Linha linha = linhas.computeIfAbsent(produto.getId(),
+					id -> new Linha(produto, sequenciaLinhas.getAndIncrement()));
+			boolean somado;
+			try {
+				somado = somarALinha(linha, quantidade, false);
+			} catch (ArithmeticException e) {
+				descartarSeVazia(linha);
+				throw e;
+			}
+			if (somado) {
+				return;
+			}
+			linhas.remove(produto.getId(), linha); //Removida por outra thread, cria uma nova
+		}
+	}
+
+	public void removerProduto(Produto produto) {
+		Objects.requireNonNull(produto);
+		Linha linha = encontrarLinha(produto);
+
+		while (true) {
+			int atual = linha.quantidade.get();
+			validarPresente(atual);
+			if (linha.quantidade.compareAndSet(atual, REMOVIDO)) {
+				linhas.remove(produto.getId(), linha);
+				somarAosTotais(-atual, linha.valorEmCentavos);
+				return;
+			}
+		}
+	}
+
+	public void aumentarQuantidadeProduto(Produto produto) {
+		Objects.requireNonNull(produto);
+		if (!somarALinha(encontrarLinha(produto), 1, true)) {
+			throw new RuntimeException(); //Removida por outra thread
+		}
+	}
+
+	public void diminuirQuantidadeProduto(Produto produto) {
+		Objects.requireNonNull(produto);
+		Linha linha = encontrarLinha(produto);
+
+		while (true) {
+			int atual = linha.quantidade.get();
+			validarPresente(atual);
+			int nova = atual == 1 ? REMOVIDO : atual - 1;
+			if (linha.quantidade.compareAndSet(atual, nova)) {
+				if (nova == REMOVIDO) {
+					linhas.remove(produto.getId(), linha);
+				}
+				somarAosTotais(-1, linha.valorEmCentavos);
+				return;
+			}
+		}
+	}
+
+	public void esvaziar() {
+		for (Linha linha : linhas.values()) {
+			int atual = linha.quantidade.get();
+			while (atual > 0 && !linha.quantidade.compareAndSet(atual, REMOVIDO)) {
+				atual = linha.quantidade.get();
+			}
+			if (atual > 0) {
+				linhas.remove(linha.produto.getId(), linha);
+				somarAosTotais(-atual, linha.valorEmCentavos);
+			}
+		}
+	}
+
+	/**
+	 * @return uma cópia dos itens na ordem de inclusão
+	 */
+	public List<ItemCarrinhoCompra> getItens() {
+		List<Linha> atuais = new ArrayList<>(linhas.values());
+		atuais.sort(Comparator.comparingLong(linha -> linha.sequencia));
+
+		List<ItemCarrinhoCompra> itens = new ArrayList<>(atuais.size());
+		for (Linha linha : atuais) {
+			int quantidade = linha.quantidade.get();
+			if (quantidade > 0) {
+				itens.add(new ItemCarrinhoCompra(linha.produto, quantidade));
+			}
+		}
+		return itens;
+	}
+
+	public int getQuantidadeTotalDeProdutos() {
+		return totais.get().quantidade;
+	}
+
+	public BigDecimal getValorTotal() {
+		return BigDecimal.valueOf(totais.get().valorEmCentavos, ESCALA);
+	}
+
+	private Linha encontrarLinha(Produto produto) {
+		Linha linha = linhas.get(produto.getId());
+		if (linha == null) {
+			throw new RuntimeException();
+		}
+		return linha;
+	}
+
+	/**
+	 * Soma aos totais antes de somar à linha, desfazendo caso a linha tenha sido removida ou a soma falhe.
+	 *
+	 * @param exigirPresente se uma linha ainda sendo incluída por outra thread deve ser tratada como ausente
+	 * @return se a quantidade foi somada
+	 */
+	private boolean somarALinha(Linha linha, int quantidade, boolean exigirPresente) {
+		somarAosTotais(quantidade, linha.valorEmCentavos);
+		boolean somado = false;
+		try {
+			while (true) {
+				int atual = linha.quantidade.get();
+				if (atual == REMOVIDO || (exigirPresente && atual == 0)) {
+					return false;
+				}
+				if (linha.quantidade.compareAndSet(atual, Math.addExact(atual, quantidade))) {
+					somado = true;
+					return true;
+				}
+			}
+		} finally {
+			if (!somado) {
+				somarAosTotais(-quantidade, linha.valorEmCentavos);
+			}
+		}
+	}
+
+	/**
+	 * Remove uma linha que acabou de ser incluída e ficou sem quantidade. Outra thread somando a ela
+	 * passa a vê-la como removida e cria uma nova.
+	 */
+	private void descartarSeVazia(Linha linha) {
+		if (linha.quantidade.compareAndSet(0, REMOVIDO)) {
+			linhas.remove(linha.produto.getId(), linha);
+		}
+	}
+
+	private static void validarPresente(int quantidade) {
+		if (quantidade <= 0) {
+			throw new RuntimeException(); //Removida ou ainda sendo incluída por outra thread
+		}
+	}
+
+	/**
+	 * @throws ArithmeticException caso algum total estoure, sem alterar os totais
+	 */
+	private void somarAosTotais(int variacaoQuantidade, long valorEmCentavos) {
+		long variacaoValor = Math.multiplyExact(valorEmCentavos, variacaoQuantidade);
+		Totais atuais;
+		Totais novos;
+		do {
+			atuais = totais.get();
+			novos = new Totais(Math.addExact(atuais.quantidade, variacaoQuantidade),
+					Math.addExact(atuais.valorEmCentavos, variacaoValor));
+		} while (!totais.compareAndSet(atuais, novos));
+	}
+
+	private static final class Linha {
+		private final Produto produto;
+		private final long valorEmCentavos;
+		private final long sequencia;
+		private final AtomicInteger quantidade = new AtomicInteger();
+
+		private Linha(Produto produto, long sequencia) {
+			this.produto = produto;
+			this.sequencia = sequencia;
+			this.valorEmCentavos = produto.getValorEmCentavos();
+		}
+	}
+
+	private static final class Totais {
+		private static final Totais ZERO = new Totais(0, 0);
+
+		private final int quantidade;
+		private final long valorEmCentavos;
+
+		private Totais(int quantidade, long valorEmCentavos) {
+			this.quantidade = quantidade;
+			this.valorEmCentavos = valorEmCentavos;
+		}
+	}
+}
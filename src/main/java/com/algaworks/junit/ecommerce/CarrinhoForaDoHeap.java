@@ -0,0 +1,244 @@
+package com.algaworks.junit.ecommerce;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.Objects;
+
+/**
+ * Conteúdo de um carrinho guardado em um {@link ByteBuffer} direto, fora do heap coletado pelo GC.
+ * <p>
+ * O buffer começa com a quantidade de itens (int) seguida de um registro de tamanho fixo por item,
+ * na ordem de inclusão: id do produto (long), quantidade (int) e valor unitário em centavos (long),
+ * todos big-endian. O mesmo formato é usado na persistência, então {@link #comoBuffer()} e
+ * {@link #escreverEm(WritableByteChannel)} não copiam os dados.
+ * <p>
+ * Não é thread safe.
+ */
+public class CarrinhoForaDoHeap {
+
+	static final int TAMANHO_CABECALHO = Integer.BYTES;
+	static final int TAMANHO_REGISTRO = Long.BYTES + Integer.BYTES + Long.BYTES;
+
+	/**
+	 * Quantidade máxima de itens (cerca de 1,3 MB de registros). Limita também o que é lido de um canal,
+	 * para que um cabeçalho corrompido não aloque gigabytes fora do heap.
+	 */
+	public static final int MAXIMO_ITENS = 65_536;
+
+	private static final int DESLOCAMENTO_QUANTIDADE = Long.BYTES;
+	private static final int DESLOCAMENTO_VALOR = Long.BYTES + Integer.BYTES;
+	private static final int CAPACIDADE_INICIAL = 8;
+
+	private ByteBuffer bytes;
+	private int tamanho;
+
+	public CarrinhoForaDoHeap() {
+		this(CAPACIDADE_INICIAL);
+	}
+
+	private CarrinhoForaDoHeap(int capacidade) {
+		this.bytes = ByteBuffer.allocateDirect(TAMANHO_CABECALHO + capacidade * TAMANHO_REGISTRO);
+	}
+
+	public static CarrinhoForaDoHeap de(CarrinhoCompra carrinhoCompra) {
+		Objects.requireNonNull(carrinhoCompra);
+		CarrinhoForaDoHeap carrinho = new CarrinhoForaDoHeap(Math.max(1, carrinhoCompra.getItensSomenteLeitura().size()));
+		carrinhoCompra.paraCadaItem(item -> carrinho.adicionarProduto(item.getProduto(), item.getQuantidade()));
+		return carrinho;
+	}
+
+	/**
+	 * Lê um carrinho no formato de {@link #comoBuffer()}, a partir da posição atual do buffer,
+	 * copiando os registros para um novo buffer direto.
+	 */
+	public static CarrinhoForaDoHeap ler(ByteBuffer origem) {
+		Objects.requireNonNull(origem);
+		if (origem.remaining() < TAMANHO_CABECALHO) {
+			throw new IllegalArgumentException("Carrinho incompleto");
+		}
+		int tamanho = origem.getInt(origem.position());
+		validarQuantidadeItens(tamanho);
+		if (tamanho > (origem.remaining() - TAMANHO_CABECALHO) / TAMANHO_REGISTRO) {
+			throw new IllegalArgumentException("Carrinho incompleto");
+		}
+		CarrinhoForaDoHeap carrinho = new CarrinhoForaDoHeap(Math.max(1, tamanho));
+		int comprimento = TAMANHO_CABECALHO + tamanho * TAMANHO_REGISTRO;
+		carrinho.bytes.put(0, origem, origem.position(), comprimento);
+		origem.position(origem.position() + comprimento);
+		carrinho.tamanho = tamanho;
+		return carrinho;
+	}
+
+	public static CarrinhoForaDoHeap ler(ReadableByteChannel canal) throws IOException {
+		Objects.requireNonNull(canal);
+		ByteBuffer cabecalho = ByteBuffer.allocate(TAMANHO_CABECALHO);
+		lerCompleto(canal, cabecalho);
+		int tamanho = cabecalho.getInt(0);
+		validarQuantidadeItens(tamanho);
+		CarrinhoForaDoHeap carrinho = new CarrinhoForaDoHeap(Math.max(1, tamanho));
+		carrinho.bytes.putInt(0, tamanho);
+		lerCompleto(canal, carrinho.bytes.slice(TAMANHO_CABECALHO, tamanho * TAMANHO_REGISTRO));
+		carrinho.tamanho = tamanho;
+		return carrinho;
+	}
+
+	public void adicionarProduto(Produto produto, int quantidade) {
+		Objects.requireNonNull(produto);
+		adicionarProduto(produto.getId(), quantidade, produto.getValorEmCentavos());
+	}
+
+	/**
+	 * Caso o produto já esteja no carrinho, apenas soma a quantidade e mantém o valor unitário existente.
+	 */
+	public void adicionarProduto(long idProduto, int quantidade, long valorUnitarioEmCentavos) {
+		if (quantidade < 1 || valorUnitarioEmCentavos < 0) {
+			throw new IllegalArgumentException();
+		}
+		int posicao = posicaoDoProduto(idProduto);
+		if (posicao >= 0) {
+			alterarQuantidade(posicao, Math.addExact(getQuantidade(posicao), quantidade));
+			return;
+		}
+		if (deslocamento(tamanho + 1) > bytes.capacity()) {
+			if (tamanho == MAXIMO_ITENS) {
+				throw new IllegalArgumentException("Quantidade máxima de itens atingida");
+			}
+			ByteBuffer maior = ByteBuffer.allocateDirect(deslocamento(Math.min(MAXIMO_ITENS, Math.max(CAPACIDADE_INICIAL, tamanho * 2))));
+			maior.put(0, bytes, 0, deslocamento(tamanho));
+			bytes = maior;
+		}
+		int registro = deslocamento(tamanho);
+		bytes.putLong(registro, idProduto);
+		bytes.putInt(registro + DESLOCAMENTO_QUANTIDADE, quantidade);
+		bytes.putLong(registro + DESLOCAMENTO_VALOR, valorUnitarioEmCentavos);
+		bytes.putInt(0, ++tamanho);
+	}
+
+	public void aumentarQuantidadeProduto(long idProduto) {
+		int posicao = encontrarPosicao(idProduto);
+		alterarQuantidade(posicao, Math.addExact(getQuantidade(posicao), 1));
+	}
+
+	public void diminuirQuantidadeProduto(long idProduto) {
+		int posicao = encontrarPosicao(idProduto);
+		int quantidade = getQuantidade(posicao);
+		if (quantidade == 1) {
+			remover(posicao);
+		} else {
+			alterarQuantidade(posicao, quantidade - 1);
+		}
+	}
+
+	public void removerProduto(long idProduto) {
+		remover(encontrarPosicao(idProduto));
+	}
+
+	public void esvaziar() {
+		tamanho = 0;
+		bytes.putInt(0, 0);
+	}
+
+	public int tamanho() {
+		return tamanho;
+	}
+
+	public long getIdProduto(int posicao) {
+		return bytes.getLong(deslocamento(Objects.checkIndex(posicao, tamanho)));
+	}
+
+	public int getQuantidade(int posicao) {
+		return bytes.getInt(deslocamento(Objects.checkIndex(posicao, tamanho)) + DESLOCAMENTO_QUANTIDADE);
+	}
+
+	public long getValorUnitarioEmCentavos(int posicao) {
+		return bytes.getLong(deslocamento(Objects.checkIndex(posicao, tamanho)) + DESLOCAMENTO_VALOR);
+	}
+
+	public int getQuantidadeTotalDeProdutos() {
+		int total = 0;
+		for (int i = 0; i < tamanho; i++) {
+			total = Math.addExact(total, bytes.getInt(deslocamento(i) + DESLOCAMENTO_QUANTIDADE));
+		}
+		return total;
+	}
+
+	public BigDecimal getValorTotal() {
+		long total = 0;
+		for (int i = 0; i < tamanho; i++) {
+			int registro = deslocamento(i);
+			total = Math.addExact(total, Math.multiplyExact(bytes.getLong(registro + DESLOCAMENTO_VALOR),
+					bytes.getInt(registro + DESLOCAMENTO_QUANTIDADE)));
+		}
+		return BigDecimal.valueOf(total, 2);
+	}
+
+	/**
+	 * @return uma visão somente leitura do cabeçalho e dos registros, compartilhando a memória do carrinho
+	 * até a próxima inclusão que precise aumentar a capacidade
+	 */
+	public ByteBuffer comoBuffer() {
+		return bytes.asReadOnlyBuffer().limit(deslocamento(tamanho));
+	}
+
+	/**
+	 * @return a quantidade de bytes escritos
+	 */
+	public int escreverEm(WritableByteChannel canal) throws IOException {
+		Objects.requireNonNull(canal);
+		ByteBuffer conteudo = comoBuffer();
+		int comprimento = conteudo.remaining();
+		while (conteudo.hasRemaining()) {
+			canal.write(conteudo);
+		}
+		return comprimento;
+	}
+
+	private static void validarQuantidadeItens(int tamanho) {
+		if (tamanho < 0 || tamanho > MAXIMO_ITENS) {
+			throw new IllegalArgumentException("Quantidade de itens inválida");
+		}
+	}
+
+	private static int deslocamento(int posicao) {
+		return TAMANHO_CABECALHO + posicao * TAMANHO_REGISTRO;
+	}
+
+	private static void lerCompleto(ReadableByteChannel canal, ByteBuffer destino) throws IOException {
+		while (destino.hasRemaining()) {
+			if (canal.read(destino) < 0) {
+				throw new EOFException("Carrinho incompleto");
+			}
+		}
+	}
+
+	private void alterarQuantidade(int posicao, int quantidade) {
+		bytes.putInt(deslocamento(posicao) + DESLOCAMENTO_QUANTIDADE, quantidade);
+	}
+
+	private int posicaoDoProduto(long idProduto) {
+		for (int i = 0; i < tamanho; i++) {
+			if (bytes.getLong(deslocamento(i)) == idProduto) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private int encontrarPosicao(long idProduto) {
+		int posicao = posicaoDoProduto(idProduto);
+		if (posicao < 0) {
+			throw new RuntimeException();
+		}
+		return posicao;
+	}
+
+	private void remover(int posicao) {
+		int seguinte = deslocamento(posicao + 1);
+		bytes.put(deslocamento(posicao), bytes, seguinte, deslocamento(tamanho) - seguinte);
+		bytes.putInt(0, --tamanho);
+	}
+}
@@ -0,0 +1,234 @@
+package com.algaworks.junit.ecommerce;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Catálogo com uma única instância de {@link Produto} por id, para que os carrinhos possam
+ * comparar produtos por identidade ou id, e com os preços vigentes em centavos.
+ * <p>
+ * Os preços ficam em uma {@link TabelaPrecos} imutável, substituída a cada cadastro ou atualização.
+ * Quem guarda apenas ids de produto (ex: {@link CarrinhoCompacto}) passa a ver os novos preços na
+ * próxima consulta, sem precisar ser percorrido. O valor do {@link Produto} continua sendo o do
+ * cadastro; o preço vigente é sempre o da tabela.
+ * <p>
+ * As consultas não usam lock. Cadastros e atualizações de preço são serializados entre si.
+ */
+public class CatalogoProdutos {
+
+	private final ConcurrentHashMap<Long, Produto> produtos = new ConcurrentHashMap<>();
+	private final Object lockEscrita = new Object();
+	private volatile TabelaPrecos tabela = TabelaPrecos.VAZIA;
+
+	/**
+	 * @return a instância já cadastrada com o mesmo id ou, caso não exista, o próprio produto,
+	 * que passa a ser a instância do catálogo
+	 */
+	public Produto internar(Produto produto) {
+		Objects.requireNonNull(produto);
+		Produto existente = produtos.get(produto.getId());
+		if (existente != null) {
+			return existente;
+		}
+		long preco = produto.getValorEmCentavos();
+		synchronized (lockEscrita) {
+			existente = produtos.putIfAbsent(produto.getId(), produto);
+			if (existente != null) {
+				return existente;
+			}
+			tabela = tabela.comProduto(produto.getId(), preco);
+			return produto;
+		}
+	}
+
+	public Optional<Produto> encontrar(long idProduto) {
+		return Optional.ofNullable(produtos.get(idProduto));
+	}
+
+	/**
+	 * @return os preços vigentes; consultas na mesma tabela são consistentes entre si
+	 */
+	public TabelaPrecos getTabelaPrecos() {
+		return tabela;
+	}
+
+	public long precoEmCentavos(long idProduto) {
+		return tabela.precoEmCentavos(idProduto);
+	}
+
+	public BigDecimal preco(long idProduto) {
+		return BigDecimal.valueOf(precoEmCentavos(idProduto), 2);
+	}
+
+	/**
+	 * Atualiza os preços de vários produtos de uma vez: ou todos passam a valer ao mesmo tempo ou,
+	 * caso algum seja inválido, nenhum é alterado.
+	 */
+	public void atualizarPrecos(Map<Long, BigDecimal> novosPrecos) {
+		Objects.requireNonNull(novosPrecos);
+		long[] ids = new long[novosPrecos.size()];
+		long[] precos = new long[novosPrecos.size()];
+		int i = 0;
+		for (Map.Entry<Long, BigDecimal> entrada : novosPrecos.entrySet()) {
+			ids[i] = entrada.getKey();
+			precos[i] = paraCentavos(entrada.getValue());
+			i++;
+		}
+
+		synchronized (lockEscrita) {
+			for (long id : ids) {
+				if (!produtos.containsKey(id)) {
+					throw new IllegalArgumentException("Produto não cadastrado: " + id);
+				}
+			}
+			tabela = tabela.comPrecos(ids, precos);
+		}
+	}
+
+	public long valorTotalEmCentavos(CarrinhoCompacto carrinho) {
+		Objects.requireNonNull(carrinho);
+		TabelaPrecos precos = tabela;
+		long total = 0;
+		for (int i = 0; i < carrinho.tamanho(); i++) {
+			total = Math.addExact(total, Math.multiplyExact(precos.precoEmCentavos(carrinho.getIdProduto(i)), carrinho.getQuantidade(i)));
+		}
+		return total;
+	}
+
+	public BigDecimal valorTotal(CarrinhoCompacto carrinho) {
+		return BigDecimal.valueOf(valorTotalEmCentavos(carrinho), 2);
+	}
+
+	private static long paraCentavos(BigDecimal valor) {
+		Objects.requireNonNull(valor);
+		if (valor.compareTo(BigDecimal.ONE) < 0) {
+			throw new IllegalArgumentException("Valor inválido");
+		}
+		try {
+			return valor.setScale(2).unscaledValue().longValueExact();
+		} catch (ArithmeticException e) {
+			throw new IllegalArgumentException("Valor deve ter no máximo duas casas decimais", e);
+		}
+	}
+
+	/**
+	 * Preços em centavos na ordem de cadastro, com um índice de endereçamento aberto do id para a posição.
+	 * <p>
+	 * Para que cada cadastro custe O(1) amortizado, uma tabela compartilha os arrays com a anterior e apenas
+	 * acrescenta uma posição no fim; os arrays só são copiados ao dobrar a capacidade ou, no caso dos preços,
+	 * em {@link CatalogoProdutos#atualizarPrecos(Map)}. Uma tabela nunca lê posições além do seu tamanho,
+	 * então continua imutável para quem a consulta.
+	 */
+	public static final class TabelaPrecos {
+
+		private static final int CAPACIDADE_INICIAL = 8;
+		private static final TabelaPrecos VAZIA = new TabelaPrecos(new long[0], new long[0], new int[1], 0, 0);
+
+		private final long[] ids;
+		private final long[] precos;
+		private final int[] indice; //Posição em ids + 1; 0 indica posição livre
+		private final int tamanho;
+		private final long versao;
+
+		private TabelaPrecos(long[] ids, long[] precos, int[] indice, int tamanho, long versao) {
+			this.ids = ids;
+			this.precos = precos;
+			this.indice = indice;
+			this.tamanho = tamanho;
+			this.versao = versao;
+		}
+
+		/**
+		 * @throws RuntimeException caso o produto não esteja no catálogo
+		 */
+		public long precoEmCentavos(long idProduto) {
+			int posicao = posicaoDo(idProduto);
+			if (posicao < 0) {
+				throw new RuntimeException("Produto não cadastrado: " + idProduto);
+			}
+			return precos[posicao];
+		}
+
+		public boolean contem(long idProduto) {
+			return posicaoDo(idProduto) >= 0;
+		}
+
+		public int tamanho() {
+			return tamanho;
+		}
+
+		/**
+		 * @return um número que aumenta a cada atualização, para saber se um valor calculado está desatualizado
+		 */
+		public long getVersao() {
+			return versao;
+		}
+
+		/**
+		 * Deve ser chamado apenas na tabela mais recente, com o lock de escrita do catálogo, já que escreve
+		 * nas posições livres dos arrays compartilhados.
+		 *
+		 * @return uma nova tabela com o produto, que ainda não pode estar na tabela
+		 */
+		private TabelaPrecos comProduto(long idProduto, long preco) {
+			long[] novosIds = ids;
+			long[] novosPrecos = precos;
+			int[] novoIndice = indice;
+			if (tamanho == ids.length) {
+				int capacidade = Math.max(CAPACIDADE_INICIAL, tamanho * 2);
+				novosIds = Arrays.copyOf(ids, capacidade);
+				novosPrecos = Arrays.copyOf(precos, capacidade);
+				//O dobro de posições da capacidade, mantendo a ocupação abaixo de 50%
+				novoIndice = new int[capacidade * 2];
+				for (int posicao = 0; posicao < tamanho; posicao++) {
+					indexar(novoIndice, novosIds[posicao], posicao);
+				}
+			}
+			novosIds[tamanho] = idProduto;
+			novosPrecos[tamanho] = preco;
+			indexar(novoIndice, idProduto, tamanho);
+			return new TabelaPrecos(novosIds, novosPrecos, novoIndice, tamanho + 1, versao + 1);
+		}
+
+		/**
+		 * @return uma nova tabela substituindo os preços de produtos que já estão na tabela
+		 */
+		private TabelaPrecos comPrecos(long[] idsAlterados, long[] precosAlterados) {
+			long[] novosPrecos = Arrays.copyOf(precos, precos.length);
+			for (int i = 0; i < idsAlterados.length; i++) {
+				novosPrecos[posicaoDo(idsAlterados[i])] = precosAlterados[i];
+			}
+			return new TabelaPrecos(ids, novosPrecos, indice, tamanho, versao + 1);
+		}
+
+		private int posicaoDo(long idProduto) {
+			int mascara = indice.length - 1;
+			for (int i = espalhar(idProduto) & mascara; indice[i] != 0; i = (i + 1) & mascara) {
+				//Posições além do tamanho são de tabelas mais novas e não existem nesta
+				int posicao = indice[i] - 1;
+				if (posicao < tamanho && ids[posicao] == idProduto) {
+					return posicao;
+				}
+			}
+			return -1;
+		}
+
+		private static void indexar(int[] indice, long idProduto, int posicao) {
+			int mascara = indice.length - 1;
+			int i = espalhar(idProduto) & mascara;
+			while (indice[i] != 0) {
+				i = (i + 1) & mascara;
+			}
+			indice[i] = posicao + 1;
+		}
+
+		private static int espalhar(long id) {
+			long h = id * 0x9E3779B97F4A7C15L;
+			return (int) (h ^ (h >>> 32));
+		}
+	}
+}
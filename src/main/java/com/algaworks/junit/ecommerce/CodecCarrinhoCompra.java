@@ -0,0 +1,331 @@
+package com.algaworks.junit.ecommerce;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Codifica carrinhos em um formato binário compacto, para persistir a sessão a cada alteração.
+ * <p>
+ * Cada registro tem o comprimento (int), a versão do formato (byte) e então o {@link Cliente}
+ * e os itens. Números inteiros usam varint com zigzag, ocupando de 1 a 10 bytes conforme o valor.
+ * Cada item referencia um {@link Produto}: o produto completo só é escrito na primeira vez em que
+ * aparece na sequência de registros; depois, apenas a posição dele no dicionário.
+ * <p>
+ * Por causa do dicionário, os registros de uma sequência devem ser lidos por uma única instância,
+ * na mesma ordem em que foram escritos por outra. Os produtos lidos são compartilhados entre os
+ * carrinhos da sequência. Não é thread safe.
+ */
+public class CodecCarrinhoCompra {
+
+	public static final byte VERSAO = 1;
+
+	/**
+	 * Comprimento máximo de um registro, verificado ao escrever e ao ler, para que um comprimento
+	 * corrompido não aloque um buffer de gigabytes.
+	 */
+	public static final int TAMANHO_MAXIMO_REGISTRO = 16 * 1024 * 1024;
+
+	static final int TAMANHO_COMPRIMENTO = Integer.BYTES;
+
+	private static final int PRODUTO_NOVO = 0;
+	private static final int TAMANHO_INICIAL_BUFFER = 4 * 1024;
+
+	private final Map<Long, Integer> posicoesPorId = new HashMap<>();
+	private final List<Produto> dicionario = new ArrayList<>();
+	private ByteBuffer buffer;
+
+	/**
+	 * Escreve o registro do carrinho a partir da posição atual do destino.
+	 *
+	 * @throws BufferOverflowException caso o destino não tenha espaço; nesse caso a posição dele e o
+	 * dicionário não são alterados e a escrita pode ser repetida em um buffer maior
+	 * @throws IllegalArgumentException caso o registro passe de {@link #TAMANHO_MAXIMO_REGISTRO}
+	 */
+	public void escrever(CarrinhoCompra carrinho, ByteBuffer destino) {
+		Objects.requireNonNull(carrinho);
+		Objects.requireNonNull(destino);
+		int inicio = destino.position();
+		int tamanhoDicionario = dicionario.size();
+		try {
+			destino.position(inicio + TAMANHO_COMPRIMENTO);
+			destino.put(VERSAO);
+			escreverCliente(carrinho.getCliente(), destino);
+			List<ItemCarrinhoCompra> itens = carrinho.getItensSomenteLeitura();
+			escreverVarint(itens.size(), destino);
+			for (ItemCarrinhoCompra item : itens) {
+				escreverItem(item, destino);
+			}
+			int comprimento = destino.position() - inicio - TAMANHO_COMPRIMENTO;
+			if (comprimento > TAMANHO_MAXIMO_REGISTRO) {
+				throw new IllegalArgumentException("Registro maior que o máximo: " + comprimento);
+			}
+			destino.putInt(inicio, comprimento);
+		} catch (BufferOverflowException | IllegalArgumentException e) {
+			desfazerDicionario(tamanhoDicionario);
+			destino.position(inicio);
+			throw e;
+		}
+	}
+
+	/**
+	 * Escreve o registro no canal usando um buffer direto reaproveitado entre chamadas, sem cópias
+	 * intermediárias em arrays. Caso a escrita no canal falhe, o dicionário volta ao estado anterior,
+	 * então o próximo registro não referencia produtos que podem não ter chegado ao canal.
+	 *
+	 * @return a quantidade de bytes escritos
+	 */
+	public int escrever(CarrinhoCompra carrinho, WritableByteChannel canal) throws IOException {
+		Objects.requireNonNull(canal);
+		int tamanhoDicionario = dicionario.size();
+		ByteBuffer conteudo = bufferComCapacidade(TAMANHO_INICIAL_BUFFER);
+		while (true) {
+			conteudo.clear();
+			try {
+				escrever(carrinho, conteudo);
+				break;
+			} catch (BufferOverflowException e) {
+				if (conteudo.capacity() >= TAMANHO_COMPRIMENTO + TAMANHO_MAXIMO_REGISTRO) {
+					throw new IllegalArgumentException("Registro maior que o máximo", e);
+				}
+				conteudo = bufferComCapacidade(Math.min(conteudo.capacity() * 2, TAMANHO_COMPRIMENTO + TAMANHO_MAXIMO_REGISTRO));
+			}
+		}
+		conteudo.flip();
+		int comprimento = conteudo.remaining();
+		try {
+			while (conteudo.hasRemaining()) {
+				canal.write(conteudo);
+			}
+		} catch (IOException | RuntimeException e) {
+			desfazerDicionario(tamanhoDicionario);
+			throw e;
+		}
+		return comprimento;
+	}
+
+	/**
+	 * Lê um registro a partir da posição atual da origem, avançando até o fim dele.
+	 */
+	public CarrinhoCompra ler(ByteBuffer origem) {
+		Objects.requireNonNull(origem);
+		if (origem.remaining() < TAMANHO_COMPRIMENTO) {
+			throw new IllegalArgumentException("Registro incompleto");
+		}
+		int comprimento = origem.getInt(origem.position());
+		if (comprimento < 1 || comprimento > origem.remaining() - TAMANHO_COMPRIMENTO) {
+			throw new IllegalArgumentException("Registro incompleto");
+		}
+		int fim = origem.position() + TAMANHO_COMPRIMENTO + comprimento;
+		ByteBuffer registro = origem.slice(origem.position() + TAMANHO_COMPRIMENTO, comprimento);
+		CarrinhoCompra carrinho = lerRegistro(registro);
+		origem.position(fim);
+		return carrinho;
+	}
+
+	/**
+	 * @return o próximo carrinho do canal, ou {@code null} caso o canal tenha terminado
+	 */
+	public CarrinhoCompra ler(ReadableByteChannel canal) throws IOException {
+		Objects.requireNonNull(canal);
+		ByteBuffer cabecalho = bufferComCapacidade(TAMANHO_INICIAL_BUFFER);
+		cabecalho.clear().limit(TAMANHO_COMPRIMENTO);
+		if (!lerCompleto(canal, cabecalho, true)) {
+			return null;
+		}
+		int comprimento = cabecalho.getInt(0);
+		if (comprimento < 1 || comprimento > TAMANHO_MAXIMO_REGISTRO) {
+			throw new IllegalArgumentException("Comprimento inválido: " + comprimento);
+		}
+		ByteBuffer registro = bufferComCapacidade(comprimento);
+		registro.clear().limit(comprimento);
+		lerCompleto(canal, registro, false);
+		registro.flip();
+		return lerRegistro(registro);
+	}
+
+	private CarrinhoCompra lerRegistro(ByteBuffer registro) {
+		byte versao = registro.get();
+		if (versao != VERSAO) {
+			throw new IllegalArgumentException("Versão não suportada: " + versao);
+		}
+		int tamanhoDicionario = dicionario.size();
+		try {
+			Cliente cliente = new Cliente(lerVarintComSinal(registro), lerTexto(registro));
+			int quantidadeItens = lerTamanho(registro);
+			if (quantidadeItens > registro.remaining() / 2) { //Cada item tem ao menos a referência e a quantidade
+				throw new IllegalArgumentException("Quantidade de itens inválida: " + quantidadeItens);
+			}
+			List<ItemCarrinhoCompra> itens = new ArrayList<>(quantidadeItens);
+			for (int i = 0; i < quantidadeItens; i++) {
+				Produto produto = lerProduto(registro);
+				itens.add(new ItemCarrinhoCompra(produto, lerTamanho(registro)));
+			}
+			if (registro.hasRemaining()) {
+				throw new IllegalArgumentException("Bytes sobrando no registro");
+			}
+			return new CarrinhoCompra(cliente, itens);
+		} catch (RuntimeException e) {
+			desfazerDicionario(tamanhoDicionario);
+			throw e instanceof IllegalArgumentException ? e : new IllegalArgumentException("Registro inválido", e);
+		}
+	}
+
+	private void escreverCliente(Cliente cliente, ByteBuffer destino) {
+		escreverVarintComSinal(cliente.getId(), destino);
+		escreverTexto(cliente.getNome(), destino);
+	}
+
+	private void escreverItem(ItemCarrinhoCompra item, ByteBuffer destino) {
+		Produto produto = item.getProduto();
+		Integer posicao = posicoesPorId.get(produto.getId());
+		if (posicao != null && dicionario.get(posicao).equals(produto)) {
+			escreverVarint(posicao + 1, destino);
+		} else {
+			escreverVarint(PRODUTO_NOVO, destino);
+			escreverProduto(produto, destino);
+			adicionarAoDicionario(produto);
+		}
+		escreverVarint(item.getQuantidade(), destino);
+	}
+
+	static void escreverProduto(Produto produto, ByteBuffer destino) {
+		escreverVarintComSinal(produto.getId(), destino);
+		escreverTexto(produto.getNome(), destino);
+		escreverTexto(produto.getDescricao(), destino);
+		BigDecimal valor = produto.getValor();
+		long naoEscalado;
+		try {
+			naoEscalado = valor.unscaledValue().longValueExact();
+		} catch (ArithmeticException e) {
+			throw new IllegalArgumentException("Valor do produto muito grande", e);
+		}
+		escreverVarintComSinal(naoEscalado, destino);
+		escreverVarintComSinal(valor.scale(), destino);
+	}
+
+	private Produto lerProduto(ByteBuffer origem) {
+		int referencia = lerTamanho(origem);
+		if (referencia != PRODUTO_NOVO) {
+			if (referencia > dicionario.size()) {
+				throw new IllegalArgumentException("Referência de produto inválida: " + referencia);
+			}
+			return dicionario.get(referencia - 1);
+		}
+		Produto produto = lerDadosProduto(origem);
+		adicionarAoDicionario(produto);
+		return produto;
+	}
+
+	static Produto lerDadosProduto(ByteBuffer origem) {
+		long id = lerVarintComSinal(origem);
+		String nome = lerTexto(origem);
+		String descricao = lerTexto(origem);
+		long naoEscalado = lerVarintComSinal(origem);
+		long escala = lerVarintComSinal(origem);
+		if (escala != (int) escala) {
+			throw new IllegalArgumentException("Escala inválida");
+		}
+		return new Produto(id, nome, descricao, BigDecimal.valueOf(naoEscalado, (int) escala));
+	}
+
+	/**
+	 * Mantém um único índice por id, apontando para a versão mais recente do produto.
+	 */
+	private void adicionarAoDicionario(Produto produto) {
+		dicionario.add(produto);
+		posicoesPorId.put(produto.getId(), dicionario.size() - 1);
+	}
+
+	private void desfazerDicionario(int tamanho) {
+		for (int i = dicionario.size() - 1; i >= tamanho; i--) {
+			Produto removido = dicionario.remove(i);
+			posicoesPorId.remove(removido.getId());
+		}
+		for (int i = 0; i < dicionario.size(); i++) {
+			posicoesPorId.put(dicionario.get(i).getId(), i);
+		}
+	}
+
+	private ByteBuffer bufferComCapacidade(int capacidade) {
+		if (buffer == null || buffer.capacity() < capacidade) {
+			buffer = ByteBuffer.allocateDirect(Math.max(capacidade, TAMANHO_INICIAL_BUFFER));
+		}
+		return buffer;
+	}
+
+	private static boolean lerCompleto(ReadableByteChannel canal, ByteBuffer destino, boolean fimPermitido) throws IOException {
+		while (destino.hasRemaining()) {
+			if (canal.read(destino) < 0) {
+				if (fimPermitido && destino.position() == 0) {
+					return false;
+				}
+				throw new EOFException("Registro incompleto");
+			}
+		}
+		return true;
+	}
+
+	private static void escreverTexto(String texto, ByteBuffer destino) {
+		byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+		escreverVarint(bytes.length, destino);
+		destino.put(bytes);
+	}
+
+	private static String lerTexto(ByteBuffer origem) {
+		int tamanho = lerTamanho(origem);
+		if (tamanho > origem.remaining()) {
+			throw new IllegalArgumentException("Texto incompleto");
+		}
+		byte[] bytes = new byte[tamanho];
+		origem.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	static void escreverVarintComSinal(long valor, ByteBuffer destino) {
+		escreverVarint((valor << 1) ^ (valor >> 63), destino); //Zigzag: números pequenos negativos também ocupam poucos bytes
+	}
+
+	static void escreverVarint(long valor, ByteBuffer destino) {
+		while ((valor & ~0x7FL) != 0) {
+			destino.put((byte) ((valor & 0x7F) | 0x80));
+			valor >>>= 7;
+		}
+		destino.put((byte) valor);
+	}
+
+	static long lerVarintComSinal(ByteBuffer origem) {
+		long valor = lerVarint(origem);
+		return (valor >>> 1) ^ -(valor & 1);
+	}
+
+	static long lerVarint(ByteBuffer origem) {
+		long valor = 0;
+		for (int deslocamento = 0; deslocamento < Long.SIZE; deslocamento += 7) {
+			byte b = origem.get();
+			valor |= (long) (b & 0x7F) << deslocamento;
+			if (b >= 0) {
+				return valor;
+			}
+		}
+		throw new IllegalArgumentException("Varint inválido");
+	}
+
+	static int lerTamanho(ByteBuffer origem) {
+		long valor = lerVarint(origem);
+		if (valor < 0 || valor > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Tamanho inválido");
+		}
+		return (int) valor;
+	}
+}
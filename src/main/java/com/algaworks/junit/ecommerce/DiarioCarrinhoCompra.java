@@ -0,0 +1,367 @@
+package com.algaworks.junit.ecommerce;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Persiste um {@link CarrinhoCompra} como um snapshot mais um diário das alterações feitas depois dele,
+ * para que cada alteração grave apenas alguns bytes e não o carrinho inteiro.
+ * <p>
+ * Cada alteração vira um evento no fim do arquivo de eventos: o tipo, o id do produto e a quantidade,
+ * em varint. O produto completo só é gravado quando ainda não é conhecido por quem for reaplicar os
+ * eventos. Ao atingir o limite de eventos, o carrinho é gravado em um novo snapshot (com
+ * {@link CodecCarrinhoCompra}) e o diário recomeça, limitando quantos eventos são reaplicados na abertura.
+ * <p>
+ * Snapshot e diário têm um número de geração. Se a compactação for interrompida depois de trocar o
+ * snapshot, os eventos da geração anterior, já incluídos nele, são descartados. Um último evento
+ * incompleto também é descartado; já um evento inválido seguido de outros impede a abertura, já que
+ * descartá-lo perderia as alterações seguintes.
+ * <p>
+ * Cada alteração é gravada antes de ser aplicada ao carrinho. Se a gravação ou a aplicação falhar,
+ * o evento é removido do arquivo e o carrinho continua como estava.
+ * <p>
+ * Não é thread safe.
+ */
+public class DiarioCarrinhoCompra implements Closeable {
+
+	static final String ARQUIVO_SNAPSHOT = "carrinho.snapshot";
+	static final String ARQUIVO_EVENTOS = "carrinho.eventos";
+	static final int TAMANHO_CABECALHO = Long.BYTES;
+
+	private static final String SUFIXO_TEMPORARIO = ".tmp";
+	private static final int TAMANHO_MAXIMO_COMPRIMENTO = 5; //Varint de um int
+	private static final int TAMANHO_INICIAL_BUFFER = 256;
+
+	private static final byte ADICIONAR_NOVO = 1;
+	private static final byte ADICIONAR = 2;
+	private static final byte AUMENTAR = 3;
+	private static final byte DIMINUIR = 4;
+	private static final byte REMOVER = 5;
+	private static final byte ESVAZIAR = 6;
+
+	private final Path diretorio;
+	private final FileChannel eventos;
+	private final int limiteEventos;
+	private final Map<Long, Produto> produtos = new HashMap<>(); //Os mesmos que a reaplicação dos eventos conhece
+
+	private CarrinhoCompra carrinho;
+	private long geracao;
+	private int quantidadeEventos;
+	private ByteBuffer buffer = ByteBuffer.allocate(TAMANHO_INICIAL_BUFFER);
+
+	private DiarioCarrinhoCompra(Path diretorio, FileChannel eventos, int limiteEventos) {
+		this.diretorio = diretorio;
+		this.eventos = eventos;
+		this.limiteEventos = limiteEventos;
+	}
+
+	/**
+	 * Abre o diário existente no diretório, reconstruindo o carrinho a partir do snapshot e dos eventos,
+	 * ou cria um novo com um carrinho vazio para o cliente.
+	 *
+	 * @param limiteEventos quantidade de eventos que dispara a compactação
+	 */
+	public static DiarioCarrinhoCompra abrir(Path diretorio, Cliente cliente, int limiteEventos) throws IOException {
+		Objects.requireNonNull(diretorio);
+		Objects.requireNonNull(cliente);
+		if (limiteEventos < 1) {
+			throw new IllegalArgumentException("Limite de eventos deve ser maior que zero");
+		}
+		Files.createDirectories(diretorio);
+
+		FileChannel eventos = FileChannel.open(diretorio.resolve(ARQUIVO_EVENTOS),
+				StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		DiarioCarrinhoCompra diario = new DiarioCarrinhoCompra(diretorio, eventos, limiteEventos);
+		try {
+			diario.recuperar(cliente);
+		} catch (IOException | RuntimeException e) {
+			diario.close();
+			throw e;
+		}
+		return diario;
+	}
+
+	/**
+	 * @return o carrinho reconstruído; alterações devem ser feitas pelo diário para serem persistidas
+	 */
+	public CarrinhoCompra getCarrinho() {
+		return carrinho;
+	}
+
+	/**
+	 * @return a quantidade de eventos desde o último snapshot
+	 */
+	public int quantidadeEventos() {
+		return quantidadeEventos;
+	}
+
+	public void adicionarProduto(Produto produto, int quantidade) throws IOException {
+		Objects.requireNonNull(produto);
+		boolean novo = !produto.equals(produtos.get(produto.getId()));
+		registrar(evento -> {
+			if (novo) {
+				evento.put(ADICIONAR_NOVO);
+				CodecCarrinhoCompra.escreverProduto(produto, evento);
+			} else {
+				evento.put(ADICIONAR);
+				CodecCarrinhoCompra.escreverVarintComSinal(produto.getId(), evento);
+			}
+			CodecCarrinhoCompra.escreverVarint(quantidade, evento);
+		}, () -> {
+			carrinho.adicionarProduto(produto, quantidade);
+			if (novo) {
+				produtos.put(produto.getId(), produto);
+			}
+		});
+	}
+
+	public void removerProduto(Produto produto) throws IOException {
+		Objects.requireNonNull(produto);
+		registrar(REMOVER, produto, () -> carrinho.removerProduto(produto));
+	}
+
+	public void aumentarQuantidadeProduto(Produto produto) throws IOException {
+		Objects.requireNonNull(produto);
+		registrar(AUMENTAR, produto, () -> carrinho.aumentarQuantidadeProduto(produto));
+	}
+
+	public void diminuirQuantidadeProduto(Produto produto) throws IOException {
+		Objects.requireNonNull(produto);
+		registrar(DIMINUIR, produto, () -> carrinho.diminuirQuantidadeProduto(produto));
+	}
+
+	public void esvaziar() throws IOException {
+		registrar(evento -> evento.put(ESVAZIAR), carrinho::esvaziar);
+	}
+
+	/**
+	 * Garante que os eventos registrados até aqui estão em disco.
+	 */
+	public void sincronizar() throws IOException {
+		eventos.force(false);
+	}
+
+	/**
+	 * Grava o carrinho atual em um novo snapshot e recomeça o diário de eventos.
+	 */
+	public void compactar() throws IOException {
+		long novaGeracao = geracao + 1;
+		Path temporario = diretorio.resolve(ARQUIVO_SNAPSHOT + SUFIXO_TEMPORARIO);
+		try (FileChannel snapshot = FileChannel.open(temporario, StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			ByteBuffer cabecalho = ByteBuffer.allocate(TAMANHO_CABECALHO).putLong(0, novaGeracao);
+			while (cabecalho.hasRemaining()) {
+				snapshot.write(cabecalho);
+			}
+			new CodecCarrinhoCompra().escrever(carrinho, snapshot);
+			snapshot.force(true);
+		}
+		Files.move(temporario, diretorio.resolve(ARQUIVO_SNAPSHOT),
+				StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+		geracao = novaGeracao;
+		reiniciarEventos();
+		reiniciarProdutos();
+	}
+
+	@Override
+	public void close() throws IOException {
+		eventos.close();
+	}
+
+	private void recuperar(Cliente cliente) throws IOException {
+		Path snapshot = diretorio.resolve(ARQUIVO_SNAPSHOT);
+		if (Files.exists(snapshot)) {
+			ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(snapshot));
+			geracao = bytes.getLong();
+			carrinho = new CodecCarrinhoCompra().ler(bytes);
+			if (!carrinho.getCliente().equals(cliente)) {
+				throw new IllegalArgumentException("Diário pertence a outro cliente");
+			}
+		} else {
+			geracao = 0;
+			carrinho = new CarrinhoCompra(cliente);
+		}
+		reiniciarProdutos();
+
+		long tamanho = eventos.size();
+		if (tamanho > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Diário de eventos muito grande");
+		}
+		ByteBuffer bytes = ByteBuffer.allocate((int) tamanho);
+		while (bytes.hasRemaining()) {
+			if (eventos.read(bytes, bytes.position()) < 0) {
+				throw new EOFException();
+			}
+		}
+		bytes.flip();
+		if (tamanho < TAMANHO_CABECALHO || bytes.getLong() != geracao) {
+			reiniciarEventos(); //Diário novo, ou de uma geração já incluída no snapshot
+			return;
+		}
+
+		int fimValido = bytes.position();
+		while (bytes.hasRemaining()) {
+			try {
+				int comprimento = CodecCarrinhoCompra.lerTamanho(bytes);
+				if (comprimento > bytes.remaining()) {
+					break; //Último evento incompleto
+				}
+				aplicar(bytes.slice(bytes.position(), comprimento));
+				bytes.position(bytes.position() + comprimento);
+			} catch (RuntimeException e) {
+				if (!ultimoEvento(bytes, fimValido)) {
+					throw new IllegalArgumentException("Evento inválido na posição " + fimValido + " do diário", e);
+				}
+				break;
+			}
+			fimValido = bytes.position();
+			quantidadeEventos++;
+		}
+		if (fimValido < tamanho) {
+			eventos.truncate(fimValido);
+		}
+		eventos.position(fimValido);
+	}
+
+	/**
+	 * @return se o evento que começa em {@code inicio} vai até o fim do arquivo, ou se dele em diante só há
+	 * zeros, como pode sobrar de uma gravação interrompida
+	 */
+	private static boolean ultimoEvento(ByteBuffer bytes, int inicio) {
+		ByteBuffer evento = bytes.duplicate().position(inicio);
+		try {
+			int comprimento = CodecCarrinhoCompra.lerTamanho(evento);
+			if (comprimento >= evento.remaining()) {
+				return true;
+			}
+		} catch (BufferUnderflowException e) {
+			return true; //Nem o comprimento está completo
+		} catch (IllegalArgumentException e) {
+			//Comprimento inválido: só é o último evento se daqui em diante houver apenas zeros
+		}
+		for (int i = inicio; i < bytes.limit(); i++) {
+			if (bytes.get(i) != 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private void aplicar(ByteBuffer evento) {
+		byte tipo = evento.get();
+		switch (tipo) {
+			case ADICIONAR_NOVO -> {
+				Produto produto = CodecCarrinhoCompra.lerDadosProduto(evento);
+				carrinho.adicionarProduto(produto, CodecCarrinhoCompra.lerTamanho(evento));
+				produtos.put(produto.getId(), produto);
+			}
+			case ADICIONAR -> carrinho.adicionarProduto(produtoConhecido(evento), CodecCarrinhoCompra.lerTamanho(evento));
+			case AUMENTAR -> carrinho.aumentarQuantidadeProduto(produtoConhecido(evento));
+			case DIMINUIR -> carrinho.diminuirQuantidadeProduto(produtoConhecido(evento));
+			case REMOVER -> carrinho.removerProduto(produtoConhecido(evento));
+			case ESVAZIAR -> carrinho.esvaziar();
+			default -> throw new IllegalArgumentException("Evento desconhecido: " + tipo);
+		}
+		if (evento.hasRemaining()) {
+			throw new IllegalArgumentException("Bytes sobrando no evento");
+		}
+	}
+
+	private Produto produtoConhecido(ByteBuffer evento) {
+		long id = CodecCarrinhoCompra.lerVarintComSinal(evento);
+		Produto produto = produtos.get(id);
+		if (produto == null) {
+			throw new IllegalArgumentException("Produto desconhecido: " + id);
+		}
+		return produto;
+	}
+
+	private void registrar(byte tipo, Produto produto, Runnable aplicacao) throws IOException {
+		registrar(evento -> {
+			evento.put(tipo);
+			CodecCarrinhoCompra.escreverVarintComSinal(produto.getId(), evento);
+		}, aplicacao);
+	}
+
+	/**
+	 * Grava o evento precedido do seu comprimento em varint, só então aplica a alteração e compacta caso
+	 * o limite tenha sido atingido. Se a gravação ou a aplicação falhar, o evento é removido do arquivo.
+	 */
+	private void registrar(Consumer<ByteBuffer> escritaEvento, Runnable aplicacao) throws IOException {
+		while (true) {
+			buffer.clear().position(TAMANHO_MAXIMO_COMPRIMENTO);
+			try {
+				escritaEvento.accept(buffer);
+				break;
+			} catch (BufferOverflowException e) {
+				buffer = ByteBuffer.allocate(buffer.capacity() * 2);
+			}
+		}
+		int comprimento = buffer.position() - TAMANHO_MAXIMO_COMPRIMENTO;
+		int inicio = TAMANHO_MAXIMO_COMPRIMENTO - tamanhoVarint(comprimento);
+		buffer.position(inicio);
+		CodecCarrinhoCompra.escreverVarint(comprimento, buffer);
+		buffer.limit(TAMANHO_MAXIMO_COMPRIMENTO + comprimento).position(inicio);
+		long inicioEvento = eventos.position();
+		try {
+			while (buffer.hasRemaining()) {
+				eventos.write(buffer);
+			}
+			aplicacao.run();
+		} catch (IOException | RuntimeException e) {
+			desfazerEvento(inicioEvento, e);
+			throw e;
+		}
+
+		if (++quantidadeEventos >= limiteEventos) {
+			compactar();
+		}
+	}
+
+	private void desfazerEvento(long inicioEvento, Exception causa) {
+		try {
+			eventos.truncate(inicioEvento);
+			eventos.position(inicioEvento);
+		} catch (IOException e) {
+			causa.addSuppressed(e); //Na abertura, o evento sem aplicação ainda é o último e será descartado se inválido
+		}
+	}
+
+	private void reiniciarEventos() throws IOException {
+		eventos.truncate(0);
+		ByteBuffer cabecalho = ByteBuffer.allocate(TAMANHO_CABECALHO).putLong(0, geracao);
+		while (cabecalho.hasRemaining()) {
+			eventos.write(cabecalho, cabecalho.position());
+		}
+		eventos.force(false);
+		eventos.position(TAMANHO_CABECALHO);
+		quantidadeEventos = 0;
+	}
+
+	private void reiniciarProdutos() {
+		produtos.clear();
+		carrinho.paraCadaItem(item -> produtos.put(item.getProduto().getId(), item.getProduto()));
+	}
+
+	private static int tamanhoVarint(int valor) {
+		int tamanho = 1;
+		while ((valor >>>= 7) != 0) {
+			tamanho++;
+		}
+		return tamanho;
+	}
+}
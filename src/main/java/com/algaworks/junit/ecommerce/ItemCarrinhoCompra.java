@@ -5,8 +5,13 @@ import java.util.Objects;
 
 public class ItemCarrinhoCompra {
 
+    private static final int SEM_PONTO_FIXO = -1;
+
     private final Produto produto;
+    private final long valorUnitarioNaoEscalado;
+    private final int escalaValorUnitario;
     private int quantidade;
+    private CarrinhoCompra carrinho; //Avisado a cada alteração de quantidade enquanto o item estiver nele
 
     public ItemCarrinhoCompra(Produto produto, int quantidade) {
         Objects.requireNonNull(produto);
@@ -15,6 +20,22 @@ public class ItemCarrinhoCompra {
         }
         this.produto = produto;
         this.quantidade = quantidade;
+
+        long naoEscalado = 0;
+        int escala = SEM_PONTO_FIXO;
+        BigDecimal valor = produto.getValor();
+        //Abaixo de -18 a escala já indica um valor maior que um long
+        if (valor.scale() >= -18) {
+            try {
+                valor = valor.scale() < 0 ? valor.setScale(0) : valor;
+                naoEscalado = valor.unscaledValue().longValueExact();
+                escala = valor.scale();
+            } catch (ArithmeticException e) {
+                //Não cabe em um long: o carrinho passa a somar os itens com BigDecimal
+            }
+        }
+        this.valorUnitarioNaoEscalado = naoEscalado;
+        this.escalaValorUnitario = escala;
     }
 
     public Produto getProduto() {
@@ -25,16 +46,42 @@ public class ItemCarrinhoCompra {
         return this.quantidade;
     }
 
+    /**
+     * @return se o valor do produto cabe em ponto fixo; caso contrário o valor não escalado e a escala não valem
+     */
+    boolean temValorUnitarioEmPontoFixo() {
+        return this.escalaValorUnitario != SEM_PONTO_FIXO;
+    }
+
+    /**
+     * Valor do produto em ponto fixo: getValor() == valorUnitarioNaoEscalado * 10^-escalaValorUnitario
+     */
+    long getValorUnitarioNaoEscalado() {
+        return this.valorUnitarioNaoEscalado;
+    }
+
+    int getEscalaValorUnitario() {
+        return this.escalaValorUnitario;
+    }
+
     public BigDecimal getValorTotal() {
         return this.produto.getValor()
                 .multiply(new BigDecimal(quantidade));
     }
 
+    /**
+     * Caso o item esteja em um carrinho, os totais dele são atualizados antes da quantidade, então uma
+     * falha não altera nenhum dos dois.
+     */
     public void adicionarQuantidade(int quantidade) {
         if (quantidade <= 0) {
             throw new IllegalArgumentException();
         }
-        this.quantidade += quantidade;
+        int novaQuantidade = Math.addExact(this.quantidade, quantidade);
+        if (this.carrinho != null) {
+            this.carrinho.quantidadeAlterada(this, quantidade);
+        }
+        this.quantidade = novaQuantidade;
     }
 
     public void subtrairQuantidade(int quantidade) {
@@ -44,9 +91,19 @@ public class ItemCarrinhoCompra {
         if (quantidade >= this.quantidade) {
             throw new IllegalArgumentException();
         }
+        if (this.carrinho != null) {
+            this.carrinho.quantidadeAlterada(this, -quantidade);
+        }
         this.quantidade -= quantidade;
     }
 
+    /**
+     * @param carrinho o carrinho que passa a conter o item, ou null quando o item sai dele
+     */
+    void associar(CarrinhoCompra carrinho) {
+        this.carrinho = carrinho;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
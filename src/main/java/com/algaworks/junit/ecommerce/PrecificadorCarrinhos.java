@@ -0,0 +1,185 @@
+package com.algaworks.junit.ecommerce;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+/**
+ * Calcula o valor total de muitos carrinhos de uma vez a partir dos itens, ex: ao reprecificar carrinhos
+ * em um pico de checkout.
+ * <p>
+ * Cada item já guarda o valor do produto em ponto fixo, convertido uma única vez ao ser criado. O lote
+ * escolhe uma escala comum e soma os totais das linhas em long, sem {@link BigDecimal}, em paralelo a
+ * partir de {@link #LIMIAR_PARALELO} carrinhos, usando o {@link java.util.concurrent.ForkJoinPool#commonPool()}.
+ * Quem só precisa do total atual de um carrinho deve usar {@link CarrinhoCompra#getValorTotal()}, que já é
+ * mantido a cada alteração.
+ * <p>
+ * Produtos com mais de {@link #ESCALA_MAXIMA} casas decimais não entram na escala comum, para não
+ * reduzir a faixa de valores dos demais. Carrinhos com esses produtos, ou cujo total não cabe em um
+ * long, são somados com {@link BigDecimal} sem afetar o restante do lote.
+ */
+public class PrecificadorCarrinhos {
+
+	public static final int LIMIAR_PARALELO = 256;
+	public static final int ESCALA_MAXIMA = 9;
+
+	private static final long[] POTENCIAS_DE_DEZ = new long[ESCALA_MAXIMA + 1];
+
+	static {
+		POTENCIAS_DE_DEZ[0] = 1;
+		for (int i = 1; i < POTENCIAS_DE_DEZ.length; i++) {
+			POTENCIAS_DE_DEZ[i] = POTENCIAS_DE_DEZ[i - 1] * 10;
+		}
+	}
+
+	private PrecificadorCarrinhos() {
+
+	}
+
+	public static TotaisCarrinhos precificar(List<CarrinhoCompra> carrinhos) {
+		Objects.requireNonNull(carrinhos);
+
+		int escala = 0;
+		for (CarrinhoCompra carrinho : carrinhos) {
+			for (ItemCarrinhoCompra item : carrinho.getItensSomenteLeitura()) {
+				if (cabeNaEscalaComum(item)) {
+					escala = Math.max(escala, item.getEscalaValorUnitario());
+				}
+			}
+		}
+
+		int escalaComum = escala;
+		long[] totais = new long[carrinhos.size()];
+		byte[] escalasCarrinhos = new byte[carrinhos.size()];
+		BigDecimal[] totaisForaDoPontoFixo = new BigDecimal[carrinhos.size()];
+		IntStream indices = IntStream.range(0, totais.length);
+		if (totais.length >= LIMIAR_PARALELO) {
+			indices = indices.parallel();
+		}
+		indices.forEach(c -> {
+			List<ItemCarrinhoCompra> itens = carrinhos.get(c).getItensSomenteLeitura();
+			try {
+				totais[c] = somar(itens, escalaComum);
+				escalasCarrinhos[c] = (byte) maiorEscala(itens);
+			} catch (ArithmeticException e) {
+				totaisForaDoPontoFixo[c] = somarComBigDecimal(itens);
+			}
+		});
+		return new TotaisCarrinhos(totais, escalasCarrinhos, totaisForaDoPontoFixo, escala);
+	}
+
+	/**
+	 * Precifica carrinhos compactos com os preços de uma mesma tabela do catálogo.
+	 *
+	 * @return o total de cada carrinho em centavos, na ordem recebida
+	 */
+	public static long[] precificar(List<CarrinhoCompacto> carrinhos, CatalogoProdutos.TabelaPrecos precos) {
+		Objects.requireNonNull(carrinhos);
+		Objects.requireNonNull(precos);
+		long[] totais = new long[carrinhos.size()];
+		IntStream indices = IntStream.range(0, totais.length);
+		if (totais.length >= LIMIAR_PARALELO) {
+			indices = indices.parallel();
+		}
+		indices.forEach(c -> {
+			CarrinhoCompacto carrinho = carrinhos.get(c);
+			long total = 0;
+			for (int i = 0; i < carrinho.tamanho(); i++) {
+				total = Math.addExact(total, Math.multiplyExact(precos.precoEmCentavos(carrinho.getIdProduto(i)), carrinho.getQuantidade(i)));
+			}
+			totais[c] = total;
+		});
+		return totais;
+	}
+
+	private static boolean cabeNaEscalaComum(ItemCarrinhoCompra item) {
+		return item.temValorUnitarioEmPontoFixo() && item.getEscalaValorUnitario() <= ESCALA_MAXIMA;
+	}
+
+	/**
+	 * @throws ArithmeticException caso algum valor ou o total não caiba em ponto fixo na escala
+	 */
+	private static long somar(List<ItemCarrinhoCompra> itens, int escala) {
+		long total = 0;
+		for (int i = 0; i < itens.size(); i++) {
+			ItemCarrinhoCompra item = itens.get(i);
+			if (!cabeNaEscalaComum(item)) {
+				throw new ArithmeticException("Valor não cabe em ponto fixo");
+			}
+			long valor = Math.multiplyExact(item.getValorUnitarioNaoEscalado(),
+					POTENCIAS_DE_DEZ[escala - item.getEscalaValorUnitario()]);
+			total = Math.addExact(total, Math.multiplyExact(valor, item.getQuantidade()));
+		}
+		return total;
+	}
+
+	/**
+	 * @return a escala do total do carrinho, a mesma da soma dos itens com {@link BigDecimal}
+	 */
+	private static int maiorEscala(List<ItemCarrinhoCompra> itens) {
+		int escala = 0;
+		for (int i = 0; i < itens.size(); i++) {
+			escala = Math.max(escala, itens.get(i).getEscalaValorUnitario());
+		}
+		return escala;
+	}
+
+	private static BigDecimal somarComBigDecimal(List<ItemCarrinhoCompra> itens) {
+		BigDecimal total = BigDecimal.ZERO;
+		for (ItemCarrinhoCompra item : itens) {
+			total = total.add(item.getValorTotal());
+		}
+		return total;
+	}
+
+	/**
+	 * Totais de cada carrinho, na ordem recebida, em ponto fixo com uma escala comum a todos.
+	 * Os carrinhos que não couberem em ponto fixo têm apenas o total em {@link BigDecimal}.
+	 * {@link #getValorTotal(int)} usa a escala do próprio carrinho, como {@link CarrinhoCompra#getValorTotal()}.
+	 */
+	public static final class TotaisCarrinhos {
+		private final long[] valoresNaoEscalados;
+		private final byte[] escalasCarrinhos;
+		private final BigDecimal[] valoresForaDoPontoFixo; //null para os carrinhos em ponto fixo
+		private final int escala;
+
+		private TotaisCarrinhos(long[] valoresNaoEscalados, byte[] escalasCarrinhos, BigDecimal[] valoresForaDoPontoFixo, int escala) {
+			this.valoresNaoEscalados = valoresNaoEscalados;
+			this.escalasCarrinhos = escalasCarrinhos;
+			this.valoresForaDoPontoFixo = valoresForaDoPontoFixo;
+			this.escala = escala;
+		}
+
+		public int quantidade() {
+			return valoresNaoEscalados.length;
+		}
+
+		public int getEscala() {
+			return escala;
+		}
+
+		public boolean emPontoFixo(int carrinho) {
+			return valoresForaDoPontoFixo[Objects.checkIndex(carrinho, valoresNaoEscalados.length)] == null;
+		}
+
+		/**
+		 * @throws ArithmeticException caso o total do carrinho não caiba em ponto fixo
+		 */
+		public long getValorTotalNaoEscalado(int carrinho) {
+			if (!emPontoFixo(carrinho)) {
+				throw new ArithmeticException("Valor total não cabe em ponto fixo");
+			}
+			return valoresNaoEscalados[carrinho];
+		}
+
+		public BigDecimal getValorTotal(int carrinho) {
+			if (!emPontoFixo(carrinho)) {
+				return valoresForaDoPontoFixo[carrinho];
+			}
+			int escalaCarrinho = escalasCarrinhos[carrinho];
+			//Divisão exata: todos os itens do carrinho cabem na escala dele
+			return BigDecimal.valueOf(valoresNaoEscalados[carrinho] / POTENCIAS_DE_DEZ[escala - escalaCarrinho], escalaCarrinho);
+		}
+	}
+}
@@ -38,6 +38,17 @@ public class Produto {
 		return valor;
 	}
 
+	/**
+	 * @throws IllegalArgumentException caso o valor tenha mais de duas casas decimais
+	 */
+	long getValorEmCentavos() {
+		try {
+			return valor.setScale(2).unscaledValue().longValueExact();
+		} catch (ArithmeticException e) {
+			throw new IllegalArgumentException("Valor do produto deve ter no máximo duas casas decimais", e);
+		}
+	}
+
 	private void validarValor(BigDecimal valor) {
 		if (valor.compareTo(BigDecimal.ONE) < 0) {
 			throw new IllegalArgumentException();
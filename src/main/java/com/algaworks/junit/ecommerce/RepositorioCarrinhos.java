@@ -0,0 +1,356 @@
+package com.algaworks.junit.ecommerce;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Mantém em memória o carrinho de cada {@link Cliente}, no formato {@link CarrinhoCompacto}.
+ * <p>
+ * Os carrinhos são divididos em shards pelo id do cliente, cada um com seu próprio lock, para que
+ * clientes diferentes não disputem o mesmo lock. Cada shard é uma tabela de endereçamento aberto
+ * sobre arrays primitivos, sem {@code Long} nem nós de {@link java.util.HashMap} por carrinho.
+ * <p>
+ * Carrinhos sem acesso por mais que o tempo ocioso são descartados ao serem acessados e em
+ * {@link #expirarOciosos()}, que deve ser chamado periodicamente.
+ */
+public class RepositorioCarrinhos {
+
+	private static final int CAPACIDADE_INICIAL_SHARD = 16;
+
+	private final Shard[] shards;
+	private final int deslocamentoShard; //64 - bits do índice do shard
+	private final long tempoOciosoNanos;
+	private final LongSupplier relogioNanos;
+
+	public RepositorioCarrinhos(int quantidadeShards, Duration tempoOcioso) {
+		this(quantidadeShards, tempoOcioso, System::nanoTime);
+	}
+
+	RepositorioCarrinhos(int quantidadeShards, Duration tempoOcioso, LongSupplier relogioNanos) {
+		if (quantidadeShards < 1) {
+			throw new IllegalArgumentException("Quantidade de shards deve ser maior que zero");
+		}
+		Objects.requireNonNull(tempoOcioso);
+		Objects.requireNonNull(relogioNanos);
+		//Arredonda para potência de dois para escolher o shard com uma máscara
+		int potencia = Integer.highestOneBit(quantidadeShards);
+		this.shards = new Shard[potencia < quantidadeShards ? potencia << 1 : potencia];
+		this.deslocamentoShard = Long.SIZE - Integer.numberOfTrailingZeros(shards.length);
+		for (int i = 0; i < shards.length; i++) {
+			shards[i] = new Shard();
+		}
+		this.tempoOciosoNanos = tempoOcioso.toNanos();
+		this.relogioNanos = relogioNanos;
+	}
+
+	/**
+	 * @return uma cópia do carrinho do cliente, caso exista e não tenha expirado
+	 */
+	public Optional<CarrinhoCompacto> encontrar(Cliente cliente) {
+		long id = idDo(cliente);
+		Shard shard = shardDo(id);
+		shard.lock.lock();
+		try {
+			CarrinhoCompacto carrinho = shard.acessar(id, relogioNanos.getAsLong(), tempoOciosoNanos);
+			return carrinho == null ? Optional.empty() : Optional.of(carrinho.copia());
+		} finally {
+			shard.lock.unlock();
+		}
+	}
+
+	/**
+	 * Substitui o carrinho do cliente por uma cópia do informado.
+	 */
+	public void salvar(Cliente cliente, CarrinhoCompacto carrinho) {
+		Objects.requireNonNull(carrinho);
+		long id = idDo(cliente);
+		CarrinhoCompacto copia = carrinho.copia();
+		Shard shard = shardDo(id);
+		shard.lock.lock();
+		try {
+			shard.colocar(id, copia, relogioNanos.getAsLong());
+		} finally {
+			shard.lock.unlock();
+		}
+	}
+
+	/**
+	 * Adiciona o produto ao carrinho do cliente, criando o carrinho caso não exista.
+	 */
+	public void adicionarProduto(Cliente cliente, long idProduto, int quantidade) {
+		long id = idDo(cliente);
+		Shard shard = shardDo(id);
+		shard.lock.lock();
+		try {
+			long agora = relogioNanos.getAsLong();
+			CarrinhoCompacto carrinho = shard.acessar(id, agora, tempoOciosoNanos);
+			if (carrinho == null) {
+				carrinho = new CarrinhoCompacto();
+				carrinho.adicionarProduto(idProduto, quantidade);
+				shard.colocar(id, carrinho, agora);
+			} else {
+				carrinho.adicionarProduto(idProduto, quantidade);
+			}
+		} finally {
+			shard.lock.unlock();
+		}
+	}
+
+	public void diminuirQuantidadeProduto(Cliente cliente, long idProduto) {
+		long id = idDo(cliente);
+		Shard shard = shardDo(id);
+		shard.lock.lock();
+		try {
+			encontrarCarrinho(shard, id).diminuirQuantidadeProduto(idProduto);
+		} finally {
+			shard.lock.unlock();
+		}
+	}
+
+	public void removerProduto(Cliente cliente, long idProduto) {
+		long id = idDo(cliente);
+		Shard shard = shardDo(id);
+		shard.lock.lock();
+		try {
+			encontrarCarrinho(shard, id).removerProduto(idProduto);
+		} finally {
+			shard.lock.unlock();
+		}
+	}
+
+	/**
+	 * @return se o cliente tinha um carrinho
+	 */
+	public boolean remover(Cliente cliente) {
+		long id = idDo(cliente);
+		Shard shard = shardDo(id);
+		shard.lock.lock();
+		try {
+			int posicao = shard.posicao(id);
+			if (posicao < 0) {
+				return false;
+			}
+			shard.remover(posicao);
+			return true;
+		} finally {
+			shard.lock.unlock();
+		}
+	}
+
+	/**
+	 * Descarta de uma vez todos os carrinhos ociosos, um shard por vez.
+	 *
+	 * @return a quantidade de carrinhos descartados
+	 */
+	public int expirarOciosos() {
+		int expirados = 0;
+		for (Shard shard : shards) {
+			shard.lock.lock();
+			try {
+				expirados += shard.expirar(relogioNanos.getAsLong(), tempoOciosoNanos);
+			} finally {
+				shard.lock.unlock();
+			}
+		}
+		return expirados;
+	}
+
+	public int quantidadeCarrinhos() {
+		int quantidade = 0;
+		for (Shard shard : shards) {
+			shard.lock.lock();
+			try {
+				quantidade += shard.tamanho;
+			} finally {
+				shard.lock.unlock();
+			}
+		}
+		return quantidade;
+	}
+
+	/**
+	 * Estima o heap ocupado pelas tabelas dos shards e pelos carrinhos.
+	 */
+	public long memoriaEstimadaEmBytes() {
+		long bytes = 0;
+		for (Shard shard : shards) {
+			shard.lock.lock();
+			try {
+				bytes += shard.estimarTamanhoEmBytes();
+			} finally {
+				shard.lock.unlock();
+			}
+		}
+		return bytes;
+	}
+
+	/**
+	 * @return a memória estimada dividida pela quantidade de carrinhos, ou zero caso não exista nenhum
+	 */
+	public long memoriaMediaPorCarrinhoEmBytes() {
+		long bytes = 0;
+		int quantidade = 0;
+		for (Shard shard : shards) {
+			shard.lock.lock();
+			try {
+				bytes += shard.estimarTamanhoEmBytes();
+				quantidade += shard.tamanho;
+			} finally {
+				shard.lock.unlock();
+			}
+		}
+		return quantidade == 0 ? 0 : bytes / quantidade;
+	}
+
+	private CarrinhoCompacto encontrarCarrinho(Shard shard, long id) {
+		CarrinhoCompacto carrinho = shard.acessar(id, relogioNanos.getAsLong(), tempoOciosoNanos);
+		if (carrinho == null) {
+			throw new RuntimeException();
+		}
+		return carrinho;
+	}
+
+	private static long idDo(Cliente cliente) {
+		Objects.requireNonNull(cliente);
+		return cliente.getId();
+	}
+
+	private Shard shardDo(long id) {
+		//Bits mais altos de um hash com outro multiplicador: se usasse bits de espalhar(id), que também dá a
+		//posição dentro do shard, as chaves de um shard se concentrariam em parte da tabela ao crescer.
+		//Com um único shard o deslocamento é 64, que em Java equivale a zero, e a máscara zera o resultado.
+		return shards[(int) ((id * 0xC2B2AE3D27D4EB4FL) >>> deslocamentoShard) & (shards.length - 1)];
+	}
+
+	private static int espalhar(long chave) {
+		long h = chave * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32));
+	}
+
+	private static final class Shard {
+		private final ReentrantLock lock = new ReentrantLock();
+		private long[] chaves;
+		private CarrinhoCompacto[] carrinhos; //null indica posição livre
+		private long[] ultimoAcessoNanos;
+		private int tamanho;
+
+		private Shard() {
+			alocar(CAPACIDADE_INICIAL_SHARD);
+		}
+
+		/**
+		 * @return a posição da chave, ou {@code -(posição livre + 1)} caso não exista
+		 */
+		private int posicao(long chave) {
+			int mascara = chaves.length - 1;
+			int i = espalhar(chave) & mascara;
+			while (carrinhos[i] != null) {
+				if (chaves[i] == chave) {
+					return i;
+				}
+				i = (i + 1) & mascara;
+			}
+			return -(i + 1);
+		}
+
+		private CarrinhoCompacto acessar(long chave, long agora, long tempoOcioso) {
+			int posicao = posicao(chave);
+			if (posicao < 0) {
+				return null;
+			}
+			if (agora - ultimoAcessoNanos[posicao] >= tempoOcioso) {
+				remover(posicao);
+				return null;
+			}
+			ultimoAcessoNanos[posicao] = agora;
+			return carrinhos[posicao];
+		}
+
+		private void colocar(long chave, CarrinhoCompacto carrinho, long agora) {
+			int posicao = posicao(chave);
+			if (posicao < 0) {
+				if ((tamanho + 1) * 3 > chaves.length * 2) {
+					reconstruir(chaves.length * 2, agora, Long.MAX_VALUE);
+					posicao = posicao(chave);
+				}
+				posicao = -(posicao + 1);
+				chaves[posicao] = chave;
+				tamanho++;
+			}
+			carrinhos[posicao] = carrinho;
+			ultimoAcessoNanos[posicao] = agora;
+		}
+
+		/**
+		 * Remove deslocando para trás os elementos seguintes da mesma sequência, sem deixar marcadores.
+		 */
+		private void remover(int posicao) {
+			int mascara = chaves.length - 1;
+			int livre = posicao;
+			carrinhos[livre] = null;
+			for (int i = (posicao + 1) & mascara; carrinhos[i] != null; i = (i + 1) & mascara) {
+				int ideal = espalhar(chaves[i]) & mascara;
+				//Só pode ocupar a posição livre se ela estiver entre a posição ideal e a atual
+				if (((i - ideal) & mascara) >= ((i - livre) & mascara)) {
+					chaves[livre] = chaves[i];
+					carrinhos[livre] = carrinhos[i];
+					ultimoAcessoNanos[livre] = ultimoAcessoNanos[i];
+					carrinhos[i] = null;
+					livre = i;
+				}
+			}
+			tamanho--;
+		}
+
+		private int expirar(long agora, long tempoOcioso) {
+			int antes = tamanho;
+			for (int i = 0; i < carrinhos.length; i++) {
+				if (carrinhos[i] != null && agora - ultimoAcessoNanos[i] >= tempoOcioso) {
+					reconstruir(chaves.length, agora, tempoOcioso);
+					break;
+				}
+			}
+			return antes - tamanho;
+		}
+
+		/**
+		 * Copia para novas tabelas apenas os carrinhos que não expiraram.
+		 */
+		private void reconstruir(int capacidade, long agora, long tempoOcioso) {
+			long[] chavesAntigas = chaves;
+			CarrinhoCompacto[] carrinhosAntigos = carrinhos;
+			long[] acessosAntigos = ultimoAcessoNanos;
+			alocar(capacidade);
+			tamanho = 0;
+			for (int i = 0; i < carrinhosAntigos.length; i++) {
+				if (carrinhosAntigos[i] != null && agora - acessosAntigos[i] < tempoOcioso) {
+					int posicao = -(posicao(chavesAntigas[i]) + 1);
+					chaves[posicao] = chavesAntigas[i];
+					carrinhos[posicao] = carrinhosAntigos[i];
+					ultimoAcessoNanos[posicao] = acessosAntigos[i];
+					tamanho++;
+				}
+			}
+		}
+
+		private void alocar(int capacidade) {
+			chaves = new long[capacidade];
+			carrinhos = new CarrinhoCompacto[capacidade];
+			ultimoAcessoNanos = new long[capacidade];
+		}
+
+		private long estimarTamanhoEmBytes() {
+			long bytes = 2 * CarrinhoCompacto.alinhar(16 + (long) chaves.length * Long.BYTES)
+					+ CarrinhoCompacto.alinhar(16 + (long) carrinhos.length * 4);
+			for (CarrinhoCompacto carrinho : carrinhos) {
+				if (carrinho != null) {
+					bytes += carrinho.estimarTamanhoEmBytes();
+				}
+			}
+			return bytes;
+		}
+	}
+}
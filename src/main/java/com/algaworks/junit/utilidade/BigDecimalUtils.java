@@ -1,11 +1,73 @@
 package com.algaworks.junit.utilidade;
 
 import java.math.BigDecimal;
+import java.util.Objects;
 
 public class BigDecimalUtils {
 
+    private static final long[] POTENCIAS_DE_DEZ = {
+            1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L,
+            1_000_000_000L, 10_000_000_000L, 100_000_000_000L, 1_000_000_000_000L,
+            10_000_000_000_000L, 100_000_000_000_000L, 1_000_000_000_000_000L,
+            10_000_000_000_000_000L, 100_000_000_000_000_000L, 1_000_000_000_000_000_000L
+    };
+
     public static boolean iguais(BigDecimal x, BigDecimal y) {
         return x.compareTo(y) == 0;
     }
 
+    /**
+     * Compara dois decimais representados como valor não escalado e escala
+     * (ex: 10.10 é 1010 com escala 2), com o mesmo resultado de {@link #iguais(BigDecimal, BigDecimal)}
+     * e sem criar objetos.
+     */
+    public static boolean iguais(long naoEscaladoX, int escalaX, long naoEscaladoY, int escalaY) {
+        if (escalaX == escalaY) {
+            return naoEscaladoX == naoEscaladoY;
+        }
+        //Diferença em long: entre escalas extremas ela não cabe em um int
+        if (escalaX < escalaY) {
+            return iguaisComEscalaMenor(naoEscaladoX, (long) escalaY - escalaX, naoEscaladoY);
+        }
+        return iguaisComEscalaMenor(naoEscaladoY, (long) escalaX - escalaY, naoEscaladoX);
+    }
+
+    /**
+     * Compara as colunas posição a posição.
+     *
+     * @return as posições em que os valores são iguais
+     */
+    public static ConjuntoBits posicoesIguais(ColunaDecimal x, ColunaDecimal y) {
+        Objects.requireNonNull(x);
+        Objects.requireNonNull(y);
+        if (x.tamanho() != y.tamanho()) {
+            throw new IllegalArgumentException("Colunas de tamanhos diferentes");
+        }
+
+        ConjuntoBits iguais = new ConjuntoBits(x.tamanho());
+        for (int i = 0; i < x.tamanho(); i++) {
+            if (iguais(x.naoEscalado(i), x.escala(i), y.naoEscalado(i), y.escala(i))) {
+                iguais.adicionar(i);
+            }
+        }
+        return iguais;
+    }
+
+    /**
+     * Verifica se {@code menor} * 10^diferenca é igual a {@code maior}. Se a multiplicação
+     * não couber em um long, o resultado não pode ser igual a um valor que cabe.
+     */
+    private static boolean iguaisComEscalaMenor(long menor, long diferencaEscala, long maior) {
+        if (menor == 0) {
+            return maior == 0;
+        }
+        if (diferencaEscala >= POTENCIAS_DE_DEZ.length) {
+            return false;
+        }
+        long potencia = POTENCIAS_DE_DEZ[(int) diferencaEscala];
+        long baixo = menor * potencia;
+        long alto = Math.multiplyHigh(menor, potencia);
+        return alto == (baixo >> 63) && baixo == maior;
+    }
+
 }
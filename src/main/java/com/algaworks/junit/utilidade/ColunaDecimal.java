@@ -0,0 +1,58 @@
+package com.algaworks.junit.utilidade;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+/**
+ * Coluna de decimais guardados como pares (valor não escalado, escala) em arrays primitivos,
+ * sem um {@link BigDecimal} por valor.
+ */
+public class ColunaDecimal {
+
+    private long[] naoEscalados;
+    private int[] escalas;
+    private int tamanho;
+
+    public ColunaDecimal() {
+        this(16);
+    }
+
+    public ColunaDecimal(int capacidade) {
+        this.naoEscalados = new long[Math.max(1, capacidade)];
+        this.escalas = new int[Math.max(1, capacidade)];
+    }
+
+    public void adicionar(long naoEscalado, int escala) {
+        if (tamanho == naoEscalados.length) {
+            naoEscalados = Arrays.copyOf(naoEscalados, tamanho * 2);
+            escalas = Arrays.copyOf(escalas, tamanho * 2);
+        }
+        naoEscalados[tamanho] = naoEscalado;
+        escalas[tamanho] = escala;
+        tamanho++;
+    }
+
+    public int tamanho() {
+        return tamanho;
+    }
+
+    public long naoEscalado(int posicao) {
+        validarPosicao(posicao);
+        return naoEscalados[posicao];
+    }
+
+    public int escala(int posicao) {
+        validarPosicao(posicao);
+        return escalas[posicao];
+    }
+
+    public BigDecimal valor(int posicao) {
+        return BigDecimal.valueOf(naoEscalado(posicao), escala(posicao));
+    }
+
+    private void validarPosicao(int posicao) {
+        if (posicao < 0 || posicao >= tamanho) {
+            throw new IndexOutOfBoundsException(posicao);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.algaworks.junit.utilidade;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.IntConsumer;
+
+/**
+ * Conjunto de posições representado por um bit por posição, em um {@code long[]}.
+ * Usado para indicar quais posições de um array passaram em um filtro sem copiar os valores.
+ */
+public final class ConjuntoBits {
+
+    private final long[] palavras;
+    private final int tamanho;
+
+    public ConjuntoBits(int tamanho) {
+        if (tamanho < 0) {
+            throw new IllegalArgumentException("Tamanho inválido");
+        }
+        this.tamanho = tamanho;
+        this.palavras = new long[(tamanho + Long.SIZE - 1) >>> 6];
+    }
+
+    private ConjuntoBits(long[] palavras, int tamanho) {
+        this.palavras = palavras;
+        this.tamanho = tamanho;
+    }
+
+    /**
+     * Marca as posições dos números que atendem ao critério.
+     */
+    static ConjuntoBits de(int[] numeros, FiltroNumeros.Criterio criterio) {
+        Objects.requireNonNull(numeros);
+        ConjuntoBits conjunto = new ConjuntoBits(numeros.length);
+        long[] palavras = conjunto.palavras;
+
+        for (int palavra = 0; palavra < palavras.length; palavra++) {
+            int inicio = palavra << 6;
+            int fim = Math.min(numeros.length, inicio + Long.SIZE);
+            palavras[palavra] = criterio.marcar(numeros, inicio, fim);
+        }
+        return conjunto;
+    }
+
+    public int tamanho() {
+        return tamanho;
+    }
+
+    public void adicionar(int posicao) {
+        validarPosicao(posicao);
+        palavras[posicao >>> 6] |= 1L << posicao;
+    }
+
+    public boolean contem(int posicao) {
+        validarPosicao(posicao);
+        return (palavras[posicao >>> 6] & (1L << posicao)) != 0;
+    }
+
+    public int cardinalidade() {
+        int cardinalidade = 0;
+        for (long palavra : palavras) {
+            cardinalidade += Long.bitCount(palavra);
+        }
+        return cardinalidade;
+    }
+
+    /**
+     * @return a primeira posição marcada a partir de {@code desde}, inclusive, ou -1 caso não exista
+     */
+    public int proximaPosicao(int desde) {
+        if (desde < 0) {
+            throw new IllegalArgumentException("Posição inválida");
+        }
+        int indice = desde >>> 6;
+        if (indice >= palavras.length) {
+            return -1;
+        }
+        long palavra = palavras[indice] & (-1L << desde);
+        while (true) {
+            if (palavra != 0) {
+                return (indice << 6) + Long.numberOfTrailingZeros(palavra);
+            }
+            if (++indice == palavras.length) {
+                return -1;
+            }
+            palavra = palavras[indice];
+        }
+    }
+
+    public void paraCadaPosicao(IntConsumer acao) {
+        Objects.requireNonNull(acao);
+        for (int indice = 0; indice < palavras.length; indice++) {
+            long palavra = palavras[indice];
+            while (palavra != 0) {
+                acao.accept((indice << 6) + Long.numberOfTrailingZeros(palavra));
+                palavra &= palavra - 1; //Remove o bit menos significativo
+            }
+        }
+    }
+
+    public int[] posicoes() {
+        int[] posicoes = new int[cardinalidade()];
+        int[] proxima = {0};
+        paraCadaPosicao(posicao -> posicoes[proxima[0]++] = posicao);
+        return posicoes;
+    }
+
+    /**
+     * @return um novo conjunto com as posições marcadas em ambos
+     */
+    public ConjuntoBits e(ConjuntoBits outro) {
+        validarMesmoTamanho(outro);
+        long[] resultado = new long[palavras.length];
+        for (int i = 0; i < resultado.length; i++) {
+            resultado[i] = palavras[i] & outro.palavras[i];
+        }
+        return new ConjuntoBits(resultado, tamanho);
+    }
+
+    /**
+     * @return um novo conjunto com as posições marcadas em qualquer um deles
+     */
+    public ConjuntoBits ou(ConjuntoBits outro) {
+        validarMesmoTamanho(outro);
+        long[] resultado = new long[palavras.length];
+        for (int i = 0; i < resultado.length; i++) {
+            resultado[i] = palavras[i] | outro.palavras[i];
+        }
+        return new ConjuntoBits(resultado, tamanho);
+    }
+
+    private void validarPosicao(int posicao) {
+        if (posicao < 0 || posicao >= tamanho) {
+            throw new IndexOutOfBoundsException(posicao);
+        }
+    }
+
+    private void validarMesmoTamanho(ConjuntoBits outro) {
+        Objects.requireNonNull(outro);
+        if (outro.tamanho != tamanho) {
+            throw new IllegalArgumentException("Conjuntos de tamanhos diferentes");
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ConjuntoBits that = (ConjuntoBits) o;
+        return tamanho == that.tamanho && Arrays.equals(palavras, that.palavras);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(palavras) + tamanho;
+    }
+}
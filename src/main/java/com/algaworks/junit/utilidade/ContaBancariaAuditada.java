@@ -0,0 +1,92 @@
+package com.algaworks.junit.utilidade;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * Conta bancária que registra cada depósito e saque em um {@link DiarioLancamentos},
+ * permitindo auditar o saldo em qualquer momento passado.
+ */
+public class ContaBancariaAuditada implements Closeable {
+
+    private static final int LOTE_SINCRONIZACAO = 1024;
+    private static final int INTERVALO_SNAPSHOT = 100_000;
+
+    private final DiarioLancamentos diario;
+
+    public ContaBancariaAuditada(DiarioLancamentos diario) {
+        Objects.requireNonNull(diario);
+        this.diario = diario;
+    }
+
+    /**
+     * Abre a conta gravada no diretório, ou cria uma nova com o saldo informado.
+     */
+    public static ContaBancariaAuditada abrir(Path diretorio, BigDecimal saldoInicial) throws IOException {
+        if (saldoInicial == null) {
+            throw new IllegalArgumentException("Valor inválido");
+        }
+        return new ContaBancariaAuditada(DiarioLancamentos.abrir(diretorio,
+                ContaBancariaConcorrente.paraCentavos(saldoInicial), LOTE_SINCRONIZACAO, INTERVALO_SNAPSHOT));
+    }
+
+    public synchronized void saque(BigDecimal valor) {
+        long centavos = paraCentavosPositivo(valor);
+        if (diario.saldo() < centavos) {
+            throw new RuntimeException("Saldo insuficiente");
+        }
+        registrar(-centavos);
+    }
+
+    public synchronized void deposito(BigDecimal valor) {
+        registrar(paraCentavosPositivo(valor));
+    }
+
+    public synchronized BigDecimal saldo() {
+        return BigDecimal.valueOf(diario.saldo(), ContaBancariaConcorrente.ESCALA);
+    }
+
+    public synchronized BigDecimal saldoEm(Instant instante) {
+        try {
+            return BigDecimal.valueOf(diario.saldoEm(instante), ContaBancariaConcorrente.ESCALA);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Garante que todos os lançamentos feitos até aqui estejam gravados em disco.
+     */
+    public synchronized void sincronizar() {
+        try {
+            diario.sincronizar();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        diario.close();
+    }
+
+    private void registrar(long centavos) {
+        try {
+            diario.registrar(centavos);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static long paraCentavosPositivo(BigDecimal valor) {
+        if (valor == null || valor.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new IllegalArgumentException("Valor inválido");
+        }
+        return ContaBancariaConcorrente.paraCentavos(valor);
+    }
+}
@@ -0,0 +1,103 @@
+package com.algaworks.junit.utilidade;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.math.BigDecimal;
+
+/**
+ * Conta bancária segura para uso concorrente, sem locks.
+ * <p>
+ * O saldo é mantido em centavos em um {@code long} atualizado via CAS, de modo que a
+ * verificação de saldo insuficiente e o débito acontecem na mesma operação atômica.
+ */
+public class ContaBancariaConcorrente {
+
+    static final int ESCALA = 2;
+
+    private static final VarHandle SALDO;
+
+    static {
+        try {
+            SALDO = MethodHandles.lookup().findVarHandle(ContaBancariaConcorrente.class, "saldoEmCentavos", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private volatile long saldoEmCentavos;
+
+    public ContaBancariaConcorrente(BigDecimal saldo) {
+        if (saldo == null) {
+            throw new IllegalArgumentException("Valor inválido");
+        }
+        this.saldoEmCentavos = paraCentavos(saldo);
+    }
+
+    public void saque(BigDecimal valor) {
+        saqueEmCentavos(paraCentavosPositivo(valor));
+    }
+
+    public void deposito(BigDecimal valor) {
+        depositoEmCentavos(paraCentavosPositivo(valor));
+    }
+
+    public BigDecimal saldo() {
+        return BigDecimal.valueOf(saldoEmCentavos, ESCALA);
+    }
+
+    public void saqueEmCentavos(long valor) {
+        if (!tentarSaqueEmCentavos(valor)) {
+            throw new RuntimeException("Saldo insuficiente");
+        }
+    }
+
+    /**
+     * @return false caso o saldo seja insuficiente, sem alterar a conta
+     */
+    public boolean tentarSaqueEmCentavos(long valor) {
+        validarPositivo(valor);
+        long atual;
+        do {
+            atual = saldoEmCentavos;
+            if (atual < valor) {
+                return false;
+            }
+        } while (!SALDO.weakCompareAndSet(this, atual, atual - valor));
+        return true;
+    }
+
+    public void depositoEmCentavos(long valor) {
+        validarPositivo(valor);
+        long atual;
+        long novo;
+        do {
+            atual = saldoEmCentavos;
+            novo = Math.addExact(atual, valor);
+        } while (!SALDO.weakCompareAndSet(this, atual, novo));
+    }
+
+    public long saldoEmCentavos() {
+        return saldoEmCentavos;
+    }
+
+    static long paraCentavos(BigDecimal valor) {
+        try {
+            return valor.setScale(ESCALA).unscaledValue().longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Valor inválido", e);
+        }
+    }
+
+    private static long paraCentavosPositivo(BigDecimal valor) {
+        if (valor == null || valor.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new IllegalArgumentException("Valor inválido");
+        }
+        return paraCentavos(valor);
+    }
+
+    private static void validarPositivo(long valor) {
+        if (valor <= 0) {
+            throw new IllegalArgumentException("Valor inválido");
+        }
+    }
+}
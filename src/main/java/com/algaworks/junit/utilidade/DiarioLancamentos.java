@@ -0,0 +1,334 @@
+package com.algaworks.junit.utilidade;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.LongSupplier;
+
+/**
+ * Diário de lançamentos (depósitos e saques) gravado em arquivo, apenas por inclusão.
+ * <p>
+ * Cada lançamento ocupa um registro de tamanho fixo (instante e valor em centavos, negativo
+ * para saques), então o lançamento N está sempre na posição N * {@value #TAMANHO_LANCAMENTO}.
+ * Os lançamentos são acumulados em memória e gravados com fsync a cada lote. A cada
+ * {@code intervaloSnapshot} lançamentos o saldo é registrado em um segundo arquivo, somente
+ * depois que os lançamentos que ele cobre já estão em disco.
+ * <p>
+ * Na abertura e nas consultas de saldo em um momento passado, apenas os lançamentos posteriores
+ * ao snapshot mais próximo são relidos.
+ */
+public class DiarioLancamentos implements Closeable {
+
+    static final int TAMANHO_LANCAMENTO = 16;
+    static final int TAMANHO_SNAPSHOT = 16;
+    static final String ARQUIVO_LANCAMENTOS = "lancamentos.log";
+    static final String ARQUIVO_SNAPSHOTS = "snapshots.log";
+
+    private static final int LANCAMENTOS_POR_LEITURA = 4096;
+
+    private final FileChannel lancamentos;
+    private final FileChannel snapshots;
+    private final ByteBuffer pendentes;
+    private final int intervaloSnapshot;
+    private final LongSupplier relogioMillis;
+
+    private long quantidadeLancamentos;
+    private long bytesGravados; //Tamanho do arquivo de lançamentos, sem os pendentes
+    private long saldo;
+    private long ultimoInstante;
+
+    private long[] sequenciasSnapshot = new long[16];
+    private long[] saldosSnapshot = new long[16];
+    private int quantidadeSnapshots;
+
+    private DiarioLancamentos(FileChannel lancamentos, FileChannel snapshots,
+                              int loteSincronizacao, int intervaloSnapshot, LongSupplier relogioMillis) {
+        this.lancamentos = lancamentos;
+        this.snapshots = snapshots;
+        this.pendentes = ByteBuffer.allocateDirect(loteSincronizacao * TAMANHO_LANCAMENTO);
+        this.intervaloSnapshot = intervaloSnapshot;
+        this.relogioMillis = relogioMillis;
+    }
+
+    /**
+     * Abre o diário existente no diretório, recuperando o saldo a partir do último snapshot,
+     * ou cria um novo com o saldo inicial informado.
+     */
+    public static DiarioLancamentos abrir(Path diretorio, long saldoInicialEmCentavos,
+                                          int loteSincronizacao, int intervaloSnapshot) throws IOException {
+        return abrir(diretorio, saldoInicialEmCentavos, loteSincronizacao, intervaloSnapshot, System::currentTimeMillis);
+    }
+
+    static DiarioLancamentos abrir(Path diretorio, long saldoInicialEmCentavos,
+                                   int loteSincronizacao, int intervaloSnapshot,
+                                   LongSupplier relogioMillis) throws IOException {
+        Objects.requireNonNull(diretorio);
+        if (loteSincronizacao < 1 || intervaloSnapshot < 1) {
+            throw new IllegalArgumentException("Lote e intervalo devem ser maiores que zero");
+        }
+        Files.createDirectories(diretorio);
+
+        FileChannel lancamentos = FileChannel.open(diretorio.resolve(ARQUIVO_LANCAMENTOS),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        FileChannel snapshots = FileChannel.open(diretorio.resolve(ARQUIVO_SNAPSHOTS),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        DiarioLancamentos diario = new DiarioLancamentos(lancamentos, snapshots,
+                loteSincronizacao, intervaloSnapshot, relogioMillis);
+        try {
+            diario.recuperar(saldoInicialEmCentavos);
+        } catch (IOException | RuntimeException e) {
+            diario.close();
+            throw e;
+        }
+        return diario;
+    }
+
+    /**
+     * O saldo e a quantidade de lançamentos só mudam depois que o lançamento foi aceito: caso a
+     * gravação de um lote falhe, o lançamento que o completou é desfeito, inclusive do arquivo.
+     * Se apenas o snapshot falhar, o lançamento já está gravado e a recuperação parte do snapshot anterior.
+     *
+     * @param valorEmCentavos positivo para depósitos e negativo para saques
+     * @return a sequência do lançamento
+     */
+    public long registrar(long valorEmCentavos) throws IOException {
+        if (valorEmCentavos == 0) {
+            throw new IllegalArgumentException("Valor inválido");
+        }
+        long novoSaldo = Math.addExact(saldo, valorEmCentavos);
+        long instante = Math.max(ultimoInstante, relogioMillis.getAsLong());
+        if (pendentes.remaining() < TAMANHO_LANCAMENTO) {
+            gravarPendentes(); //Restos de uma gravação que falhou antes
+        }
+
+        long inicioLancamento = bytesGravados + pendentes.position();
+        pendentes.putLong(instante).putLong(valorEmCentavos);
+        boolean snapshot = (quantidadeLancamentos + 1) % intervaloSnapshot == 0;
+        if (snapshot || !pendentes.hasRemaining()) {
+            try {
+                sincronizar();
+            } catch (IOException | RuntimeException e) {
+                desfazerLancamento(inicioLancamento, e);
+                throw e;
+            }
+        }
+
+        saldo = novoSaldo;
+        ultimoInstante = instante;
+        long sequencia = quantidadeLancamentos++;
+        if (snapshot) {
+            registrarSnapshot(quantidadeLancamentos, saldo);
+        }
+        return sequencia;
+    }
+
+    public long saldo() {
+        return saldo;
+    }
+
+    public long quantidadeLancamentos() {
+        return quantidadeLancamentos;
+    }
+
+    /**
+     * @return o saldo após os primeiros {@code quantidade} lançamentos
+     */
+    public long saldoApos(long quantidade) throws IOException {
+        if (quantidade < 0 || quantidade > quantidadeLancamentos) {
+            throw new IllegalArgumentException("Sequência inválida");
+        }
+        if (quantidade == quantidadeLancamentos) {
+            return saldo;
+        }
+        gravarPendentes();
+
+        int indice = Arrays.binarySearch(sequenciasSnapshot, 0, quantidadeSnapshots, quantidade);
+        if (indice < 0) {
+            indice = -indice - 2; //Snapshot imediatamente anterior
+        }
+        return reaplicar(sequenciasSnapshot[indice], quantidade, saldosSnapshot[indice]);
+    }
+
+    /**
+     * @return o saldo considerando todos os lançamentos registrados até o instante, inclusive
+     */
+    public long saldoEm(Instant instante) throws IOException {
+        Objects.requireNonNull(instante);
+        gravarPendentes();
+
+        long limite = instante.toEpochMilli();
+        long inicio = 0;
+        long fim = quantidadeLancamentos;
+        ByteBuffer leitura = ByteBuffer.allocate(Long.BYTES);
+        while (inicio < fim) {
+            long meio = (inicio + fim) >>> 1;
+            leitura.clear();
+            lerCompleto(leitura, meio * TAMANHO_LANCAMENTO);
+            if (leitura.getLong(0) <= limite) {
+                inicio = meio + 1;
+            } else {
+                fim = meio;
+            }
+        }
+        return saldoApos(inicio);
+    }
+
+    /**
+     * Grava os lançamentos pendentes e força sua escrita em disco.
+     */
+    public void sincronizar() throws IOException {
+        gravarPendentes();
+        lancamentos.force(false);
+    }
+
+    int quantidadeSnapshots() {
+        return quantidadeSnapshots;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            if (lancamentos.isOpen()) {
+                sincronizar();
+                snapshots.force(false);
+            }
+        } finally {
+            lancamentos.close();
+            snapshots.close();
+        }
+    }
+
+    private void recuperar(long saldoInicial) throws IOException {
+        long tamanhoLancamentos = lancamentos.size();
+        quantidadeLancamentos = tamanhoLancamentos / TAMANHO_LANCAMENTO;
+        lancamentos.truncate(quantidadeLancamentos * TAMANHO_LANCAMENTO); //Descarta registro incompleto
+
+        carregarSnapshots();
+        if (quantidadeSnapshots == 0) {
+            if (quantidadeLancamentos > 0) {
+                throw new IllegalStateException("Diário sem snapshot inicial");
+            }
+            registrarSnapshot(0, saldoInicial);
+            snapshots.force(false);
+        }
+
+        int ultimo = quantidadeSnapshots - 1;
+        saldo = reaplicar(sequenciasSnapshot[ultimo], quantidadeLancamentos, saldosSnapshot[ultimo]);
+        bytesGravados = quantidadeLancamentos * TAMANHO_LANCAMENTO;
+        lancamentos.position(bytesGravados);
+
+        if (quantidadeLancamentos > 0) {
+            ByteBuffer leitura = ByteBuffer.allocate(Long.BYTES);
+            lerCompleto(leitura, (quantidadeLancamentos - 1) * TAMANHO_LANCAMENTO);
+            ultimoInstante = leitura.getLong(0);
+        }
+    }
+
+    private void carregarSnapshots() throws IOException {
+        long quantidade = snapshots.size() / TAMANHO_SNAPSHOT;
+        ByteBuffer leitura = ByteBuffer.allocate(TAMANHO_SNAPSHOT);
+        long posicao = 0;
+
+        for (long i = 0; i < quantidade; i++) {
+            leitura.clear();
+            while (leitura.hasRemaining()) {
+                snapshots.read(leitura, posicao + leitura.position());
+            }
+            long sequencia = leitura.getLong(0);
+            if (sequencia > quantidadeLancamentos) {
+                break; //Snapshot de lançamentos que não chegaram ao disco
+            }
+            adicionarSnapshot(sequencia, leitura.getLong(Long.BYTES));
+            posicao += TAMANHO_SNAPSHOT;
+        }
+
+        snapshots.truncate(posicao);
+        snapshots.position(posicao);
+    }
+
+    private void registrarSnapshot(long sequencia, long saldo) throws IOException {
+        ByteBuffer registro = ByteBuffer.allocate(TAMANHO_SNAPSHOT);
+        registro.putLong(sequencia).putLong(saldo).flip();
+        //Posição explícita: um snapshot que falhou no meio é sobrescrito pelo próximo
+        long posicao = (long) quantidadeSnapshots * TAMANHO_SNAPSHOT;
+        while (registro.hasRemaining()) {
+            snapshots.write(registro, posicao + registro.position());
+        }
+        adicionarSnapshot(sequencia, saldo);
+    }
+
+    private void adicionarSnapshot(long sequencia, long saldo) {
+        if (quantidadeSnapshots == sequenciasSnapshot.length) {
+            sequenciasSnapshot = Arrays.copyOf(sequenciasSnapshot, quantidadeSnapshots * 2);
+            saldosSnapshot = Arrays.copyOf(saldosSnapshot, quantidadeSnapshots * 2);
+        }
+        sequenciasSnapshot[quantidadeSnapshots] = sequencia;
+        saldosSnapshot[quantidadeSnapshots] = saldo;
+        quantidadeSnapshots++;
+    }
+
+    private long reaplicar(long inicio, long fim, long saldoInicial) throws IOException {
+        long resultado = saldoInicial;
+        ByteBuffer leitura = ByteBuffer.allocate(LANCAMENTOS_POR_LEITURA * TAMANHO_LANCAMENTO);
+
+        for (long sequencia = inicio; sequencia < fim; ) {
+            int quantidade = (int) Math.min(LANCAMENTOS_POR_LEITURA, fim - sequencia);
+            leitura.clear().limit(quantidade * TAMANHO_LANCAMENTO);
+            lerCompleto(leitura, sequencia * TAMANHO_LANCAMENTO);
+            for (int i = 0; i < quantidade; i++) {
+                resultado += leitura.getLong(i * TAMANHO_LANCAMENTO + Long.BYTES);
+            }
+            sequencia += quantidade;
+        }
+        return resultado;
+    }
+
+    private void lerCompleto(ByteBuffer destino, long posicao) throws IOException {
+        int inicio = destino.position();
+        while (destino.hasRemaining()) {
+            if (lancamentos.read(destino, posicao + destino.position() - inicio) < 0) {
+                throw new IOException("Fim inesperado do diário de lançamentos");
+            }
+        }
+    }
+
+    private void gravarPendentes() throws IOException {
+        pendentes.flip();
+        try {
+            while (pendentes.hasRemaining()) {
+                bytesGravados += lancamentos.write(pendentes);
+            }
+        } finally {
+            pendentes.compact(); //Em caso de falha mantém apenas o que não foi gravado
+        }
+    }
+
+    /**
+     * Remove o último lançamento incluído nos pendentes, que começa em {@code inicioLancamento} no
+     * arquivo, após uma falha de gravação. Os lançamentos anteriores continuam pendentes.
+     */
+    private void desfazerLancamento(long inicioLancamento, Exception falha) {
+        if (pendentes.position() >= TAMANHO_LANCAMENTO) {
+            //Nada do lançamento foi gravado; ele é o último dos pendentes
+            pendentes.position(pendentes.position() - TAMANHO_LANCAMENTO);
+            return;
+        }
+        try {
+            //Parte do lançamento, ou ele inteiro sem fsync, chegou ao arquivo
+            lancamentos.truncate(inicioLancamento);
+            lancamentos.position(inicioLancamento);
+            bytesGravados = inicioLancamento;
+            pendentes.clear();
+        } catch (IOException | RuntimeException e) {
+            falha.addSuppressed(e);
+        }
+    }
+}
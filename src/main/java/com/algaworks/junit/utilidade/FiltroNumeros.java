@@ -1,10 +1,147 @@
 package com.algaworks.junit.utilidade;
 
+import java.nio.IntBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
+import java.util.stream.IntStream;
 
 public class FiltroNumeros {
 
+    private static final int TAMANHO_BLOCO_BUFFER = 4096;
+
+    /**
+     * Critérios dos filtros. A máscara retorna 1 quando o número atende ao critério e 0 caso
+     * contrário, sem desvios.
+     * <p>
+     * Cada critério tem seus próprios laços: se fossem compartilhados, a chamada à máscara dentro
+     * deles veria os três critérios e deixaria de ser inlinada, impedindo a vetorização.
+     */
+    enum Criterio {
+        PAR {
+            @Override
+            int mascara(int numero) {
+                return (numero & 1) ^ 1;
+            }
+
+            @Override
+            int contar(int[] numeros, int inicio, int fim) {
+                int quantidade = 0;
+                for (int i = inicio; i < fim; i++) {
+                    quantidade += mascara(numeros[i]);
+                }
+                return quantidade;
+            }
+
+            @Override
+            void compactar(int[] numeros, int inicio, int[] destino, int posicao, int quantidade) {
+                int fim = posicao + quantidade;
+                for (int i = inicio; posicao < fim; i++) {
+                    int numero = numeros[i];
+                    destino[posicao] = numero;
+                    posicao += mascara(numero);
+                }
+            }
+
+            @Override
+            long marcar(int[] numeros, int inicio, int fim) {
+                long bits = 0;
+                for (int i = inicio; i < fim; i++) {
+                    bits |= (long) mascara(numeros[i]) << (i - inicio);
+                }
+                return bits;
+            }
+        },
+        IMPAR {
+            @Override
+            int mascara(int numero) {
+                return numero & 1;
+            }
+
+            @Override
+            int contar(int[] numeros, int inicio, int fim) {
+                int quantidade = 0;
+                for (int i = inicio; i < fim; i++) {
+                    quantidade += mascara(numeros[i]);
+                }
+                return quantidade;
+            }
+
+            @Override
+            void compactar(int[] numeros, int inicio, int[] destino, int posicao, int quantidade) {
+                int fim = posicao + quantidade;
+                for (int i = inicio; posicao < fim; i++) {
+                    int numero = numeros[i];
+                    destino[posicao] = numero;
+                    posicao += mascara(numero);
+                }
+            }
+
+            @Override
+            long marcar(int[] numeros, int inicio, int fim) {
+                long bits = 0;
+                for (int i = inicio; i < fim; i++) {
+                    bits |= (long) mascara(numeros[i]) << (i - inicio);
+                }
+                return bits;
+            }
+        },
+        POSITIVO {
+            @Override
+            int mascara(int numero) {
+                return ~numero >>> 31;
+            }
+
+            @Override
+            int contar(int[] numeros, int inicio, int fim) {
+                int quantidade = 0;
+                for (int i = inicio; i < fim; i++) {
+                    quantidade += mascara(numeros[i]);
+                }
+                return quantidade;
+            }
+
+            @Override
+            void compactar(int[] numeros, int inicio, int[] destino, int posicao, int quantidade) {
+                int fim = posicao + quantidade;
+                for (int i = inicio; posicao < fim; i++) {
+                    int numero = numeros[i];
+                    destino[posicao] = numero;
+                    posicao += mascara(numero);
+                }
+            }
+
+            @Override
+            long marcar(int[] numeros, int inicio, int fim) {
+                long bits = 0;
+                for (int i = inicio; i < fim; i++) {
+                    bits |= (long) mascara(numeros[i]) << (i - inicio);
+                }
+                return bits;
+            }
+        };
+
+        abstract int mascara(int numero);
+
+        /**
+         * @return quantos números entre {@code inicio} e {@code fim} atendem ao critério
+         */
+        abstract int contar(int[] numeros, int inicio, int fim);
+
+        /**
+         * Copia para o destino, a partir de {@code posicao}, os {@code quantidade} primeiros números
+         * aceitos a partir de {@code inicio}. Todo número é escrito e a posição só avança quando ele
+         * é aceito, evitando desvios dependentes dos dados.
+         */
+        abstract void compactar(int[] numeros, int inicio, int[] destino, int posicao, int quantidade);
+
+        /**
+         * @return um bit por número entre {@code inicio} e {@code fim}, no máximo 64
+         */
+        abstract long marcar(int[] numeros, int inicio, int fim);
+    }
+
     private FiltroNumeros() {
 
     }
@@ -17,8 +154,138 @@ public class FiltroNumeros {
         return new ArrayList<>(numeros).stream().filter(numero -> numero % 2 != 0).toList();
     }
 
+    public static int[] numerosPares(int[] numeros) {
+        return filtrar(numeros, Criterio.PAR);
+    }
+
+    public static int[] numerosImpares(int[] numeros) {
+        return filtrar(numeros, Criterio.IMPAR);
+    }
+
+    public static int[] numerosPositivos(int[] numeros) {
+        return filtrar(numeros, Criterio.POSITIVO);
+    }
+
+    /**
+     * @return as posições dos números pares, sem copiar os valores
+     */
+    public static ConjuntoBits posicoesPares(int[] numeros) {
+        return ConjuntoBits.de(numeros, Criterio.PAR);
+    }
+
+    public static ConjuntoBits posicoesImpares(int[] numeros) {
+        return ConjuntoBits.de(numeros, Criterio.IMPAR);
+    }
+
+    public static ConjuntoBits posicoesPositivos(int[] numeros) {
+        return ConjuntoBits.de(numeros, Criterio.POSITIVO);
+    }
+
+    public static IntStream numerosPares(IntStream numeros) {
+        return numeros.filter(numero -> Criterio.PAR.mascara(numero) == 1);
+    }
+
+    public static IntStream numerosImpares(IntStream numeros) {
+        return numeros.filter(numero -> Criterio.IMPAR.mascara(numero) == 1);
+    }
+
+    /**
+     * Lê os números entre a posição e o limite do buffer, sem alterá-los.
+     */
+    public static int[] numerosPares(IntBuffer numeros) {
+        return filtrar(numeros, Criterio.PAR);
+    }
+
+    /**
+     * Lê os números entre a posição e o limite do buffer, sem alterá-los.
+     */
+    public static int[] numerosImpares(IntBuffer numeros) {
+        return filtrar(numeros, Criterio.IMPAR);
+    }
+
+    /**
+     * Separa pares e ímpares percorrendo os números uma única vez, mantendo a ordem original em cada grupo.
+     */
+    public static Particao particionar(int[] numeros) {
+        Objects.requireNonNull(numeros);
+        int tamanho = numeros.length;
+        //Pares são escritos do início para o fim e ímpares do fim para o início
+        int[] separados = new int[tamanho];
+        int pares = 0;
+        int impares = 0;
+
+        for (int numero : numeros) {
+            int impar = numero & 1;
+            separados[pares] = numero;
+            separados[tamanho - 1 - impares] = numero;
+            pares += impar ^ 1;
+            impares += impar;
+        }
+
+        int[] resultadoImpares = new int[impares];
+        for (int i = 0; i < impares; i++) {
+            resultadoImpares[i] = separados[tamanho - 1 - i];
+        }
+        return new Particao(Arrays.copyOf(separados, pares), resultadoImpares);
+    }
+
     public static boolean isPositivo(int numero) {
         return numero >= 0;
     }
 
+    private static int[] filtrar(int[] numeros, Criterio criterio) {
+        Objects.requireNonNull(numeros);
+        int[] resultado = new int[criterio.contar(numeros, 0, numeros.length)];
+        criterio.compactar(numeros, 0, resultado, 0, resultado.length);
+        return resultado;
+    }
+
+    private static int[] filtrar(IntBuffer numeros, Criterio criterio) {
+        Objects.requireNonNull(numeros);
+        if (numeros.hasArray()) {
+            int inicio = numeros.arrayOffset() + numeros.position();
+            int[] resultado = new int[criterio.contar(numeros.array(), inicio, inicio + numeros.remaining())];
+            criterio.compactar(numeros.array(), inicio, resultado, 0, resultado.length);
+            return resultado;
+        }
+
+        //Buffers sem array (ex: diretos) são lidos em blocos, para usar os mesmos laços dos arrays
+        int[] bloco = new int[Math.min(TAMANHO_BLOCO_BUFFER, numeros.remaining())];
+        int quantidade = 0;
+        for (IntBuffer leitura = numeros.duplicate(); leitura.hasRemaining(); ) {
+            int lidos = Math.min(bloco.length, leitura.remaining());
+            leitura.get(bloco, 0, lidos);
+            quantidade += criterio.contar(bloco, 0, lidos);
+        }
+
+        int[] resultado = new int[quantidade];
+        int posicao = 0;
+        for (IntBuffer leitura = numeros.duplicate(); posicao < quantidade; ) {
+            int lidos = Math.min(bloco.length, leitura.remaining());
+            leitura.get(bloco, 0, lidos);
+            int aceitos = criterio.contar(bloco, 0, lidos);
+            criterio.compactar(bloco, 0, resultado, posicao, aceitos);
+            posicao += aceitos;
+        }
+        return resultado;
+    }
+
+    public static final class Particao {
+        private final int[] pares;
+        private final int[] impares;
+
+        private Particao(int[] pares, int[] impares) {
+            this.pares = pares;
+            this.impares = impares;
+        }
+
+        public int[] getPares() {
+            return pares;
+        }
+
+        public int[] getImpares() {
+            return impares;
+        }
+    }
+
 }
@@ -0,0 +1,193 @@
+package com.algaworks.junit.utilidade;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.function.IntPredicate;
+
+/**
+ * Filtra números de arquivos grandes sem carregá-los em memória.
+ * <p>
+ * O arquivo é mapeado em janelas com {@link FileChannel#map} e os números são lidos direto
+ * dos bytes, sem criar {@code String}s. Os aceitos pelo filtro são escritos no canal de saída
+ * no mesmo formato da entrada, através de um buffer de tamanho fixo.
+ */
+public class FiltroNumerosArquivo {
+
+    public enum Formato {
+        /**
+         * Números inteiros em decimal, opcionalmente precedidos por {@code -}, separados por espaços,
+         * tabulações, quebras de linha, vírgulas ou ponto e vírgula. Qualquer outro caractere, como o
+         * ponto de um decimal, é inválido. Na saída, um por linha.
+         */
+        TEXTO,
+        /**
+         * Sequência de inteiros de 4 bytes, big-endian.
+         */
+        BINARIO
+    }
+
+    static final long TAMANHO_JANELA = 64L * 1024 * 1024;
+
+    private static final int TAMANHO_BUFFER_SAIDA = 64 * 1024;
+    private static final int TAMANHO_MAXIMO_NUMERO = 12; //Sinal, 10 dígitos e separador
+
+    private FiltroNumerosArquivo() {
+
+    }
+
+    /**
+     * @return a quantidade de números escritos na saída
+     */
+    public static long filtrar(Path entrada, Formato formato, IntPredicate filtro,
+                               WritableByteChannel saida) throws IOException {
+        return filtrar(entrada, formato, filtro, saida, TAMANHO_JANELA);
+    }
+
+    static long filtrar(Path entrada, Formato formato, IntPredicate filtro,
+                        WritableByteChannel saida, long tamanhoJanela) throws IOException {
+        Objects.requireNonNull(entrada);
+        Objects.requireNonNull(formato);
+        Objects.requireNonNull(filtro);
+        Objects.requireNonNull(saida);
+
+        Filtragem filtragem = new Filtragem(formato, filtro, saida);
+        try (FileChannel arquivo = FileChannel.open(entrada, StandardOpenOption.READ)) {
+            long tamanho = arquivo.size();
+            if (formato == Formato.BINARIO && tamanho % Integer.BYTES != 0) {
+                throw new IllegalArgumentException("Arquivo binário com tamanho inválido");
+            }
+            //Janelas múltiplas de 4 para que nenhum inteiro binário fique dividido
+            long janela = Math.max(Integer.BYTES, tamanhoJanela - tamanhoJanela % Integer.BYTES);
+
+            for (long posicao = 0; posicao < tamanho; posicao += janela) {
+                MappedByteBuffer bytes = arquivo.map(FileChannel.MapMode.READ_ONLY, posicao,
+                        Math.min(janela, tamanho - posicao));
+                if (formato == Formato.TEXTO) {
+                    filtragem.lerTexto(bytes);
+                } else {
+                    filtragem.lerBinario(bytes);
+                }
+            }
+        }
+        return filtragem.finalizar();
+    }
+
+    private static final class Filtragem {
+        private final Formato formato;
+        private final IntPredicate filtro;
+        private final WritableByteChannel saida;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(TAMANHO_BUFFER_SAIDA);
+        private final byte[] digitos = new byte[TAMANHO_MAXIMO_NUMERO];
+        private long quantidadeEscrita;
+
+        //Estado da leitura em texto, mantido entre janelas
+        private boolean lendoNumero;
+        private boolean negativo;
+        private long valor;
+
+        private Filtragem(Formato formato, IntPredicate filtro, WritableByteChannel saida) {
+            this.formato = formato;
+            this.filtro = filtro;
+            this.saida = saida;
+        }
+
+        private void lerTexto(ByteBuffer bytes) throws IOException {
+            int limite = bytes.limit();
+            for (int i = bytes.position(); i < limite; i++) {
+                byte caractere = bytes.get(i);
+                if (caractere >= '0' && caractere <= '9') {
+                    lendoNumero = true;
+                    valor = valor * 10 + (caractere - '0');
+                    if (valor > (long) Integer.MAX_VALUE + 1) {
+                        throw new IllegalArgumentException("Número fora do intervalo de int");
+                    }
+                } else if (caractere == '-' && !lendoNumero && !negativo) {
+                    negativo = true;
+                } else if (isSeparador(caractere)) {
+                    concluirNumero();
+                } else {
+                    throw new IllegalArgumentException("Caractere inválido: " + (char) (caractere & 0xFF));
+                }
+            }
+        }
+
+        private static boolean isSeparador(byte caractere) {
+            return caractere == ',' || caractere == ';' || caractere == ' '
+                    || caractere == '\n' || caractere == '\r' || caractere == '\t';
+        }
+
+        private void concluirNumero() throws IOException {
+            if (negativo && !lendoNumero) {
+                throw new IllegalArgumentException("Sinal de negativo sem número");
+            }
+            if (lendoNumero) {
+                long numero = negativo ? -valor : valor;
+                if (numero > Integer.MAX_VALUE) {
+                    throw new IllegalArgumentException("Número fora do intervalo de int");
+                }
+                aceitar((int) numero);
+            }
+            lendoNumero = false;
+            negativo = false;
+            valor = 0;
+        }
+
+        private void lerBinario(ByteBuffer bytes) throws IOException {
+            int limite = bytes.limit();
+            for (int i = bytes.position(); i < limite; i += Integer.BYTES) {
+                aceitar(bytes.getInt(i));
+            }
+        }
+
+        private void aceitar(int numero) throws IOException {
+            if (!filtro.test(numero)) {
+                return;
+            }
+            if (buffer.remaining() < TAMANHO_MAXIMO_NUMERO) {
+                descarregar();
+            }
+            if (formato == Formato.TEXTO) {
+                escreverDecimal(numero);
+            } else {
+                buffer.putInt(numero);
+            }
+            quantidadeEscrita++;
+        }
+
+        private void escreverDecimal(int numero) {
+            long restante = Math.abs((long) numero);
+            int posicao = digitos.length;
+            digitos[--posicao] = '\n';
+            do {
+                digitos[--posicao] = (byte) ('0' + restante % 10);
+                restante /= 10;
+            } while (restante > 0);
+            if (numero < 0) {
+                digitos[--posicao] = '-';
+            }
+            buffer.put(digitos, posicao, digitos.length - posicao);
+        }
+
+        private long finalizar() throws IOException {
+            if (formato == Formato.TEXTO) {
+                concluirNumero();
+            }
+            descarregar();
+            return quantidadeEscrita;
+        }
+
+        private void descarregar() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                saida.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.algaworks.junit.utilidade;
+
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+/**
+ * Versões paralelas dos filtros de {@link FiltroNumeros} para arrays grandes, executadas no
+ * {@link java.util.concurrent.ForkJoinPool#commonPool()}.
+ * <p>
+ * O array é dividido em blocos. Cada bloco conta em paralelo quantos números passam no filtro;
+ * a soma acumulada dessas contagens define onde cada bloco começa no resultado, e então os
+ * blocos são compactados em paralelo, preservando a ordem original.
+ * Abaixo de {@link #LIMIAR_PARALELO} elementos é usada a versão sequencial.
+ */
+public class FiltroNumerosParalelo {
+
+    public static final int LIMIAR_PARALELO = 1 << 16;
+
+    private static final int TAMANHO_MINIMO_BLOCO = 1 << 14;
+
+    private FiltroNumerosParalelo() {
+
+    }
+
+    public static int[] numerosPares(int[] numeros) {
+        return filtrar(numeros, FiltroNumeros.Criterio.PAR);
+    }
+
+    public static int[] numerosImpares(int[] numeros) {
+        return filtrar(numeros, FiltroNumeros.Criterio.IMPAR);
+    }
+
+    public static int[] numerosPositivos(int[] numeros) {
+        return filtrar(numeros, FiltroNumeros.Criterio.POSITIVO);
+    }
+
+    private static int[] filtrar(int[] numeros, FiltroNumeros.Criterio criterio) {
+        Objects.requireNonNull(numeros);
+        int tamanho = numeros.length;
+        if (tamanho < LIMIAR_PARALELO) {
+            int[] resultado = new int[criterio.contar(numeros, 0, tamanho)];
+            criterio.compactar(numeros, 0, resultado, 0, resultado.length);
+            return resultado;
+        }
+
+        int paralelismo = Runtime.getRuntime().availableProcessors() * 4;
+        int tamanhoBloco = Math.max(TAMANHO_MINIMO_BLOCO, (tamanho + paralelismo - 1) / paralelismo);
+        int quantidadeBlocos = (tamanho + tamanhoBloco - 1) / tamanhoBloco;
+
+        int[] inicios = new int[quantidadeBlocos + 1];
+        IntStream.range(0, quantidadeBlocos).parallel().forEach(bloco -> {
+            int inicio = bloco * tamanhoBloco;
+            int fim = Math.min(tamanho, inicio + tamanhoBloco);
+            inicios[bloco + 1] = criterio.contar(numeros, inicio, fim);
+        });
+        for (int bloco = 0; bloco < quantidadeBlocos; bloco++) {
+            inicios[bloco + 1] += inicios[bloco];
+        }
+
+        int[] resultado = new int[inicios[quantidadeBlocos]];
+        IntStream.range(0, quantidadeBlocos).parallel().forEach(bloco ->
+                criterio.compactar(numeros, bloco * tamanhoBloco,
+                        resultado, inicios[bloco], inicios[bloco + 1] - inicios[bloco]));
+        return resultado;
+    }
+}
@@ -0,0 +1,121 @@
+package com.algaworks.junit.utilidade;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Objects;
+
+/**
+ * Lê um CSV de decimais (ex: {@code 10.10,10}) direto para {@link ColunaDecimal}s, sem criar
+ * {@code String}s nem {@code BigDecimal}s. Cada valor, sem o ponto, deve caber em um {@code long}:
+ * qualquer valor com até 18 dígitos e os de 19 dígitos até {@value Long#MAX_VALUE}. Espaços são
+ * aceitos apenas antes e depois de cada valor, como em {@code new BigDecimal(texto.trim())}.
+ */
+public class LeitorCsvDecimal {
+
+    private static final int TAMANHO_BUFFER = 64 * 1024;
+
+    private final int quantidadeColunas;
+    private final ColunaDecimal[] colunas;
+
+    private int coluna;
+    private boolean lendoValor;
+    private boolean negativo;
+    private boolean lendoFracao;
+    private boolean espacoAposValor; //Depois do espaço, o valor só pode terminar
+    private long naoEscalado;
+    private int escala;
+    private long linha = 1;
+
+    private LeitorCsvDecimal(int quantidadeColunas) {
+        this.quantidadeColunas = quantidadeColunas;
+        this.colunas = new ColunaDecimal[quantidadeColunas];
+        for (int i = 0; i < quantidadeColunas; i++) {
+            this.colunas[i] = new ColunaDecimal();
+        }
+    }
+
+    public static ColunaDecimal[] ler(ReadableByteChannel entrada, int quantidadeColunas) throws IOException {
+        Objects.requireNonNull(entrada);
+        if (quantidadeColunas < 1) {
+            throw new IllegalArgumentException("Quantidade de colunas inválida");
+        }
+
+        LeitorCsvDecimal leitor = new LeitorCsvDecimal(quantidadeColunas);
+        ByteBuffer buffer = ByteBuffer.allocate(TAMANHO_BUFFER);
+        while (entrada.read(buffer) >= 0) {
+            buffer.flip();
+            leitor.processar(buffer);
+            buffer.clear();
+        }
+        leitor.concluirLinha();
+        return leitor.colunas;
+    }
+
+    private void processar(ByteBuffer bytes) {
+        byte[] array = bytes.array();
+        for (int i = bytes.position(); i < bytes.limit(); i++) {
+            byte caractere = array[i];
+            if (caractere == ',') {
+                concluirValor();
+            } else if (caractere == '\n') {
+                concluirLinha();
+                linha++;
+            } else if (caractere == '\r' || caractere == ' ') {
+                espacoAposValor = valorIniciado();
+            } else if (espacoAposValor) {
+                throw new IllegalArgumentException("Espaço dentro do valor na linha " + linha);
+            } else if (caractere >= '0' && caractere <= '9') {
+                adicionarDigito(caractere - '0');
+            } else if (caractere == '.' && !lendoFracao) {
+                lendoFracao = true;
+            } else if (caractere == '-' && !valorIniciado()) {
+                negativo = true;
+            } else {
+                throw new IllegalArgumentException("Caractere inválido na linha " + linha);
+            }
+        }
+    }
+
+    private boolean valorIniciado() {
+        return lendoValor || negativo || lendoFracao;
+    }
+
+    private void adicionarDigito(int digito) {
+        if (naoEscalado > (Long.MAX_VALUE - digito) / 10) {
+            throw new IllegalArgumentException("Valor com dígitos demais na linha " + linha);
+        }
+        naoEscalado = naoEscalado * 10 + digito;
+        lendoValor = true;
+        if (lendoFracao) {
+            escala++;
+        }
+    }
+
+    private void concluirValor() {
+        if (!lendoValor) {
+            throw new IllegalArgumentException("Valor ausente na linha " + linha);
+        }
+        if (coluna == quantidadeColunas) {
+            throw new IllegalArgumentException("Colunas demais na linha " + linha);
+        }
+        colunas[coluna++].adicionar(negativo ? -naoEscalado : naoEscalado, escala);
+        lendoValor = false;
+        negativo = false;
+        lendoFracao = false;
+        espacoAposValor = false;
+        naoEscalado = 0;
+        escala = 0;
+    }
+
+    private void concluirLinha() {
+        if (coluna == 0 && !valorIniciado()) {
+            return; //Linha vazia
+        }
+        concluirValor();
+        if (coluna != quantidadeColunas) {
+            throw new IllegalArgumentException("Colunas de menos na linha " + linha);
+        }
+        coluna = 0;
+    }
+}
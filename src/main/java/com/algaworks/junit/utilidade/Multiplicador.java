@@ -1,5 +1,8 @@
 package com.algaworks.junit.utilidade;
 
+import java.nio.DoubleBuffer;
+import java.util.Objects;
+
 public enum Multiplicador {
     DOBRO(2.0),
     TRIPLO(3.0),
@@ -18,4 +21,56 @@ public enum Multiplicador {
         return multiplicador * valor;
     }
 
+    /**
+     * Versão sem boxing de {@link #aplicarMultiplicador(Double)}, com o mesmo resultado para zero.
+     */
+    public double multiplicar(double valor) {
+        return aplicar(valor);
+    }
+
+    /**
+     * Aplica o multiplicador a cada valor, alterando o próprio array.
+     */
+    public void aplicarEmLote(double[] valores) {
+        aplicarEmLote(valores, valores);
+    }
+
+    /**
+     * Escreve em {@code destino} o resultado de cada valor de {@code origem}; podem ser o mesmo array.
+     */
+    public void aplicarEmLote(double[] origem, double[] destino) {
+        Objects.requireNonNull(origem);
+        Objects.requireNonNull(destino);
+        if (destino.length < origem.length) {
+            throw new IllegalArgumentException("Destino menor que a origem");
+        }
+        for (int i = 0; i < origem.length; i++) {
+            destino[i] = aplicar(origem[i]);
+        }
+    }
+
+    /**
+     * Aplica o multiplicador aos valores entre a posição e o limite do buffer, sobrescrevendo-os.
+     * A posição e o limite do buffer não são alterados.
+     */
+    public void aplicarEmLote(DoubleBuffer valores) {
+        Objects.requireNonNull(valores);
+        if (valores.hasArray()) {
+            int inicio = valores.arrayOffset() + valores.position();
+            double[] array = valores.array();
+            for (int i = inicio; i < inicio + valores.remaining(); i++) {
+                array[i] = aplicar(array[i]);
+            }
+            return;
+        }
+        for (int i = valores.position(); i < valores.limit(); i++) {
+            valores.put(i, aplicar(valores.get(i)));
+        }
+    }
+
+    private double aplicar(double valor) {
+        //Somar 0.0 transforma -0.0 em 0.0 sem desvio, mantendo o resultado de aplicarMultiplicador(Double) para zero
+        return multiplicador * valor + 0.0;
+    }
+
 }
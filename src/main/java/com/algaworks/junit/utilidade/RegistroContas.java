@@ -0,0 +1,156 @@
+package com.algaworks.junit.utilidade;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Registro compacto de saldos para um grande número de contas.
+ * <p>
+ * Os saldos, em centavos, ficam em segmentos de {@code long[]} indexados pelo id da conta,
+ * sem um objeto por conta. Escritas são serializadas por locks distribuídos entre as contas
+ * (stripes); leituras não usam lock e enxergam sempre o último valor escrito.
+ */
+public class RegistroContas {
+
+    private static final int BITS_SEGMENTO = 14;
+    private static final int TAMANHO_SEGMENTO = 1 << BITS_SEGMENTO;
+    private static final int MASCARA_SEGMENTO = TAMANHO_SEGMENTO - 1;
+    private static final VarHandle SALDOS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final Object[] travas;
+    private final int mascaraTravas;
+    private final Object travaCrescimento = new Object();
+
+    private volatile long[][] segmentos = new long[0][];
+    private volatile long quantidadeContas;
+
+    public RegistroContas() {
+        this(64);
+    }
+
+    public RegistroContas(int quantidadeTravas) {
+        if (quantidadeTravas < 1 || Integer.bitCount(quantidadeTravas) != 1) {
+            throw new IllegalArgumentException("Quantidade de travas deve ser uma potência de 2");
+        }
+        this.travas = new Object[quantidadeTravas];
+        for (int i = 0; i < quantidadeTravas; i++) {
+            this.travas[i] = new Object();
+        }
+        this.mascaraTravas = quantidadeTravas - 1;
+    }
+
+    /**
+     * @return o id da nova conta
+     */
+    public long abrirConta(BigDecimal saldoInicial) {
+        if (saldoInicial == null) {
+            throw new IllegalArgumentException("Valor inválido");
+        }
+        return abrirContaEmCentavos(ContaBancariaConcorrente.paraCentavos(saldoInicial));
+    }
+
+    public long abrirContaEmCentavos(long saldoInicial) {
+        synchronized (travaCrescimento) {
+            long id = quantidadeContas;
+            int indiceSegmento = (int) (id >>> BITS_SEGMENTO);
+            long[][] atuais = segmentos;
+            if (indiceSegmento == atuais.length) {
+                long[][] novos = Arrays.copyOf(atuais, atuais.length + 1);
+                novos[indiceSegmento] = new long[TAMANHO_SEGMENTO];
+                segmentos = novos;
+            }
+            SALDOS.setVolatile(segmentos[indiceSegmento], (int) id & MASCARA_SEGMENTO, saldoInicial);
+            quantidadeContas = id + 1;
+            return id;
+        }
+    }
+
+    public long quantidadeContas() {
+        return quantidadeContas;
+    }
+
+    public void depositoEmCentavos(long id, long valor) {
+        validarPositivo(valor);
+        long[] segmento = segmento(id);
+        int posicao = (int) id & MASCARA_SEGMENTO;
+        synchronized (trava(id)) {
+            long atual = (long) SALDOS.getVolatile(segmento, posicao);
+            SALDOS.setVolatile(segmento, posicao, Math.addExact(atual, valor));
+        }
+    }
+
+    public void saqueEmCentavos(long id, long valor) {
+        validarPositivo(valor);
+        long[] segmento = segmento(id);
+        int posicao = (int) id & MASCARA_SEGMENTO;
+        synchronized (trava(id)) {
+            long atual = (long) SALDOS.getVolatile(segmento, posicao);
+            if (atual < valor) {
+                throw new RuntimeException("Saldo insuficiente");
+            }
+            SALDOS.setVolatile(segmento, posicao, atual - valor);
+        }
+    }
+
+    public long saldoEmCentavos(long id) {
+        return (long) SALDOS.getVolatile(segmento(id), (int) id & MASCARA_SEGMENTO);
+    }
+
+    public BigDecimal saldo(long id) {
+        return BigDecimal.valueOf(saldoEmCentavos(id), ContaBancariaConcorrente.ESCALA);
+    }
+
+    /**
+     * Preenche {@code destino} com os saldos, em centavos, das contas informadas.
+     */
+    public void saldosEmCentavos(long[] ids, long[] destino) {
+        Objects.requireNonNull(ids);
+        Objects.requireNonNull(destino);
+        if (destino.length < ids.length) {
+            throw new IllegalArgumentException("Destino menor que a quantidade de ids");
+        }
+        for (int i = 0; i < ids.length; i++) {
+            destino[i] = saldoEmCentavos(ids[i]);
+        }
+    }
+
+    /**
+     * Soma os saldos de todas as contas sem bloquear as escritas. Com escritas em andamento,
+     * o resultado pode misturar valores anteriores e posteriores a elas.
+     */
+    public long saldoTotalEmCentavos() {
+        long[][] atuais = segmentos;
+        long quantidade = quantidadeContas;
+        long total = 0;
+
+        for (int s = 0; s < atuais.length && quantidade > 0; s++) {
+            long[] segmento = atuais[s];
+            int limite = (int) Math.min(TAMANHO_SEGMENTO, quantidade);
+            for (int i = 0; i < limite; i++) {
+                total += (long) SALDOS.getVolatile(segmento, i);
+            }
+            quantidade -= limite;
+        }
+        return total;
+    }
+
+    private long[] segmento(long id) {
+        if (id < 0 || id >= quantidadeContas) {
+            throw new IllegalArgumentException("Conta inexistente: " + id);
+        }
+        return segmentos[(int) (id >>> BITS_SEGMENTO)];
+    }
+
+    private Object trava(long id) {
+        return travas[(int) id & mascaraTravas];
+    }
+
+    private static void validarPositivo(long valor) {
+        if (valor <= 0) {
+            throw new IllegalArgumentException("Valor inválido");
+        }
+    }
+}
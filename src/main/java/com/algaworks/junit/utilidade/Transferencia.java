@@ -0,0 +1,41 @@
+package com.algaworks.junit.utilidade;
+
+import java.math.BigDecimal;
+import java.util.Objects;
+
+public class Transferencia {
+
+    private final ContaBancariaConcorrente origem;
+    private final ContaBancariaConcorrente destino;
+    private final long valorEmCentavos;
+
+    public Transferencia(ContaBancariaConcorrente origem, ContaBancariaConcorrente destino, BigDecimal valor) {
+        this(origem, destino, valor == null ? 0 : ContaBancariaConcorrente.paraCentavos(valor));
+    }
+
+    public Transferencia(ContaBancariaConcorrente origem, ContaBancariaConcorrente destino, long valorEmCentavos) {
+        Objects.requireNonNull(origem);
+        Objects.requireNonNull(destino);
+        if (origem == destino) {
+            throw new IllegalArgumentException("Origem e destino devem ser contas diferentes");
+        }
+        if (valorEmCentavos <= 0) {
+            throw new IllegalArgumentException("Valor inválido");
+        }
+        this.origem = origem;
+        this.destino = destino;
+        this.valorEmCentavos = valorEmCentavos;
+    }
+
+    public ContaBancariaConcorrente getOrigem() {
+        return origem;
+    }
+
+    public ContaBancariaConcorrente getDestino() {
+        return destino;
+    }
+
+    public long getValorEmCentavos() {
+        return valorEmCentavos;
+    }
+}
@@ -0,0 +1,58 @@
+package com.algaworks.junit.utilidade;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Transfere valores entre {@link ContaBancariaConcorrente}s sem locks, em duas fases:
+ * o débito na origem (que já verifica o saldo atomicamente) e depois o crédito no destino.
+ * <p>
+ * Como nenhuma conta é bloqueada não há risco de deadlock, e transferências entre pares
+ * de contas distintos não disputam entre si. Entre as duas fases o valor está "em trânsito",
+ * então a soma dos saldos só é garantida quando não há transferências em andamento.
+ */
+public class TransferidorContas {
+
+    private TransferidorContas() {
+
+    }
+
+    public static void transferir(ContaBancariaConcorrente origem, ContaBancariaConcorrente destino, BigDecimal valor) {
+        if (!tentarTransferir(new Transferencia(origem, destino, valor))) {
+            throw new RuntimeException("Saldo insuficiente");
+        }
+    }
+
+    /**
+     * @return false caso a origem não tenha saldo suficiente, sem alterar nenhuma das contas
+     */
+    public static boolean tentarTransferir(Transferencia transferencia) {
+        Objects.requireNonNull(transferencia);
+        long valor = transferencia.getValorEmCentavos();
+
+        if (!transferencia.getOrigem().tentarSaqueEmCentavos(valor)) {
+            return false;
+        }
+        try {
+            transferencia.getDestino().depositoEmCentavos(valor);
+        } catch (RuntimeException e) {
+            transferencia.getOrigem().depositoEmCentavos(valor); //Desfaz o débito
+            throw e;
+        }
+        return true;
+    }
+
+    /**
+     * Executa as transferências em paralelo. Elas são tratadas como independentes,
+     * portanto a ordem da lista não é respeitada.
+     *
+     * @return as transferências recusadas por saldo insuficiente
+     */
+    public static List<Transferencia> transferirEmLote(List<Transferencia> transferencias) {
+        Objects.requireNonNull(transferencias);
+        return transferencias.parallelStream()
+                .filter(transferencia -> !tentarTransferir(transferencia))
+                .toList();
+    }
+}
@@ -0,0 +1,44 @@
+package com.algaworks.junit.blog.modelo;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+class EditorTest {
+
+    OffsetDateTime agora = OffsetDateTime.of(2020, 1, 1, 10, 0, 0, 0, ZoneOffset.UTC);
+
+    @Test
+    void devePreencherDataCriacaoComRelogioInformadoAoCriar() {
+        Editor editor = Editor.builder()
+                .comNome("Alex")
+                .comEmail("alex@email.com")
+                .comValorPagoPorPalavra(BigDecimal.TEN)
+                .comRelogio(() -> agora)
+                .build();
+
+        assertEquals(agora, editor.getDataCriacao());
+    }
+
+    @Test
+    void naoDeveAlterarDataCriacaoAoLer() {
+        OffsetDateTime[] relogio = {agora};
+        Editor editor = new Editor(1L, "Alex", "alex@email.com", BigDecimal.TEN, false, () -> relogio[0]);
+
+        relogio[0] = agora.plusHours(1);
+
+        assertEquals(agora, editor.getDataCriacao());
+    }
+
+    @Test
+    void devePreencherDataCriacaoSemRelogioInformado() {
+        assertNotNull(new Editor("Alex", "alex@email.com", BigDecimal.TEN, false).getDataCriacao());
+        assertNotNull(new Editor().getDataCriacao());
+    }
+
+}
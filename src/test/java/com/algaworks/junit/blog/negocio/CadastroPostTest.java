@@ -7,6 +7,7 @@ import com.algaworks.junit.blog.modelo.Ganhos;
 import com.algaworks.junit.blog.modelo.Notificacao;
 import com.algaworks.junit.blog.modelo.Post;
 import com.algaworks.junit.blog.utilidade.ConversorSlug;
+import com.algaworks.junit.blog.utilidade.Relogio;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -22,6 +23,7 @@ import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
+import java.time.OffsetDateTime;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -50,6 +52,9 @@ class CadastroPostTest {
     @Mock
     GerenciadorNotificacao gerenciadorNotificacao;
 
+    @Mock
+    Relogio relogio;
+
     @InjectMocks
     CadastroPost cadastroPost;
 
@@ -154,6 +159,18 @@ class CadastroPostTest {
                 assertEquals("Novo post criado -> " + post.getTitulo(), notificacao.getConteudo());
             }
 
+            @Test
+            @DisplayName("Então deve gerar notificação com a data do relógio")
+            void entaoDeveGerarNotificacaoComDataDoRelogio() {
+                OffsetDateTime agora = OffsetDateTime.parse("2022-01-01T10:00:00-03:00");
+                when(relogio.agora()).thenReturn(agora);
+
+                cadastroPost.criar(post);
+
+                verify(gerenciadorNotificacao).enviar(notificacaoArgumentCaptor.capture());
+                assertEquals(agora, notificacaoArgumentCaptor.getValue().getOffsetDateTime());
+            }
+
         }
 
         @Nested
@@ -0,0 +1,200 @@
+package com.algaworks.junit.blog.negocio;
+
+import com.algaworks.junit.blog.modelo.Notificacao;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class GerenciadorNotificacaoAgrupadaTest {
+
+    AtomicLong relogio = new AtomicLong();
+    List<Notificacao> assinanteA = new CopyOnWriteArrayList<>();
+    List<Notificacao> assinanteB = new CopyOnWriteArrayList<>();
+    GerenciadorNotificacaoAgrupada gerenciador;
+
+    @BeforeEach
+    void beforeEach() {
+        gerenciador = new GerenciadorNotificacaoAgrupada(3, Duration.ofSeconds(1),
+                List.of(assinanteA::add, assinanteB::add), relogio::get);
+    }
+
+    @AfterEach
+    void afterEach() {
+        gerenciador.close();
+    }
+
+    @Test
+    void Dado_lote_incompleto_Quando_enviar_Entao_nao_deve_entregar() throws InterruptedException {
+        gerenciador.enviar(notificacao("post 1"));
+        gerenciador.enviar(notificacao("post 2"));
+        gerenciador.aguardarEntregas();
+        assertTrue(assinanteA.isEmpty());
+    }
+
+    @Test
+    void Dado_lote_completo_Quando_enviar_Entao_deve_entregar_o_mesmo_resumo_a_todos_os_assinantes() throws InterruptedException {
+        gerenciador.enviar(notificacao("post 1"));
+        gerenciador.enviar(notificacao("post 2"));
+        gerenciador.enviar(notificacao("post 3"));
+        gerenciador.aguardarEntregas();
+
+        assertEquals(1, assinanteA.size());
+        assertEquals("post 1\npost 2\npost 3", assinanteA.get(0).getConteudo());
+        assertSame(assinanteA.get(0), assinanteB.get(0));
+    }
+
+    @Test
+    void Dado_janela_expirada_Quando_descarregar_se_expirado_Entao_deve_entregar_lote_incompleto() throws InterruptedException {
+        gerenciador.enviar(notificacao("post 1"));
+        gerenciador.descarregarSeExpirado();
+        gerenciador.aguardarEntregas();
+        assertTrue(assinanteA.isEmpty());
+
+        relogio.addAndGet(Duration.ofSeconds(1).toNanos());
+        gerenciador.descarregarSeExpirado();
+        gerenciador.aguardarEntregas();
+
+        assertEquals(1, assinanteA.size());
+        assertEquals("post 1", assinanteA.get(0).getConteudo());
+    }
+
+    @Test
+    void Dado_janela_expirada_Quando_enviar_Entao_deve_fechar_lote_com_a_nova_notificacao() throws InterruptedException {
+        gerenciador.enviar(notificacao("post 1"));
+        relogio.addAndGet(Duration.ofSeconds(2).toNanos());
+        gerenciador.enviar(notificacao("post 2"));
+        gerenciador.aguardarEntregas();
+
+        assertEquals(1, assinanteA.size());
+        assertEquals("post 1\npost 2", assinanteA.get(0).getConteudo());
+    }
+
+    @Test
+    void Dado_varios_lotes_Quando_encerrar_Entao_cada_assinante_deve_receber_os_resumos_em_ordem() {
+        for (int i = 1; i <= 7; i++) {
+            gerenciador.enviar(notificacao("post " + i));
+        }
+        gerenciador.close();
+
+        assertEquals(3, assinanteB.size());
+        assertEquals("post 1\npost 2\npost 3", assinanteB.get(0).getConteudo());
+        assertEquals("post 4\npost 5\npost 6", assinanteB.get(1).getConteudo());
+        assertEquals("post 7", assinanteB.get(2).getConteudo());
+    }
+
+    @Test
+    void Dado_assinante_lento_Quando_fechar_lotes_Entao_nao_deve_bloquear_quem_envia_nem_os_outros_assinantes() throws InterruptedException {
+        CountDownLatch liberarLento = new CountDownLatch(1);
+        List<Notificacao> lento = new CopyOnWriteArrayList<>();
+        gerenciador.close();
+        gerenciador = new GerenciadorNotificacaoAgrupada(1, Duration.ofSeconds(1), List.of(notificacao -> {
+            try {
+                liberarLento.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            lento.add(notificacao);
+        }, assinanteA::add), relogio::get);
+
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            for (int i = 1; i <= 100; i++) {
+                gerenciador.enviar(notificacao("post " + i));
+            }
+            while (assinanteA.size() < 100) {
+                TimeUnit.MILLISECONDS.sleep(1);
+            }
+        });
+        assertTrue(lento.isEmpty());
+
+        liberarLento.countDown();
+        gerenciador.close();
+        assertEquals(100, lento.size());
+        assertEquals("post 100", lento.get(99).getConteudo());
+    }
+
+    @Test
+    void Dado_fila_do_assinante_cheia_Quando_fechar_lotes_Entao_deve_descartar_apenas_para_esse_assinante() throws InterruptedException {
+        CountDownLatch entregaIniciada = new CountDownLatch(1);
+        CountDownLatch liberarLento = new CountDownLatch(1);
+        List<Notificacao> lento = new CopyOnWriteArrayList<>();
+        gerenciador.close();
+        gerenciador = new GerenciadorNotificacaoAgrupada(1, Duration.ofSeconds(1), List.of(notificacao -> {
+            entregaIniciada.countDown();
+            try {
+                liberarLento.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            lento.add(notificacao);
+        }, assinanteA::add), 2, relogio::get);
+
+        try {
+            gerenciador.enviar(notificacao("post 1"));
+            entregaIniciada.await();
+            assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+                for (int i = 2; i <= 10; i++) {
+                    gerenciador.enviar(notificacao("post " + i));
+                    while (assinanteA.size() < i) {
+                        TimeUnit.MILLISECONDS.sleep(1);
+                    }
+                }
+            });
+            assertEquals(7, gerenciador.getDescartes());
+        } finally {
+            liberarLento.countDown();
+        }
+        gerenciador.close();
+        assertEquals(List.of("post 1", "post 2", "post 3"),
+                lento.stream().map(Notificacao::getConteudo).collect(Collectors.toList()));
+        assertEquals(10, assinanteA.size());
+    }
+
+    @Test
+    void Dado_capacidade_de_fila_invalida_Quando_criar_Entao_deve_lancar_exception() {
+        assertThrows(IllegalArgumentException.class, () -> new GerenciadorNotificacaoAgrupada(1,
+                Duration.ofSeconds(1), List.of(assinanteA::add), 0));
+    }
+
+    @Test
+    void Dado_assinante_que_falha_Quando_entregar_Entao_deve_contar_falha_e_entregar_aos_demais() {
+        gerenciador.close();
+        gerenciador = new GerenciadorNotificacaoAgrupada(1, Duration.ofSeconds(1), List.of(notificacao -> {
+            throw new RuntimeException();
+        }, assinanteA::add), relogio::get);
+
+        gerenciador.enviar(notificacao("post 1"));
+        gerenciador.enviar(notificacao("post 2"));
+        gerenciador.close();
+
+        assertEquals(2, gerenciador.getFalhas());
+        assertEquals(2, assinanteA.size());
+    }
+
+    @Test
+    void Dado_gerenciador_encerrado_Quando_enviar_Entao_deve_lancar_exception() {
+        gerenciador.close();
+        assertThrows(IllegalStateException.class, () -> gerenciador.enviar(notificacao("tarde demais")));
+    }
+
+    private Notificacao notificacao(String conteudo) {
+        return new Notificacao(OffsetDateTime.now(), conteudo);
+    }
+}
@@ -0,0 +1,177 @@
+package com.algaworks.junit.blog.negocio;
+
+import com.algaworks.junit.blog.modelo.Notificacao;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class GerenciadorNotificacaoAssincronoTest {
+
+    GerenciadorNotificacaoAssincrono gerenciador;
+    List<String> recebidas = new CopyOnWriteArrayList<>();
+    CountDownLatch liberarConsumidor = new CountDownLatch(1);
+    CountDownLatch consumidorIniciou = new CountDownLatch(1);
+
+    GerenciadorNotificacao consumidorBloqueado = notificacao -> {
+        consumidorIniciou.countDown();
+        try {
+            liberarConsumidor.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        recebidas.add(notificacao.getConteudo());
+    };
+
+    @AfterEach
+    void afterEach() {
+        liberarConsumidor.countDown();
+        if (gerenciador != null) {
+            gerenciador.close();
+        }
+    }
+
+    @Test
+    void Dado_varias_notificacoes_Quando_encerrar_Entao_deve_entregar_todas_em_ordem_a_cada_consumidor() {
+        List<String> outroConsumidor = new CopyOnWriteArrayList<>();
+        gerenciador = new GerenciadorNotificacaoAssincrono(8, GerenciadorNotificacaoAssincrono.PoliticaContencao.BLOQUEAR,
+                List.of(notificacao -> recebidas.add(notificacao.getConteudo()),
+                        notificacao -> outroConsumidor.add(notificacao.getConteudo())));
+
+        for (int i = 0; i < 100; i++) {
+            gerenciador.enviar(notificacao(String.valueOf(i)));
+        }
+        gerenciador.close();
+
+        assertEquals(100, recebidas.size());
+        assertEquals("0", recebidas.get(0));
+        assertEquals("99", recebidas.get(99));
+        assertEquals(recebidas, outroConsumidor);
+        assertEquals(200, gerenciador.getMetricas().getEntregues());
+        assertEquals(0, gerenciador.getMetricas().getProfundidadeFila());
+    }
+
+    @Test
+    void Dado_consumidor_lento_e_politica_descartar_Quando_buffer_encher_Entao_nao_deve_bloquear_e_deve_descartar() throws InterruptedException {
+        gerenciador = new GerenciadorNotificacaoAssincrono(2, GerenciadorNotificacaoAssincrono.PoliticaContencao.DESCARTAR,
+                List.of(consumidorBloqueado));
+
+        gerenciador.enviar(notificacao("primeira"));
+        assertTrue(consumidorIniciou.await(5, TimeUnit.SECONDS));
+
+        assertTimeoutPreemptively(java.time.Duration.ofSeconds(5), () -> {
+            for (int i = 0; i < 10; i++) {
+                gerenciador.enviar(notificacao(String.valueOf(i)));
+            }
+        });
+        liberarConsumidor.countDown();
+        gerenciador.close();
+
+        assertEquals(List.of("primeira", "0", "1"), recebidas);
+        assertEquals(8, gerenciador.getMetricas().getDescartadas());
+    }
+
+    @Test
+    void Dado_consumidor_lento_e_politica_agrupar_Quando_buffer_encher_Entao_deve_entregar_apenas_a_mais_recente() throws InterruptedException {
+        gerenciador = new GerenciadorNotificacaoAssincrono(2, GerenciadorNotificacaoAssincrono.PoliticaContencao.AGRUPAR,
+                List.of(consumidorBloqueado));
+
+        gerenciador.enviar(notificacao("primeira"));
+        assertTrue(consumidorIniciou.await(5, TimeUnit.SECONDS));
+
+        for (int i = 0; i < 10; i++) {
+            gerenciador.enviar(notificacao(String.valueOf(i)));
+        }
+        liberarConsumidor.countDown();
+        gerenciador.close();
+
+        assertEquals(List.of("primeira", "0", "1", "9"), recebidas);
+        assertEquals(7, gerenciador.getMetricas().getAgrupadas());
+    }
+
+    @Test
+    void Dado_um_consumidor_que_falha_Quando_enviar_Entao_deve_contar_falha_e_continuar_entregando() {
+        gerenciador = new GerenciadorNotificacaoAssincrono(4, GerenciadorNotificacaoAssincrono.PoliticaContencao.BLOQUEAR,
+                List.of(notificacao -> {
+                    if (notificacao.getConteudo().equals("erro")) {
+                        throw new RuntimeException();
+                    }
+                    recebidas.add(notificacao.getConteudo());
+                }));
+
+        gerenciador.enviar(notificacao("erro"));
+        gerenciador.enviar(notificacao("ok"));
+        gerenciador.close();
+
+        assertEquals(List.of("ok"), recebidas);
+        assertEquals(1, gerenciador.getMetricas().getFalhas());
+    }
+
+    @Test
+    void Dado_capacidade_que_nao_e_potencia_de_dois_Quando_criar_Entao_deve_lancar_exception() {
+        assertThrows(IllegalArgumentException.class, () -> new GerenciadorNotificacaoAssincrono(
+                3, GerenciadorNotificacaoAssincrono.PoliticaContencao.DESCARTAR, List.of()));
+    }
+
+    @Test
+    void Dado_gerenciador_encerrado_Quando_enviar_Entao_deve_lancar_exception() {
+        gerenciador = new GerenciadorNotificacaoAssincrono(2, GerenciadorNotificacaoAssincrono.PoliticaContencao.DESCARTAR, List.of());
+        gerenciador.close();
+        assertThrows(IllegalStateException.class, () -> gerenciador.enviar(notificacao("tarde demais")));
+    }
+
+    @Test
+    void Dado_envios_concorrentes_Quando_encerrar_Entao_toda_notificacao_aceita_deve_ser_entregue() throws InterruptedException {
+        for (int rodada = 0; rodada < 20; rodada++) {
+            List<String> entregues = new CopyOnWriteArrayList<>();
+            List<String> aceitas = new CopyOnWriteArrayList<>();
+            gerenciador = new GerenciadorNotificacaoAssincrono(1024, GerenciadorNotificacaoAssincrono.PoliticaContencao.BLOQUEAR,
+                    List.of(notificacao -> entregues.add(notificacao.getConteudo())));
+            CountDownLatch iniciar = new CountDownLatch(1);
+            List<Thread> produtores = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                int produtor = t;
+                Thread thread = new Thread(() -> {
+                    try {
+                        iniciar.await();
+                        for (int i = 0; i < 200; i++) {
+                            String conteudo = produtor + "-" + i;
+                            gerenciador.enviar(notificacao(conteudo));
+                            aceitas.add(conteudo);
+                        }
+                    } catch (IllegalStateException | InterruptedException e) {
+                        //Encerrado durante o envio
+                    }
+                });
+                thread.start();
+                produtores.add(thread);
+            }
+
+            iniciar.countDown();
+            gerenciador.close();
+            for (Thread produtor : produtores) {
+                produtor.join();
+            }
+
+            assertTrue(new HashSet<>(entregues).containsAll(aceitas), "Rodada " + rodada);
+        }
+    }
+
+    private Notificacao notificacao(String conteudo) {
+        return new Notificacao(OffsetDateTime.now(), conteudo);
+    }
+}
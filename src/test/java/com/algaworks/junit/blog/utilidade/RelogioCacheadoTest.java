@@ -0,0 +1,54 @@
+package com.algaworks.junit.blog.utilidade;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RelogioCacheadoTest {
+
+    AtomicLong millis = new AtomicLong(1_000_000);
+    RelogioCacheado relogio = new RelogioCacheado(Duration.ofMillis(10), ZoneOffset.UTC, millis::get);
+
+    @Test
+    void deveReaproveitarDataDentroDaGranularidade() {
+        OffsetDateTime primeira = relogio.agora();
+        millis.addAndGet(9);
+        assertSame(primeira, relogio.agora());
+    }
+
+    @Test
+    void deveAtualizarDataAposGranularidade() {
+        OffsetDateTime primeira = relogio.agora();
+        millis.addAndGet(10);
+        OffsetDateTime segunda = relogio.agora();
+
+        assertNotSame(primeira, segunda);
+        assertEquals(primeira.plusNanos(Duration.ofMillis(10).toNanos()), segunda);
+    }
+
+    @Test
+    void deveAtualizarDataQuandoRelogioRetroceder() {
+        OffsetDateTime primeira = relogio.agora();
+        millis.addAndGet(-1);
+        assertEquals(primeira.minusNanos(Duration.ofMillis(1).toNanos()), relogio.agora());
+    }
+
+    @Test
+    void criarComGranularidadeZeradaFalha() {
+        assertThrows(IllegalArgumentException.class, () -> new RelogioCacheado(Duration.ZERO));
+    }
+
+    @Test
+    void criarComGranularidadeMenorQueUmMilissegundoFalha() {
+        assertThrows(IllegalArgumentException.class, () -> new RelogioCacheado(Duration.ofNanos(999_999)));
+    }
+
+}
@@ -0,0 +1,70 @@
+package com.algaworks.junit.ecommerce;
+
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class CarrinhoCompactoTest {
+
+    @Test
+    public void Dado_um_carrinho_de_compra_Quando_compactar_Entao_deve_manter_ids_e_quantidades_na_ordem() {
+        Produto notebook = new Produto(7L, "Notebook", "Notebook", BigDecimal.TEN);
+        Produto desktop = new Produto(3L, "Desktop", "Desktop", BigDecimal.ONE);
+        CarrinhoCompra carrinhoCompra = new CarrinhoCompra(new Cliente(1L, "Cliente"),
+                List.of(new ItemCarrinhoCompra(notebook, 2), new ItemCarrinhoCompra(desktop, 5)));
+
+        CarrinhoCompacto compacto = CarrinhoCompacto.de(carrinhoCompra);
+
+        assertEquals(2, compacto.tamanho());
+        assertEquals(7L, compacto.getIdProduto(0));
+        assertEquals(2, compacto.getQuantidade(0));
+        assertEquals(3L, compacto.getIdProduto(1));
+        assertEquals(7, compacto.getQuantidadeTotalDeProdutos());
+    }
+
+    @Test
+    public void Dado_varios_produtos_Quando_alterar_quantidades_Entao_deve_remover_ao_chegar_a_zero() {
+        CarrinhoCompacto carrinho = new CarrinhoCompacto();
+        for (long id = 1; id <= 10; id++) {
+            carrinho.adicionarProduto(id, 1);
+        }
+        carrinho.adicionarProduto(5L, 2);
+        carrinho.aumentarQuantidadeProduto(5L);
+        carrinho.diminuirQuantidadeProduto(1L);
+        carrinho.removerProduto(10L);
+
+        assertEquals(8, carrinho.tamanho());
+        assertEquals(2L, carrinho.getIdProduto(0));
+        assertEquals(4, carrinho.quantidadeDoProduto(5L));
+        assertEquals(0, carrinho.quantidadeDoProduto(1L));
+        assertThrows(RuntimeException.class, () -> carrinho.diminuirQuantidadeProduto(10L));
+        assertThrows(IndexOutOfBoundsException.class, () -> carrinho.getIdProduto(8));
+    }
+
+    @Test
+    public void Dado_quantidade_invalida_Quando_adicionar_Entao_deve_lancar_exception() {
+        assertThrows(IllegalArgumentException.class, () -> new CarrinhoCompacto().adicionarProduto(1L, 0));
+    }
+
+    @Test
+    public void Dado_um_carrinho_Quando_copiar_Entao_deve_ser_igual_e_independente() {
+        CarrinhoCompacto carrinho = new CarrinhoCompacto();
+        carrinho.adicionarProduto(1L, 3);
+        carrinho.adicionarProduto(2L, 1);
+
+        CarrinhoCompacto copia = carrinho.copia();
+        assertEquals(carrinho, copia);
+        assertEquals(carrinho.hashCode(), copia.hashCode());
+        assertTrue(copia.estimarTamanhoEmBytes() < carrinho.estimarTamanhoEmBytes());
+
+        copia.removerProduto(1L);
+        assertEquals(3, carrinho.quantidadeDoProduto(1L));
+    }
+
+}
@@ -0,0 +1,164 @@
+package com.algaworks.junit.ecommerce;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class CarrinhoCompraConcorrenteTest {
+
+    private CarrinhoCompraConcorrente carrinho;
+    private Produto notebook;
+    private Produto desktop;
+
+    @BeforeEach
+    public void beforeEach() {
+        carrinho = new CarrinhoCompraConcorrente(new Cliente(1L, "Cliente"));
+        notebook = new Produto(1L, "Notebook", "Notebook", BigDecimal.TEN);
+        desktop = new Produto(2L, "Desktop", "Desktop", new BigDecimal("20.50"));
+    }
+
+    @Test
+    public void Dado_produtos_adicionados_Quando_consultar_Entao_deve_manter_ordem_e_totais() {
+        carrinho.adicionarProduto(notebook, 2);
+        carrinho.adicionarProduto(desktop, 1);
+        carrinho.adicionarProduto(notebook, 1);
+
+        List<ItemCarrinhoCompra> itens = carrinho.getItens();
+        assertEquals(2, itens.size());
+        assertEquals(notebook, itens.get(0).getProduto());
+        assertEquals(3, itens.get(0).getQuantidade());
+        assertEquals(desktop, itens.get(1).getProduto());
+        assertEquals(4, carrinho.getQuantidadeTotalDeProdutos());
+        assertEquals(new BigDecimal("50.50"), carrinho.getValorTotal());
+    }
+
+    @Test
+    public void Dado_item_com_uma_unidade_Quando_diminuir_Entao_deve_remover_o_item() {
+        carrinho.adicionarProduto(notebook, 1);
+        carrinho.diminuirQuantidadeProduto(notebook);
+
+        assertTrue(carrinho.getItens().isEmpty());
+        assertEquals(0, carrinho.getQuantidadeTotalDeProdutos());
+        assertThrows(RuntimeException.class, () -> carrinho.aumentarQuantidadeProduto(notebook));
+    }
+
+    @Test
+    public void Dado_item_removido_Quando_adicionar_novamente_Entao_deve_ir_para_o_fim() {
+        carrinho.adicionarProduto(notebook, 1);
+        carrinho.adicionarProduto(desktop, 1);
+        carrinho.removerProduto(notebook);
+        carrinho.adicionarProduto(notebook, 2);
+
+        List<ItemCarrinhoCompra> itens = carrinho.getItens();
+        assertEquals(desktop, itens.get(0).getProduto());
+        assertEquals(notebook, itens.get(1).getProduto());
+        assertEquals(new BigDecimal("40.50"), carrinho.getValorTotal());
+    }
+
+    @Test
+    public void Dado_carrinho_com_itens_Quando_esvaziar_Entao_deve_zerar_totais() {
+        carrinho.adicionarProduto(notebook, 2);
+        carrinho.adicionarProduto(desktop, 3);
+        carrinho.esvaziar();
+
+        assertTrue(carrinho.getItens().isEmpty());
+        assertEquals(0, carrinho.getQuantidadeTotalDeProdutos());
+        assertEquals(new BigDecimal("0.00"), carrinho.getValorTotal());
+    }
+
+    @Test
+    public void Dado_quantidade_total_no_limite_Quando_adicionar_Entao_deve_lancar_exception_sem_alterar_o_carrinho() {
+        carrinho.adicionarProduto(notebook, Integer.MAX_VALUE);
+
+        assertThrows(ArithmeticException.class, () -> carrinho.adicionarProduto(desktop, 1));
+        assertThrows(ArithmeticException.class, () -> carrinho.aumentarQuantidadeProduto(notebook));
+
+        assertEquals(1, carrinho.getItens().size());
+        assertEquals(Integer.MAX_VALUE, carrinho.getQuantidadeTotalDeProdutos());
+        assertEquals(BigDecimal.valueOf(Integer.MAX_VALUE).multiply(BigDecimal.TEN).setScale(2), carrinho.getValorTotal());
+        assertThrows(RuntimeException.class, () -> carrinho.aumentarQuantidadeProduto(desktop)); //Linha nova descartada
+
+        carrinho.diminuirQuantidadeProduto(notebook);
+        carrinho.adicionarProduto(desktop, 1);
+        assertEquals(2, carrinho.getItens().size());
+        assertEquals(Integer.MAX_VALUE, carrinho.getQuantidadeTotalDeProdutos());
+    }
+
+    @Test
+    public void Dado_produto_com_mais_de_duas_casas_Quando_adicionar_Entao_deve_lancar_exception() {
+        Produto caneta = new Produto(3L, "Caneta", "Caneta", new BigDecimal("1.999"));
+        assertThrows(IllegalArgumentException.class, () -> carrinho.adicionarProduto(caneta, 1));
+        assertTrue(carrinho.getItens().isEmpty());
+    }
+
+    @Test
+    public void Dado_varias_threads_alterando_o_mesmo_carrinho_Quando_terminarem_Entao_totais_devem_bater_com_itens() throws Exception {
+        int quantidadeThreads = 8;
+        int operacoesPorThread = 20_000;
+        List<Produto> produtos = List.of(notebook, desktop,
+                new Produto(3L, "Tablet", "Tablet", new BigDecimal("30.50")));
+
+        ExecutorService executor = Executors.newFixedThreadPool(quantidadeThreads);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<?>> tarefas = new ArrayList<>();
+        for (int t = 0; t < quantidadeThreads; t++) {
+            tarefas.add(executor.submit(() -> {
+                largada.await();
+                ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+                for (int i = 0; i < operacoesPorThread; i++) {
+                    Produto produto = produtos.get(aleatorio.nextInt(produtos.size()));
+                    try {
+                        switch (aleatorio.nextInt(4)) {
+                            case 0 -> carrinho.adicionarProduto(produto, 1 + aleatorio.nextInt(3));
+                            case 1 -> carrinho.aumentarQuantidadeProduto(produto);
+                            case 2 -> carrinho.diminuirQuantidadeProduto(produto);
+                            default -> {
+                                if (aleatorio.nextInt(50) == 0) {
+                                    carrinho.removerProduto(produto);
+                                }
+                            }
+                        }
+                    } catch (IllegalArgumentException e) {
+                        throw e;
+                    } catch (RuntimeException e) {
+                        //Produto ausente no momento, esperado sob concorrência
+                    }
+                    assertTrue(carrinho.getQuantidadeTotalDeProdutos() >= 0);
+                    assertTrue(carrinho.getValorTotal().signum() >= 0);
+                }
+                return null;
+            }));
+        }
+        largada.countDown();
+        for (Future<?> tarefa : tarefas) {
+            tarefa.get();
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        int quantidadeEsperada = 0;
+        BigDecimal valorEsperado = BigDecimal.ZERO;
+        for (ItemCarrinhoCompra item : carrinho.getItens()) {
+            assertTrue(item.getQuantidade() > 0);
+            quantidadeEsperada += item.getQuantidade();
+            valorEsperado = valorEsperado.add(item.getValorTotal());
+        }
+        assertEquals(quantidadeEsperada, carrinho.getQuantidadeTotalDeProdutos());
+        assertEquals(0, valorEsperado.compareTo(carrinho.getValorTotal()));
+    }
+
+}
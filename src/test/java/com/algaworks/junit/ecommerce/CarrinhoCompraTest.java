@@ -57,6 +57,28 @@ class CarrinhoCompraTest {
                 assertEquals(2, carrinhoCompra.getItens().size()); //Lista permaneceu intacta
             }
 
+            @Test
+            @DisplayName("E deve compartilhar a lista somente leitura até a próxima alteração")
+            void eDeveCompartilharListaSomenteLeitura() {
+                List<ItemCarrinhoCompra> itensSomenteLeitura = carrinhoCompra.getItensSomenteLeitura();
+
+                assertSame(itensSomenteLeitura, carrinhoCompra.getItensSomenteLeitura());
+                assertThrows(UnsupportedOperationException.class, itensSomenteLeitura::clear);
+
+                carrinhoCompra.adicionarProduto(tablet, 1);
+                assertNotSame(itensSomenteLeitura, carrinhoCompra.getItensSomenteLeitura());
+                assertEquals(2, itensSomenteLeitura.size());
+                assertEquals(3, carrinhoCompra.getItensSomenteLeitura().size());
+            }
+
+            @Test
+            @DisplayName("E deve percorrer os itens na ordem de inclusão")
+            void eDevePercorrerItensNaOrdem() {
+                List<Produto> produtos = new ArrayList<>();
+                carrinhoCompra.paraCadaItem(item -> produtos.add(item.getProduto()));
+                assertEquals(List.of(notebook, desktop), produtos);
+            }
+
         }
 
         @Nested
@@ -82,6 +104,44 @@ class CarrinhoCompraTest {
 
         }
 
+        @Nested
+        @DisplayName("Quando alterar a quantidade diretamente no item")
+        class QuandoAlterarQuantidadeNoItem {
+
+            @Test
+            @DisplayName("Então os totais do carrinho devem acompanhar o item")
+            void entaoTotaisDevemAcompanharOItem() {
+                ItemCarrinhoCompra itemNotebook = carrinhoCompra.getItens().get(0);
+
+                itemNotebook.adicionarQuantidade(3);
+                assertEquals(6, carrinhoCompra.getQuantidadeTotalDeProdutos());
+                assertEquals(new BigDecimal("70.5"), carrinhoCompra.getValorTotal());
+
+                itemNotebook.subtrairQuantidade(4);
+                assertEquals(2, carrinhoCompra.getQuantidadeTotalDeProdutos());
+                assertEquals(new BigDecimal("30.5"), carrinhoCompra.getValorTotal());
+            }
+
+            @Test
+            @DisplayName("E um item removido não deve alterar o carrinho")
+            void eItemRemovidoNaoDeveAlterarOCarrinho() {
+                ItemCarrinhoCompra itemNotebook = carrinhoCompra.getItens().get(0);
+                carrinhoCompra.removerProduto(notebook);
+
+                itemNotebook.adicionarQuantidade(3);
+                assertEquals(1, carrinhoCompra.getQuantidadeTotalDeProdutos());
+                assertEquals(new BigDecimal("20.5"), carrinhoCompra.getValorTotal());
+            }
+
+            @Test
+            @DisplayName("E um item recebido no construtor não deve alterar o carrinho")
+            void eItemRecebidoNoConstrutorNaoDeveAlterarOCarrinho() {
+                itens.get(0).adicionarQuantidade(3);
+                assertEquals(3, carrinhoCompra.getQuantidadeTotalDeProdutos());
+            }
+
+        }
+
         @Nested
         @DisplayName("Quando aumentar quantidade de um notebook")
         class QuandoAumentarQuantidade {
@@ -246,5 +306,187 @@ class CarrinhoCompraTest {
 
         }
 
+        @Nested
+        @DisplayName("Quando adicionar, remover e adicionar novamente")
+        class QuandoAdicionarRemoverEAdicionarNovamente {
+
+            @BeforeEach
+            void beforeEach() {
+                carrinhoCompra.adicionarProduto(notebook, 1);
+                carrinhoCompra.adicionarProduto(desktop, 1);
+                carrinhoCompra.adicionarProduto(tablet, 1);
+                carrinhoCompra.removerProduto(desktop);
+                carrinhoCompra.adicionarProduto(desktop, 2);
+            }
+
+            @Test
+            @DisplayName("Então deve manter a ordem de inclusão")
+            void entaoDeveManterOrdemDeInclusao() {
+                List<ItemCarrinhoCompra> itensCarrinho = carrinhoCompra.getItens();
+                assertEquals(notebook, itensCarrinho.get(0).getProduto());
+                assertEquals(tablet, itensCarrinho.get(1).getProduto());
+                assertEquals(desktop, itensCarrinho.get(2).getProduto());
+                assertEquals(2, itensCarrinho.get(2).getQuantidade());
+            }
+
+        }
+
+        @Nested
+        @DisplayName("Quando alterar produtos com valores de escalas diferentes")
+        class QuandoAlterarProdutosComEscalasDiferentes {
+
+            Produto caneta = new Produto(4L, "Caneta", "Caneta", new BigDecimal("1.999"));
+            Produto monitor = new Produto(5L, "Monitor", "Monitor", new BigDecimal("1E+3"));
+
+            @BeforeEach
+            void beforeEach() {
+                carrinhoCompra.adicionarProduto(notebook, 3);
+                carrinhoCompra.adicionarProduto(caneta, 2);
+                carrinhoCompra.adicionarProduto(monitor, 1);
+                carrinhoCompra.aumentarQuantidadeProduto(monitor);
+                carrinhoCompra.diminuirQuantidadeProduto(notebook);
+                carrinhoCompra.removerProduto(caneta);
+                carrinhoCompra.adicionarProduto(desktop, 1);
+            }
+
+            @Test
+            @DisplayName("Então os totais devem ser iguais à soma dos itens")
+            void entaoTotaisDevemSerIguaisASomaDosItens() {
+                BigDecimal somaItens = carrinhoCompra.getItens().stream()
+                        .map(ItemCarrinhoCompra::getValorTotal)
+                        .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+                assertEquals(somaItens, carrinhoCompra.getValorTotal());
+                assertEquals(new BigDecimal("2040.5"), carrinhoCompra.getValorTotal());
+                assertEquals(5, carrinhoCompra.getQuantidadeTotalDeProdutos());
+            }
+
+            @Test
+            @DisplayName("E deve voltar à escala dos itens restantes ao remover o item de maior escala")
+            void eDeveVoltarAEscalaDosItensRestantes() {
+                Produto regua = new Produto(6L, "Régua", "Régua", new BigDecimal("10.000"));
+                carrinhoCompra.esvaziar();
+                carrinhoCompra.adicionarProduto(regua, 1);
+                carrinhoCompra.adicionarProduto(desktop, 1);
+                carrinhoCompra.removerProduto(regua);
+
+                assertEquals(new BigDecimal("20.5"), carrinhoCompra.getValorTotal());
+
+                carrinhoCompra.adicionarProduto(regua, 1);
+                carrinhoCompra.diminuirQuantidadeProduto(regua);
+                assertEquals(new BigDecimal("20.5"), carrinhoCompra.getValorTotal());
+            }
+
+            @Test
+            @DisplayName("E deve zerar os totais ao remover todos os itens")
+            void eDeveZerarTotaisAoRemoverTodosOsItens() {
+                carrinhoCompra.removerProduto(notebook);
+                carrinhoCompra.removerProduto(monitor);
+                carrinhoCompra.diminuirQuantidadeProduto(desktop);
+
+                assertEquals(BigDecimal.ZERO, carrinhoCompra.getValorTotal());
+                assertEquals(0, carrinhoCompra.getQuantidadeTotalDeProdutos());
+            }
+
+        }
+
+        @Nested
+        @DisplayName("Quando adicionar produtos cujos valores não cabem em ponto fixo")
+        class QuandoAdicionarValoresForaDoPontoFixo {
+
+            @Test
+            @DisplayName("Então deve somar com BigDecimal")
+            void entaoDeveSomarComBigDecimal() {
+                Produto preciso = new Produto(4L, "Preciso", "Preciso", new BigDecimal("1.0000000000000000000001"));
+                Produto quaseLimite = new Produto(5L, "Quase", "Quase", new BigDecimal("1.000000000000000001"));
+
+                carrinhoCompra.adicionarProduto(preciso, 1);
+                carrinhoCompra.adicionarProduto(quaseLimite, 10);
+
+                assertEquals(0, new BigDecimal("11.0000000000000000100001").compareTo(carrinhoCompra.getValorTotal()));
+                assertEquals(11, carrinhoCompra.getQuantidadeTotalDeProdutos());
+            }
+
+            @Test
+            @DisplayName("E deve voltar ao ponto fixo ao esvaziar")
+            void eDeveVoltarAoPontoFixoAoEsvaziar() {
+                carrinhoCompra.adicionarProduto(new Produto(4L, "Grande", "Grande", new BigDecimal("1E+30")), 1);
+                assertEquals(0, new BigDecimal("1E+30").compareTo(carrinhoCompra.getValorTotal()));
+
+                carrinhoCompra.esvaziar();
+                carrinhoCompra.adicionarProduto(notebook, 1);
+                assertEquals(BigDecimal.TEN, carrinhoCompra.getValorTotal());
+            }
+
+        }
+
+        @Nested
+        @DisplayName("Quando remover produto que não está no carrinho")
+        class QuandoRemoverProdutoInexistente {
+
+            @Test
+            @DisplayName("Então deve lançar exception")
+            void entaoDeveFalhar() {
+                assertThrows(RuntimeException.class, () -> carrinhoCompra.removerProduto(tablet));
+                assertThrows(RuntimeException.class, () -> carrinhoCompra.aumentarQuantidadeProduto(tablet));
+                assertThrows(RuntimeException.class, () -> carrinhoCompra.diminuirQuantidadeProduto(tablet));
+            }
+
+        }
+
+        @Nested
+        @DisplayName("Quando criar com itens repetidos do mesmo produto")
+        class QuandoCriarComItensRepetidos {
+
+            @BeforeEach
+            void beforeEach() {
+                carrinhoCompra = new CarrinhoCompra(cliente, List.of(
+                        new ItemCarrinhoCompra(notebook, 1),
+                        new ItemCarrinhoCompra(desktop, 1),
+                        new ItemCarrinhoCompra(notebook, 2)));
+            }
+
+            @Test
+            @DisplayName("Então deve agrupar em um único item")
+            void entaoDeveAgruparEmUmUnicoItem() {
+                assertEquals(2, carrinhoCompra.getItens().size());
+                assertEquals(3, carrinhoCompra.getItens().get(0).getQuantidade());
+                assertEquals(4, carrinhoCompra.getQuantidadeTotalDeProdutos());
+            }
+
+            @Test
+            @DisplayName("E não deve alterar os itens recebidos")
+            void eNaoDeveAlterarOsItensRecebidos() {
+                ItemCarrinhoCompra primeiro = new ItemCarrinhoCompra(notebook, 1);
+                carrinhoCompra = new CarrinhoCompra(cliente, List.of(primeiro, new ItemCarrinhoCompra(notebook, 2)));
+                carrinhoCompra.aumentarQuantidadeProduto(notebook);
+
+                assertEquals(1, primeiro.getQuantidade());
+                assertEquals(4, carrinhoCompra.getItens().get(0).getQuantidade());
+            }
+
+        }
+
+        @Nested
+        @DisplayName("Quando comparar com outro carrinho")
+        class QuandoCompararComOutroCarrinho {
+
+            @Test
+            @DisplayName("Então deve ser igual apenas com os mesmos itens na mesma ordem")
+            void entaoDeveSerIgualApenasComOsMesmosItensNaMesmaOrdem() {
+                carrinhoCompra.adicionarProduto(notebook, 2);
+                carrinhoCompra.adicionarProduto(desktop, 1);
+                CarrinhoCompra mesmaOrdem = new CarrinhoCompra(cliente, List.of(
+                        new ItemCarrinhoCompra(notebook, 2), new ItemCarrinhoCompra(desktop, 1)));
+                CarrinhoCompra outraOrdem = new CarrinhoCompra(cliente, List.of(
+                        new ItemCarrinhoCompra(desktop, 1), new ItemCarrinhoCompra(notebook, 2)));
+
+                assertEquals(mesmaOrdem, carrinhoCompra);
+                assertEquals(mesmaOrdem.hashCode(), carrinhoCompra.hashCode());
+                assertNotEquals(outraOrdem, carrinhoCompra);
+            }
+
+        }
+
     }
 }
\ No newline at end of file
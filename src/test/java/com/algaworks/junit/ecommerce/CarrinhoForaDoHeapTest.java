@@ -0,0 +1,136 @@
+package com.algaworks.junit.ecommerce;
+
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class CarrinhoForaDoHeapTest {
+
+    @TempDir
+    Path diretorio;
+
+    Produto notebook = new Produto(1L, "Notebook", "Notebook", BigDecimal.TEN);
+    Produto desktop = new Produto(2L, "Desktop", "Desktop", new BigDecimal("20.50"));
+
+    @Test
+    public void Dado_um_carrinho_de_compra_Quando_converter_Entao_deve_manter_itens_e_totais() {
+        CarrinhoCompra carrinhoCompra = new CarrinhoCompra(new Cliente(1L, "Cliente"),
+                List.of(new ItemCarrinhoCompra(notebook, 2), new ItemCarrinhoCompra(desktop, 1)));
+
+        CarrinhoForaDoHeap carrinho = CarrinhoForaDoHeap.de(carrinhoCompra);
+
+        assertEquals(2, carrinho.tamanho());
+        assertEquals(2L, carrinho.getIdProduto(1));
+        assertEquals(2050, carrinho.getValorUnitarioEmCentavos(1));
+        assertEquals(3, carrinho.getQuantidadeTotalDeProdutos());
+        assertEquals(0, carrinhoCompra.getValorTotal().compareTo(carrinho.getValorTotal()));
+    }
+
+    @Test
+    public void Dado_muitos_itens_Quando_alterar_Entao_deve_crescer_e_manter_a_ordem() {
+        CarrinhoForaDoHeap carrinho = new CarrinhoForaDoHeap();
+        for (long id = 1; id <= 100; id++) {
+            carrinho.adicionarProduto(id, 1, id * 100);
+        }
+        carrinho.adicionarProduto(50L, 2, 1);
+        carrinho.aumentarQuantidadeProduto(50L);
+        carrinho.diminuirQuantidadeProduto(1L);
+        carrinho.removerProduto(2L);
+
+        assertEquals(98, carrinho.tamanho());
+        assertEquals(3L, carrinho.getIdProduto(0));
+        assertEquals(50L, carrinho.getIdProduto(47));
+        assertEquals(4, carrinho.getQuantidade(47));
+        assertEquals(5000, carrinho.getValorUnitarioEmCentavos(47));
+        assertEquals(100L, carrinho.getIdProduto(97));
+        assertThrows(RuntimeException.class, () -> carrinho.removerProduto(2L));
+        assertThrows(IndexOutOfBoundsException.class, () -> carrinho.getQuantidade(98));
+    }
+
+    @Test
+    public void Dado_um_carrinho_Quando_ler_do_buffer_Entao_deve_ser_igual_ao_original() {
+        CarrinhoForaDoHeap carrinho = new CarrinhoForaDoHeap();
+        carrinho.adicionarProduto(notebook, 3);
+        carrinho.adicionarProduto(desktop, 1);
+
+        ByteBuffer buffer = carrinho.comoBuffer();
+        assertTrue(buffer.isReadOnly());
+        assertEquals(CarrinhoForaDoHeap.TAMANHO_CABECALHO + 2 * CarrinhoForaDoHeap.TAMANHO_REGISTRO, buffer.remaining());
+
+        CarrinhoForaDoHeap lido = CarrinhoForaDoHeap.ler(buffer);
+        assertFalse(buffer.hasRemaining());
+        assertEquals(carrinho.comoBuffer(), lido.comoBuffer());
+        assertEquals(new BigDecimal("50.50"), lido.getValorTotal());
+    }
+
+    @Test
+    public void Dado_varios_carrinhos_Quando_gravar_em_arquivo_Entao_deve_ler_na_mesma_ordem() throws IOException {
+        CarrinhoForaDoHeap primeiro = new CarrinhoForaDoHeap();
+        primeiro.adicionarProduto(notebook, 1);
+        CarrinhoForaDoHeap vazio = new CarrinhoForaDoHeap();
+        CarrinhoForaDoHeap terceiro = new CarrinhoForaDoHeap();
+        terceiro.adicionarProduto(desktop, 4);
+
+        Path arquivo = diretorio.resolve("carrinhos.bin");
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            primeiro.escreverEm(canal);
+            vazio.escreverEm(canal);
+            terceiro.escreverEm(canal);
+        }
+
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            assertEquals(primeiro.comoBuffer(), CarrinhoForaDoHeap.ler(canal).comoBuffer());
+            assertEquals(0, CarrinhoForaDoHeap.ler(canal).tamanho());
+            assertEquals(new BigDecimal("82.00"), CarrinhoForaDoHeap.ler(canal).getValorTotal());
+        }
+    }
+
+    @Test
+    public void Dado_um_buffer_incompleto_Quando_ler_Entao_deve_lancar_exception() {
+        ByteBuffer buffer = ByteBuffer.allocate(CarrinhoForaDoHeap.TAMANHO_CABECALHO + 5).putInt(0, 1);
+        assertThrows(IllegalArgumentException.class, () -> CarrinhoForaDoHeap.ler(buffer));
+    }
+
+    @Test
+    public void Dado_um_cabecalho_acima_do_maximo_Quando_ler_do_canal_Entao_deve_lancar_exception_sem_alocar() throws IOException {
+        Path arquivo = diretorio.resolve("corrompido.bin");
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            canal.write(ByteBuffer.allocate(CarrinhoForaDoHeap.TAMANHO_CABECALHO).putInt(0, Integer.MAX_VALUE));
+        }
+
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            assertThrows(IllegalArgumentException.class, () -> CarrinhoForaDoHeap.ler(canal));
+        }
+    }
+
+    @Test
+    public void Dado_um_carrinho_cheio_Quando_adicionar_novo_produto_Entao_deve_lancar_exception() {
+        CarrinhoForaDoHeap carrinho = new CarrinhoForaDoHeap();
+        for (int i = 0; i < CarrinhoForaDoHeap.MAXIMO_ITENS; i++) {
+            carrinho.adicionarProduto(i, 1, 100);
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> carrinho.adicionarProduto(-1L, 1, 100));
+        carrinho.adicionarProduto(0L, 1, 100);
+        assertEquals(CarrinhoForaDoHeap.MAXIMO_ITENS, carrinho.tamanho());
+    }
+
+    @Test
+    public void Dado_produto_com_mais_de_duas_casas_Quando_adicionar_Entao_deve_lancar_exception() {
+        Produto caneta = new Produto(3L, "Caneta", "Caneta", new BigDecimal("1.999"));
+        assertThrows(IllegalArgumentException.class, () -> new CarrinhoForaDoHeap().adicionarProduto(caneta, 1));
+    }
+
+}
@@ -0,0 +1,125 @@
+package com.algaworks.junit.ecommerce;
+
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class CatalogoProdutosTest {
+
+    CatalogoProdutos catalogo = new CatalogoProdutos();
+    Produto notebook = new Produto(1L, "Notebook", "Notebook", BigDecimal.TEN);
+    Produto desktop = new Produto(2L, "Desktop", "Desktop", new BigDecimal("20.50"));
+
+    @Test
+    public void Dado_produto_com_mesmo_id_Quando_internar_Entao_deve_retornar_a_mesma_instancia() {
+        Produto cadastrado = catalogo.internar(notebook);
+        Produto repetido = catalogo.internar(new Produto(1L, "Notebook", "Notebook", BigDecimal.TEN));
+
+        assertSame(notebook, cadastrado);
+        assertSame(notebook, repetido);
+        assertSame(notebook, catalogo.encontrar(1L).orElseThrow());
+        assertTrue(catalogo.encontrar(3L).isEmpty());
+        assertEquals(1000, catalogo.precoEmCentavos(1L));
+    }
+
+    @Test
+    public void Dado_produtos_cadastrados_fora_de_ordem_Quando_consultar_preco_Entao_deve_encontrar_todos() {
+        for (long id = 100; id >= 1; id--) {
+            catalogo.internar(new Produto(id, "Produto", "Produto", BigDecimal.valueOf(id)));
+        }
+        for (long id = 1; id <= 100; id++) {
+            assertEquals(id * 100, catalogo.precoEmCentavos(id));
+        }
+        assertEquals(100, catalogo.getTabelaPrecos().tamanho());
+        assertThrows(RuntimeException.class, () -> catalogo.precoEmCentavos(101L));
+    }
+
+    @Test
+    public void Dado_carrinho_compacto_Quando_atualizar_precos_Entao_total_deve_refletir_novos_precos() {
+        catalogo.internar(notebook);
+        catalogo.internar(desktop);
+        CarrinhoCompacto carrinho = new CarrinhoCompacto();
+        carrinho.adicionarProduto(1L, 2);
+        carrinho.adicionarProduto(2L, 1);
+        assertEquals(new BigDecimal("40.50"), catalogo.valorTotal(carrinho));
+
+        CatalogoProdutos.TabelaPrecos anterior = catalogo.getTabelaPrecos();
+        catalogo.atualizarPrecos(Map.of(1L, new BigDecimal("12.25"), 2L, BigDecimal.valueOf(5)));
+
+        assertEquals(new BigDecimal("29.50"), catalogo.valorTotal(carrinho));
+        assertEquals(new BigDecimal("12.25"), catalogo.preco(1L));
+        assertEquals(1000, anterior.precoEmCentavos(1L)); //Tabelas antigas não mudam
+        assertTrue(catalogo.getTabelaPrecos().getVersao() > anterior.getVersao());
+        assertEquals(BigDecimal.TEN, notebook.getValor());
+    }
+
+    @Test
+    public void Dado_atualizacao_com_preco_invalido_Quando_atualizar_Entao_nenhum_preco_deve_mudar() {
+        catalogo.internar(notebook);
+        catalogo.internar(desktop);
+
+        assertThrows(IllegalArgumentException.class, () -> catalogo.atualizarPrecos(
+                Map.of(1L, BigDecimal.valueOf(50), 2L, new BigDecimal("0.50"))));
+        assertThrows(IllegalArgumentException.class, () -> catalogo.atualizarPrecos(
+                Map.of(1L, BigDecimal.valueOf(50), 3L, BigDecimal.valueOf(5))));
+        assertThrows(IllegalArgumentException.class, () -> catalogo.atualizarPrecos(
+                Map.of(1L, new BigDecimal("1.999"))));
+
+        assertEquals(1000, catalogo.precoEmCentavos(1L));
+        assertEquals(2050, catalogo.precoEmCentavos(2L));
+    }
+
+    @Test
+    public void Dado_muitos_produtos_com_ids_espalhados_Quando_consultar_Entao_deve_encontrar_apenas_os_cadastrados() {
+        for (long i = 0; i < 5_000; i++) {
+            long id = i * 1_048_576 - 1_000_000;
+            catalogo.internar(new Produto(id, "Produto", "Produto", BigDecimal.valueOf(100 + i, 2)));
+        }
+
+        CatalogoProdutos.TabelaPrecos tabela = catalogo.getTabelaPrecos();
+        assertEquals(5_000, tabela.tamanho());
+        for (long i = 0; i < 5_000; i++) {
+            long id = i * 1_048_576 - 1_000_000;
+            assertEquals(100 + i, tabela.precoEmCentavos(id));
+            assertFalse(tabela.contem(id + 1));
+        }
+        assertThrows(RuntimeException.class, () -> tabela.precoEmCentavos(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void Dado_uma_tabela_consultada_Quando_cadastrar_e_atualizar_precos_Entao_deve_manter_os_precos_da_tabela() {
+        catalogo.internar(notebook);
+        CatalogoProdutos.TabelaPrecos anterior = catalogo.getTabelaPrecos();
+
+        for (long id = 2; id <= 1_000; id++) {
+            catalogo.internar(new Produto(id, "Produto", "Produto", BigDecimal.valueOf(id)));
+        }
+        catalogo.atualizarPrecos(Map.of(1L, new BigDecimal("12.25")));
+
+        assertEquals(1, anterior.tamanho());
+        assertEquals(1000, anterior.precoEmCentavos(1L));
+        assertFalse(anterior.contem(2L));
+        assertEquals(1_000, catalogo.getTabelaPrecos().tamanho());
+        assertEquals(1225, catalogo.precoEmCentavos(1L));
+        assertEquals(100_000, catalogo.precoEmCentavos(1_000L));
+    }
+
+    @Test
+    public void Dado_muitos_produtos_Quando_internar_um_a_um_Entao_deve_cadastrar_em_tempo_linear() {
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            for (long id = 0; id < 200_000; id++) {
+                catalogo.internar(new Produto(id, "Produto", "Produto", BigDecimal.ONE));
+            }
+        });
+
+        assertEquals(200_000, catalogo.getTabelaPrecos().tamanho());
+    }
+
+}
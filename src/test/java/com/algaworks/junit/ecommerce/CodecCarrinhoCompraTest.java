@@ -0,0 +1,192 @@
+package com.algaworks.junit.ecommerce;
+
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class CodecCarrinhoCompraTest {
+
+    @TempDir
+    Path diretorio;
+
+    CodecCarrinhoCompra escritor = new CodecCarrinhoCompra();
+    CodecCarrinhoCompra leitor = new CodecCarrinhoCompra();
+    Cliente cliente = new Cliente(-7L, "José da Silva");
+    Produto notebook = new Produto(1L, "Notebook", "Notebook 15\"", BigDecimal.TEN);
+    Produto caneta = new Produto(2L, "Caneta", "Caneta azul", new BigDecimal("1.999"));
+    Produto mesa = new Produto(3L, "Mesa", "Mesa", new BigDecimal("1E+3"));
+
+    @Test
+    public void Dado_um_carrinho_Quando_escrever_e_ler_Entao_deve_ser_igual() {
+        CarrinhoCompra carrinho = new CarrinhoCompra(cliente, List.of(new ItemCarrinhoCompra(notebook, 2),
+                new ItemCarrinhoCompra(caneta, 300), new ItemCarrinhoCompra(mesa, 1)));
+        ByteBuffer buffer = ByteBuffer.allocate(1024);
+
+        escritor.escrever(carrinho, buffer);
+        buffer.flip();
+        CarrinhoCompra lido = leitor.ler(buffer);
+
+        assertFalse(buffer.hasRemaining());
+        assertEquals(cliente, lido.getCliente());
+        assertEquals(carrinho.getItens(), lido.getItens());
+        assertEquals(carrinho.getValorTotal(), lido.getValorTotal());
+    }
+
+    @Test
+    public void Dado_produtos_repetidos_Quando_escrever_varios_carrinhos_Entao_deve_referenciar_os_ja_escritos() {
+        CarrinhoCompra primeiro = new CarrinhoCompra(cliente, List.of(new ItemCarrinhoCompra(notebook, 1)));
+        CarrinhoCompra segundo = new CarrinhoCompra(cliente, List.of(new ItemCarrinhoCompra(notebook, 2)));
+        ByteBuffer buffer = ByteBuffer.allocate(1024);
+
+        escritor.escrever(primeiro, buffer);
+        int tamanhoPrimeiro = buffer.position();
+        escritor.escrever(segundo, buffer);
+        int tamanhoSegundo = buffer.position() - tamanhoPrimeiro;
+        buffer.flip();
+
+        assertTrue(tamanhoSegundo < tamanhoPrimeiro - notebook.getNome().length());
+        Produto lidoPrimeiro = leitor.ler(buffer).getItens().get(0).getProduto();
+        ItemCarrinhoCompra lidoSegundo = leitor.ler(buffer).getItens().get(0);
+        assertSame(lidoPrimeiro, lidoSegundo.getProduto());
+        assertEquals(2, lidoSegundo.getQuantidade());
+    }
+
+    @Test
+    public void Dado_produto_com_valor_alterado_Quando_escrever_novamente_Entao_deve_ler_o_novo_valor() {
+        Produto notebookMaisCaro = new Produto(1L, "Notebook", "Notebook 15\"", BigDecimal.valueOf(12));
+        ByteBuffer buffer = ByteBuffer.allocate(1024);
+
+        escritor.escrever(new CarrinhoCompra(cliente, List.of(new ItemCarrinhoCompra(notebook, 1))), buffer);
+        escritor.escrever(new CarrinhoCompra(cliente, List.of(new ItemCarrinhoCompra(notebookMaisCaro, 1))), buffer);
+        escritor.escrever(new CarrinhoCompra(cliente, List.of(new ItemCarrinhoCompra(notebookMaisCaro, 3))), buffer);
+        buffer.flip();
+
+        assertEquals(BigDecimal.TEN, leitor.ler(buffer).getValorTotal());
+        assertEquals(BigDecimal.valueOf(12), leitor.ler(buffer).getValorTotal());
+        assertEquals(BigDecimal.valueOf(36), leitor.ler(buffer).getValorTotal());
+    }
+
+    @Test
+    public void Dado_buffer_sem_espaco_Quando_escrever_Entao_nao_deve_alterar_buffer_nem_dicionario() {
+        CarrinhoCompra carrinho = new CarrinhoCompra(cliente, List.of(new ItemCarrinhoCompra(notebook, 1)));
+        ByteBuffer pequeno = ByteBuffer.allocate(10);
+
+        assertThrows(BufferOverflowException.class, () -> escritor.escrever(carrinho, pequeno));
+        assertEquals(0, pequeno.position());
+
+        ByteBuffer buffer = ByteBuffer.allocate(1024);
+        escritor.escrever(carrinho, buffer);
+        buffer.flip();
+        assertEquals(carrinho.getItens(), leitor.ler(buffer).getItens()); //Produto escrito completo, não como referência
+    }
+
+    @Test
+    public void Dado_muitos_carrinhos_Quando_gravar_em_arquivo_Entao_deve_ler_todos_em_ordem() throws IOException {
+        Path arquivo = diretorio.resolve("sessao.bin");
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            CarrinhoCompra carrinho = new CarrinhoCompra(cliente);
+            for (long id = 1; id <= 300; id++) {
+                carrinho.adicionarProduto(new Produto(id, "Produto " + id, "Descrição", BigDecimal.valueOf(id)), 1);
+                escritor.escrever(carrinho, canal);
+            }
+        }
+
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            CarrinhoCompra lido = null;
+            int quantidade = 0;
+            for (CarrinhoCompra proximo = leitor.ler(canal); proximo != null; proximo = leitor.ler(canal)) {
+                lido = proximo;
+                quantidade++;
+            }
+            assertEquals(300, quantidade);
+            assertEquals(300, lido.getItens().size());
+            assertEquals(BigDecimal.valueOf(300 * 301 / 2), lido.getValorTotal());
+        }
+    }
+
+    @Test
+    public void Dado_canal_com_falha_Quando_escrever_Entao_nao_deve_alterar_dicionario() throws IOException {
+        CarrinhoCompra carrinho = new CarrinhoCompra(cliente, List.of(new ItemCarrinhoCompra(notebook, 1)));
+        FileChannel fechado = FileChannel.open(diretorio.resolve("fechado.bin"), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        fechado.close();
+
+        assertThrows(IOException.class, () -> escritor.escrever(carrinho, fechado));
+
+        ByteBuffer buffer = ByteBuffer.allocate(1024);
+        escritor.escrever(carrinho, buffer);
+        buffer.flip();
+        assertEquals(carrinho.getItens(), leitor.ler(buffer).getItens()); //Produto escrito completo, não como referência
+    }
+
+    @Test
+    public void Dado_comprimento_acima_do_maximo_Quando_ler_do_canal_Entao_deve_lancar_exception() throws IOException {
+        Path arquivo = diretorio.resolve("corrompido.bin");
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            canal.write(ByteBuffer.allocate(CodecCarrinhoCompra.TAMANHO_COMPRIMENTO).putInt(0, Integer.MAX_VALUE));
+        }
+
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            assertThrows(IllegalArgumentException.class, () -> leitor.ler(canal));
+        }
+    }
+
+    @Test
+    public void Dado_quantidade_de_itens_corrompida_Quando_ler_Entao_deve_lancar_exception() {
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+        buffer.position(CodecCarrinhoCompra.TAMANHO_COMPRIMENTO);
+        buffer.put(CodecCarrinhoCompra.VERSAO);
+        CodecCarrinhoCompra.escreverVarintComSinal(cliente.getId(), buffer);
+        CodecCarrinhoCompra.escreverVarint(0, buffer); //Nome vazio
+        CodecCarrinhoCompra.escreverVarint(Integer.MAX_VALUE, buffer);
+        buffer.putInt(0, buffer.position() - CodecCarrinhoCompra.TAMANHO_COMPRIMENTO);
+        buffer.flip();
+
+        assertThrows(IllegalArgumentException.class, () -> leitor.ler(buffer));
+    }
+
+    @Test
+    public void Dado_versao_desconhecida_Quando_ler_Entao_deve_lancar_exception() {
+        ByteBuffer buffer = ByteBuffer.allocate(1024);
+        escritor.escrever(new CarrinhoCompra(cliente), buffer);
+        buffer.put(CodecCarrinhoCompra.TAMANHO_COMPRIMENTO, (byte) (CodecCarrinhoCompra.VERSAO + 1));
+        buffer.flip();
+
+        assertThrows(IllegalArgumentException.class, () -> leitor.ler(buffer));
+    }
+
+    @Test
+    public void Dado_registro_truncado_Quando_ler_Entao_deve_lancar_exception() {
+        ByteBuffer buffer = ByteBuffer.allocate(1024);
+        escritor.escrever(new CarrinhoCompra(cliente, List.of(new ItemCarrinhoCompra(notebook, 1))), buffer);
+        buffer.flip();
+        buffer.putInt(0, buffer.getInt(0) - 3);
+
+        assertThrows(IllegalArgumentException.class, () -> leitor.ler(buffer));
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = {0, 1, -1, 63, -64, 64, 300, Integer.MAX_VALUE, Long.MAX_VALUE, Long.MIN_VALUE})
+    public void Dado_um_numero_Quando_codificar_varint_Entao_deve_ler_o_mesmo_numero(long numero) {
+        ByteBuffer buffer = ByteBuffer.allocate(10);
+        CodecCarrinhoCompra.escreverVarintComSinal(numero, buffer);
+        buffer.flip();
+        assertEquals(numero, CodecCarrinhoCompra.lerVarintComSinal(buffer));
+        assertFalse(buffer.hasRemaining());
+    }
+
+}
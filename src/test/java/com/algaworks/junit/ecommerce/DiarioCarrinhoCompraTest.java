@@ -0,0 +1,195 @@
+package com.algaworks.junit.ecommerce;
+
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class DiarioCarrinhoCompraTest {
+
+    @TempDir
+    Path diretorio;
+
+    Cliente cliente = new Cliente(1L, "Cliente");
+    Produto notebook = new Produto(1L, "Notebook", "Notebook", BigDecimal.TEN);
+    Produto desktop = new Produto(2L, "Desktop", "Desktop", new BigDecimal("20.50"));
+
+    @Test
+    public void Dado_alteracoes_registradas_Quando_reabrir_Entao_deve_reconstruir_o_carrinho() throws IOException {
+        try (DiarioCarrinhoCompra diario = DiarioCarrinhoCompra.abrir(diretorio, cliente, 100)) {
+            diario.adicionarProduto(notebook, 2);
+            diario.adicionarProduto(desktop, 1);
+            diario.aumentarQuantidadeProduto(desktop);
+            diario.diminuirQuantidadeProduto(notebook);
+            diario.adicionarProduto(notebook, 3);
+            diario.sincronizar();
+        }
+
+        try (DiarioCarrinhoCompra diario = DiarioCarrinhoCompra.abrir(diretorio, cliente, 100)) {
+            CarrinhoCompra carrinho = diario.getCarrinho();
+            assertEquals(5, diario.quantidadeEventos());
+            assertEquals(2, carrinho.getItens().size());
+            assertEquals(notebook, carrinho.getItens().get(0).getProduto());
+            assertEquals(4, carrinho.getItens().get(0).getQuantidade());
+            assertEquals(new BigDecimal("81.00"), carrinho.getValorTotal());
+        }
+    }
+
+    @Test
+    public void Dado_carrinho_grande_Quando_alterar_um_item_Entao_deve_gravar_poucos_bytes() throws IOException {
+        try (DiarioCarrinhoCompra diario = DiarioCarrinhoCompra.abrir(diretorio, cliente, 10_000)) {
+            for (long id = 1; id <= 500; id++) {
+                diario.adicionarProduto(new Produto(id, "Produto " + id, "Descrição do produto", BigDecimal.TEN), 1);
+            }
+            diario.compactar();
+            long antes = Files.size(diretorio.resolve(DiarioCarrinhoCompra.ARQUIVO_EVENTOS));
+
+            diario.aumentarQuantidadeProduto(new Produto(250L, "Produto 250", "Descrição do produto", BigDecimal.TEN));
+
+            long gravados = Files.size(diretorio.resolve(DiarioCarrinhoCompra.ARQUIVO_EVENTOS)) - antes;
+            assertTrue(gravados <= 5, "Bytes gravados: " + gravados);
+        }
+    }
+
+    @Test
+    public void Dado_limite_de_eventos_atingido_Quando_registrar_Entao_deve_compactar() throws IOException {
+        try (DiarioCarrinhoCompra diario = DiarioCarrinhoCompra.abrir(diretorio, cliente, 3)) {
+            diario.adicionarProduto(notebook, 1);
+            diario.adicionarProduto(desktop, 1);
+            assertEquals(2, diario.quantidadeEventos());
+            diario.aumentarQuantidadeProduto(notebook);
+            assertEquals(0, diario.quantidadeEventos());
+            diario.removerProduto(desktop);
+            diario.adicionarProduto(desktop, 2); //Produto deixou o carrinho, mas continua conhecido pelo diário
+        }
+
+        try (DiarioCarrinhoCompra diario = DiarioCarrinhoCompra.abrir(diretorio, cliente, 3)) {
+            assertEquals(2, diario.quantidadeEventos());
+            assertEquals(new BigDecimal("61.00"), diario.getCarrinho().getValorTotal());
+        }
+    }
+
+    @Test
+    public void Dado_compactacao_interrompida_Quando_reabrir_Entao_nao_deve_reaplicar_eventos_do_snapshot() throws IOException {
+        Path eventosAntigos = diretorio.resolve("eventos.antigos");
+        try (DiarioCarrinhoCompra diario = DiarioCarrinhoCompra.abrir(diretorio, cliente, 100)) {
+            diario.adicionarProduto(notebook, 2);
+            Files.copy(diretorio.resolve(DiarioCarrinhoCompra.ARQUIVO_EVENTOS), eventosAntigos);
+            diario.compactar();
+        }
+        //Simula uma falha entre a troca do snapshot e o recomeço do diário
+        Files.move(eventosAntigos, diretorio.resolve(DiarioCarrinhoCompra.ARQUIVO_EVENTOS), StandardCopyOption.REPLACE_EXISTING);
+
+        try (DiarioCarrinhoCompra diario = DiarioCarrinhoCompra.abrir(diretorio, cliente, 100)) {
+            assertEquals(2, diario.getCarrinho().getQuantidadeTotalDeProdutos());
+            assertEquals(0, diario.quantidadeEventos());
+        }
+    }
+
+    @Test
+    public void Dado_ultimo_evento_incompleto_Quando_reabrir_Entao_deve_descartar_apenas_ele() throws IOException {
+        try (DiarioCarrinhoCompra diario = DiarioCarrinhoCompra.abrir(diretorio, cliente, 100)) {
+            diario.adicionarProduto(notebook, 1);
+            diario.adicionarProduto(desktop, 1);
+        }
+        Path arquivo = diretorio.resolve(DiarioCarrinhoCompra.ARQUIVO_EVENTOS);
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.WRITE)) {
+            canal.truncate(canal.size() - 3);
+        }
+
+        try (DiarioCarrinhoCompra diario = DiarioCarrinhoCompra.abrir(diretorio, cliente, 100)) {
+            assertEquals(1, diario.quantidadeEventos());
+            assertEquals(BigDecimal.TEN, diario.getCarrinho().getValorTotal());
+            diario.aumentarQuantidadeProduto(notebook);
+        }
+
+        try (DiarioCarrinhoCompra diario = DiarioCarrinhoCompra.abrir(diretorio, cliente, 100)) {
+            assertEquals(2, diario.getCarrinho().getQuantidadeTotalDeProdutos());
+        }
+    }
+
+    @Test
+    public void Dado_ultimo_evento_zerado_Quando_reabrir_Entao_deve_descartar_apenas_ele() throws IOException {
+        try (DiarioCarrinhoCompra diario = DiarioCarrinhoCompra.abrir(diretorio, cliente, 100)) {
+            diario.adicionarProduto(notebook, 1);
+        }
+        Path arquivo = diretorio.resolve(DiarioCarrinhoCompra.ARQUIVO_EVENTOS);
+        long tamanho = Files.size(arquivo);
+        Files.write(arquivo, new byte[16], StandardOpenOption.APPEND); //Espaço alocado sem os dados de uma gravação interrompida
+
+        try (DiarioCarrinhoCompra diario = DiarioCarrinhoCompra.abrir(diretorio, cliente, 100)) {
+            assertEquals(1, diario.quantidadeEventos());
+            assertEquals(tamanho, Files.size(arquivo));
+        }
+    }
+
+    @Test
+    public void Dado_evento_invalido_no_meio_do_diario_Quando_reabrir_Entao_deve_lancar_exception_sem_truncar() throws IOException {
+        Path arquivo = diretorio.resolve(DiarioCarrinhoCompra.ARQUIVO_EVENTOS);
+        int inicioAumento;
+        try (DiarioCarrinhoCompra diario = DiarioCarrinhoCompra.abrir(diretorio, cliente, 100)) {
+            diario.adicionarProduto(notebook, 1);
+            inicioAumento = (int) Files.size(arquivo);
+            diario.aumentarQuantidadeProduto(notebook);
+            diario.adicionarProduto(desktop, 1);
+        }
+        byte[] bytes = Files.readAllBytes(arquivo);
+        bytes[inicioAumento + 1] = 99; //Tipo desconhecido, logo depois do comprimento
+        Files.write(arquivo, bytes);
+
+        assertThrows(IllegalArgumentException.class, () -> DiarioCarrinhoCompra.abrir(diretorio, cliente, 100));
+        assertEquals(bytes.length, Files.size(arquivo));
+    }
+
+    @Test
+    public void Dado_alteracao_invalida_Quando_registrar_Entao_nao_deve_gravar_evento() throws IOException {
+        try (DiarioCarrinhoCompra diario = DiarioCarrinhoCompra.abrir(diretorio, cliente, 100)) {
+            long tamanho = Files.size(diretorio.resolve(DiarioCarrinhoCompra.ARQUIVO_EVENTOS));
+            assertThrows(RuntimeException.class, () -> diario.removerProduto(notebook));
+            assertThrows(IllegalArgumentException.class, () -> diario.adicionarProduto(notebook, 0));
+            assertEquals(0, diario.quantidadeEventos());
+            assertEquals(tamanho, Files.size(diretorio.resolve(DiarioCarrinhoCompra.ARQUIVO_EVENTOS)));
+
+            diario.adicionarProduto(notebook, 1);
+        }
+
+        try (DiarioCarrinhoCompra diario = DiarioCarrinhoCompra.abrir(diretorio, cliente, 100)) {
+            assertEquals(1, diario.quantidadeEventos());
+            assertEquals(BigDecimal.TEN, diario.getCarrinho().getValorTotal());
+        }
+    }
+
+    @Test
+    public void Dado_falha_na_gravacao_Quando_registrar_Entao_nao_deve_alterar_o_carrinho() throws IOException {
+        DiarioCarrinhoCompra diario = DiarioCarrinhoCompra.abrir(diretorio, cliente, 100);
+        diario.adicionarProduto(notebook, 1);
+        diario.close();
+
+        assertThrows(IOException.class, () -> diario.adicionarProduto(desktop, 1));
+        assertThrows(IOException.class, () -> diario.aumentarQuantidadeProduto(notebook));
+        assertEquals(1, diario.getCarrinho().getQuantidadeTotalDeProdutos());
+        assertEquals(BigDecimal.TEN, diario.getCarrinho().getValorTotal());
+    }
+
+    @Test
+    public void Dado_diario_de_outro_cliente_Quando_abrir_Entao_deve_lancar_exception() throws IOException {
+        try (DiarioCarrinhoCompra diario = DiarioCarrinhoCompra.abrir(diretorio, cliente, 100)) {
+            diario.adicionarProduto(notebook, 1);
+            diario.compactar();
+        }
+        assertThrows(IllegalArgumentException.class,
+                () -> DiarioCarrinhoCompra.abrir(diretorio, new Cliente(2L, "Outro"), 100));
+    }
+
+}
@@ -0,0 +1,115 @@
+package com.algaworks.junit.ecommerce;
+
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class PrecificadorCarrinhosTest {
+
+    Cliente cliente = new Cliente(1L, "Cliente");
+
+    @Test
+    public void Dado_carrinhos_com_escalas_diferentes_Quando_precificar_Entao_deve_usar_escala_comum() {
+        Produto notebook = new Produto(1L, "Notebook", "Notebook", BigDecimal.TEN);
+        Produto caneta = new Produto(2L, "Caneta", "Caneta", new BigDecimal("1.999"));
+        Produto mesa = new Produto(3L, "Mesa", "Mesa", new BigDecimal("1E+3"));
+
+        List<CarrinhoCompra> carrinhos = List.of(
+                new CarrinhoCompra(cliente, List.of(new ItemCarrinhoCompra(notebook, 2), new ItemCarrinhoCompra(caneta, 1))),
+                new CarrinhoCompra(cliente),
+                new CarrinhoCompra(cliente, List.of(new ItemCarrinhoCompra(mesa, 1))));
+
+        PrecificadorCarrinhos.TotaisCarrinhos totais = PrecificadorCarrinhos.precificar(carrinhos);
+
+        assertEquals(3, totais.quantidade());
+        assertEquals(3, totais.getEscala());
+        assertEquals(new BigDecimal("21.999"), totais.getValorTotal(0));
+        assertEquals(0, totais.getValorTotalNaoEscalado(1));
+        assertEquals(BigDecimal.ZERO, totais.getValorTotal(1));
+        assertEquals(new BigDecimal("1000"), totais.getValorTotal(2));
+    }
+
+    @Test
+    public void Dado_produtos_com_mesmo_id_e_valores_diferentes_Quando_precificar_Entao_cada_carrinho_usa_o_seu_valor() {
+        Produto antigo = new Produto(1L, "Notebook", "Notebook", BigDecimal.TEN);
+        Produto atual = new Produto(1L, "Notebook", "Notebook", BigDecimal.valueOf(12));
+
+        PrecificadorCarrinhos.TotaisCarrinhos totais = PrecificadorCarrinhos.precificar(List.of(
+                new CarrinhoCompra(cliente, List.of(new ItemCarrinhoCompra(antigo, 1))),
+                new CarrinhoCompra(cliente, List.of(new ItemCarrinhoCompra(atual, 1))),
+                new CarrinhoCompra(cliente, List.of(new ItemCarrinhoCompra(antigo, 2)))));
+
+        assertEquals(BigDecimal.TEN, totais.getValorTotal(0));
+        assertEquals(BigDecimal.valueOf(12), totais.getValorTotal(1));
+        assertEquals(BigDecimal.valueOf(20), totais.getValorTotal(2));
+    }
+
+    @Test
+    public void Dado_carrinhos_fora_do_ponto_fixo_Quando_precificar_Entao_apenas_eles_devem_usar_BigDecimal() {
+        Produto notebook = new Produto(1L, "Notebook", "Notebook", BigDecimal.TEN);
+        Produto precisao = new Produto(2L, "Precisão", "Precisão", new BigDecimal("1.000000000000000001"));
+        Produto caro = new Produto(3L, "Caro", "Caro", BigDecimal.valueOf(Long.MAX_VALUE / 2));
+
+        PrecificadorCarrinhos.TotaisCarrinhos totais = PrecificadorCarrinhos.precificar(List.of(
+                new CarrinhoCompra(cliente, List.of(new ItemCarrinhoCompra(notebook, 2))),
+                new CarrinhoCompra(cliente, List.of(new ItemCarrinhoCompra(precisao, 1), new ItemCarrinhoCompra(notebook, 1))),
+                new CarrinhoCompra(cliente, List.of(new ItemCarrinhoCompra(caro, 3)))));
+
+        assertEquals(0, totais.getEscala());
+        assertTrue(totais.emPontoFixo(0));
+        assertEquals(20, totais.getValorTotalNaoEscalado(0));
+        assertFalse(totais.emPontoFixo(1));
+        assertEquals(new BigDecimal("11.000000000000000001"), totais.getValorTotal(1));
+        assertThrows(ArithmeticException.class, () -> totais.getValorTotalNaoEscalado(1));
+        assertFalse(totais.emPontoFixo(2));
+        assertEquals(BigDecimal.valueOf(Long.MAX_VALUE / 2).multiply(BigDecimal.valueOf(3)), totais.getValorTotal(2));
+    }
+
+    @Test
+    public void Dado_muitos_carrinhos_Quando_precificar_em_paralelo_Entao_deve_ser_igual_ao_total_de_cada_carrinho() {
+        Random aleatorio = new Random(42);
+        List<Produto> produtos = new ArrayList<>();
+        for (long id = 1; id <= 200; id++) {
+            produtos.add(new Produto(id, "Produto", "Produto", BigDecimal.valueOf(100 + aleatorio.nextInt(100_000), 2)));
+        }
+        List<CarrinhoCompra> carrinhos = new ArrayList<>();
+        for (int c = 0; c < PrecificadorCarrinhos.LIMIAR_PARALELO * 4; c++) {
+            CarrinhoCompra carrinho = new CarrinhoCompra(cliente);
+            for (int i = aleatorio.nextInt(20); i > 0; i--) {
+                carrinho.adicionarProduto(produtos.get(aleatorio.nextInt(produtos.size())), 1 + aleatorio.nextInt(5));
+            }
+            carrinhos.add(carrinho);
+        }
+
+        PrecificadorCarrinhos.TotaisCarrinhos totais = PrecificadorCarrinhos.precificar(carrinhos);
+
+        for (int c = 0; c < carrinhos.size(); c++) {
+            assertEquals(carrinhos.get(c).getValorTotal(), totais.getValorTotal(c), "Carrinho " + c);
+        }
+    }
+
+    @Test
+    public void Dado_carrinhos_compactos_Quando_precificar_com_tabela_Entao_deve_retornar_centavos() {
+        CatalogoProdutos catalogo = new CatalogoProdutos();
+        catalogo.internar(new Produto(1L, "Notebook", "Notebook", BigDecimal.TEN));
+        catalogo.internar(new Produto(2L, "Desktop", "Desktop", new BigDecimal("20.50")));
+        CarrinhoCompacto primeiro = new CarrinhoCompacto();
+        primeiro.adicionarProduto(1L, 2);
+        primeiro.adicionarProduto(2L, 1);
+        CarrinhoCompacto segundo = new CarrinhoCompacto();
+        segundo.adicionarProduto(2L, 3);
+
+        long[] totais = PrecificadorCarrinhos.precificar(List.of(primeiro, segundo), catalogo.getTabelaPrecos());
+
+        assertArrayEquals(new long[]{4050, 6150}, totais);
+    }
+
+}
@@ -0,0 +1,124 @@
+package com.algaworks.junit.ecommerce;
+
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class RepositorioCarrinhosTest {
+
+    AtomicLong relogio = new AtomicLong();
+    RepositorioCarrinhos repositorio = new RepositorioCarrinhos(4, Duration.ofNanos(100), relogio::get);
+    Cliente cliente = new Cliente(1L, "Cliente");
+
+    @Test
+    public void Dado_produtos_adicionados_Quando_encontrar_Entao_deve_retornar_copia_do_carrinho() {
+        repositorio.adicionarProduto(cliente, 10L, 2);
+        repositorio.adicionarProduto(cliente, 20L, 1);
+        repositorio.diminuirQuantidadeProduto(cliente, 10L);
+
+        CarrinhoCompacto carrinho = repositorio.encontrar(cliente).orElseThrow();
+        assertEquals(1, carrinho.quantidadeDoProduto(10L));
+        assertEquals(1, carrinho.quantidadeDoProduto(20L));
+
+        carrinho.removerProduto(20L);
+        assertEquals(1, repositorio.encontrar(cliente).orElseThrow().quantidadeDoProduto(20L));
+    }
+
+    @Test
+    public void Dado_cliente_sem_carrinho_Quando_alterar_Entao_deve_lancar_exception() {
+        assertTrue(repositorio.encontrar(cliente).isEmpty());
+        assertThrows(RuntimeException.class, () -> repositorio.removerProduto(cliente, 10L));
+        assertFalse(repositorio.remover(cliente));
+    }
+
+    @Test
+    public void Dado_carrinho_ocioso_Quando_encontrar_Entao_deve_estar_expirado() {
+        repositorio.adicionarProduto(cliente, 10L, 1);
+        relogio.set(99);
+        assertTrue(repositorio.encontrar(cliente).isPresent()); //Renova o acesso
+        relogio.set(198);
+        assertTrue(repositorio.encontrar(cliente).isPresent());
+        relogio.set(298);
+        assertTrue(repositorio.encontrar(cliente).isEmpty());
+        assertEquals(0, repositorio.quantidadeCarrinhos());
+    }
+
+    @Test
+    public void Dado_muitos_carrinhos_Quando_expirar_ociosos_Entao_deve_manter_apenas_os_acessados() {
+        for (long id = 1; id <= 1_000; id++) {
+            repositorio.adicionarProduto(new Cliente(id, "Cliente"), id, 1);
+        }
+        relogio.set(50);
+        for (long id = 2; id <= 1_000; id += 2) {
+            repositorio.adicionarProduto(new Cliente(id, "Cliente"), id, 1);
+        }
+        relogio.set(120);
+
+        assertEquals(500, repositorio.expirarOciosos());
+        assertEquals(500, repositorio.quantidadeCarrinhos());
+        for (long id = 1; id <= 1_000; id++) {
+            assertEquals(id % 2 == 0, repositorio.encontrar(new Cliente(id, "Cliente")).isPresent(), "Cliente " + id);
+        }
+    }
+
+    @Test
+    public void Dado_carrinhos_removidos_Quando_encontrar_os_demais_Entao_devem_continuar_acessiveis() {
+        for (long id = 1; id <= 200; id++) {
+            repositorio.adicionarProduto(new Cliente(id, "Cliente"), 1L, (int) id);
+        }
+        for (long id = 1; id <= 200; id += 3) {
+            assertTrue(repositorio.remover(new Cliente(id, "Cliente")));
+        }
+        for (long id = 1; id <= 200; id++) {
+            boolean removido = (id - 1) % 3 == 0;
+            assertEquals(removido ? 0 : (int) id, repositorio.encontrar(new Cliente(id, "Cliente"))
+                    .map(carrinho -> carrinho.quantidadeDoProduto(1L)).orElse(0));
+        }
+    }
+
+    @Test
+    public void Dado_carrinhos_salvos_Quando_medir_memoria_Entao_deve_reportar_media_por_carrinho() {
+        assertEquals(0, repositorio.memoriaMediaPorCarrinhoEmBytes());
+
+        CarrinhoCompacto carrinho = new CarrinhoCompacto();
+        IntStream.rangeClosed(1, 50).forEach(id -> carrinho.adicionarProduto(id, 1));
+        for (long id = 1; id <= 100; id++) {
+            repositorio.salvar(new Cliente(id, "Cliente"), carrinho);
+        }
+
+        long media = repositorio.memoriaMediaPorCarrinhoEmBytes();
+        assertTrue(media >= carrinho.copia().estimarTamanhoEmBytes(), "Média: " + media);
+        assertTrue(media < 1_000, "Média: " + media);
+        assertEquals(media * 100, repositorio.memoriaEstimadaEmBytes(), 100);
+    }
+
+    @Test
+    public void Dado_mais_de_65_mil_carrinhos_por_shard_Quando_salvar_Entao_deve_manter_tempo_linear() {
+        RepositorioCarrinhos grande = new RepositorioCarrinhos(8, Duration.ofDays(1), relogio::get);
+        CarrinhoCompacto carrinho = new CarrinhoCompacto();
+        carrinho.adicionarProduto(10L, 1);
+        int quantidade = 8 * 100_000;
+
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            for (long id = 1; id <= quantidade; id++) {
+                grande.salvar(new Cliente(id, "Cliente"), carrinho);
+            }
+        });
+
+        assertEquals(quantidade, grande.quantidadeCarrinhos());
+        assertTrue(grande.encontrar(new Cliente((long) quantidade, "Cliente")).isPresent());
+    }
+
+    @Test
+    public void Dado_quantidade_de_shards_invalida_Quando_criar_Entao_deve_lancar_exception() {
+        assertThrows(IllegalArgumentException.class, () -> new RepositorioCarrinhos(0, Duration.ofMinutes(30)));
+    }
+
+}
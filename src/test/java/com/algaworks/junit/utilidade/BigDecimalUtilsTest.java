@@ -5,7 +5,12 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvFileSource;
 import org.junit.jupiter.params.provider.CsvSource;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -26,4 +31,79 @@ class BigDecimalUtilsTest {
         assertFalse(BigDecimalUtils.iguais(x, y));
     }
 
-}
\ No newline at end of file
+    @ParameterizedTest
+    @CsvSource({
+            "10.00,10",
+            "9.00,9.00",
+            "-1.5,-1.50",
+            "0,0.000",
+            "0.000,-0",
+            "10.10,10",
+            "9,9.01",
+            "1,-1",
+            "1,0.0000000000000000000001",
+            "922337203685477580,922337203685477580.0",
+            "9223372036854775807,922337203685477580.7",
+            "92233720368547758.07,922337203685477580.7"
+    })
+    void iguaisSemAlocacaoTemMesmoResultadoQueBigDecimal(BigDecimal x, BigDecimal y) {
+        boolean esperado = BigDecimalUtils.iguais(x, y);
+        assertEquals(esperado, BigDecimalUtils.iguais(
+                x.unscaledValue().longValueExact(), x.scale(), y.unscaledValue().longValueExact(), y.scale()));
+        assertEquals(esperado, BigDecimalUtils.iguais(
+                y.unscaledValue().longValueExact(), y.scale(), x.unscaledValue().longValueExact(), x.scale()));
+    }
+
+    @Test
+    void iguaisSemAlocacaoComEscalasExtremasNaoFalha() {
+        assertFalse(BigDecimalUtils.iguais(1, Integer.MIN_VALUE, 1, 5));
+        assertFalse(BigDecimalUtils.iguais(1, 5, 1, Integer.MIN_VALUE));
+        assertFalse(BigDecimalUtils.iguais(1, Integer.MAX_VALUE, 1, Integer.MIN_VALUE));
+        assertTrue(BigDecimalUtils.iguais(0, Integer.MIN_VALUE, 0, Integer.MAX_VALUE));
+    }
+
+    @Test
+    void posicoesIguaisEntreColunasLidasDoCsv() throws IOException {
+        String csv = "10.00,10\n9,9.01\r\n-2.5,-2.50\n\n0.1,0.10\n";
+        ColunaDecimal[] colunas = LeitorCsvDecimal.ler(
+                Channels.newChannel(new ByteArrayInputStream(csv.getBytes(StandardCharsets.US_ASCII))), 2);
+
+        assertEquals(4, colunas[0].tamanho());
+        assertEquals(new BigDecimal("-2.50"), colunas[1].valor(2));
+        assertArrayEquals(new int[]{0, 2, 3}, BigDecimalUtils.posicoesIguais(colunas[0], colunas[1]).posicoes());
+    }
+
+    @Test
+    void posicoesIguaisNoArquivoDeNumerosDiferentes() throws IOException {
+        try (InputStream arquivo = getClass().getResourceAsStream("/numeros.csv")) {
+            ColunaDecimal[] colunas = LeitorCsvDecimal.ler(Channels.newChannel(arquivo), 2);
+
+            assertEquals(2, colunas[0].tamanho());
+            assertEquals(0, BigDecimalUtils.posicoesIguais(colunas[0], colunas[1]).cardinalidade());
+        }
+    }
+
+    @Test
+    void lerCsvAceitaEspacosApenasEmVoltaDoValor() throws IOException {
+        ColunaDecimal[] colunas = LeitorCsvDecimal.ler(
+                Channels.newChannel(new ByteArrayInputStream(" 1.5 , -2 \r\n".getBytes(StandardCharsets.US_ASCII))), 2);
+        assertEquals(new BigDecimal("1.5"), colunas[0].valor(0));
+        assertEquals(new BigDecimal("-2"), colunas[1].valor(0));
+
+        for (String csv : new String[]{"1 2,3\n", "1,- 2\n", "1,2. 5\n", "1,2\r3\n"}) {
+            assertThrows(IllegalArgumentException.class, () -> LeitorCsvDecimal.ler(
+                    Channels.newChannel(new ByteArrayInputStream(csv.getBytes(StandardCharsets.US_ASCII))), 2), csv);
+        }
+    }
+
+    @Test
+    void lerCsvComQuantidadeDeColunasIncorretaFalha() {
+        assertThrows(IllegalArgumentException.class, () -> LeitorCsvDecimal.ler(
+                Channels.newChannel(new ByteArrayInputStream("1,2,3\n".getBytes(StandardCharsets.US_ASCII))), 2));
+        assertThrows(IllegalArgumentException.class, () -> LeitorCsvDecimal.ler(
+                Channels.newChannel(new ByteArrayInputStream("1\n".getBytes(StandardCharsets.US_ASCII))), 2));
+        assertThrows(IllegalArgumentException.class, () -> LeitorCsvDecimal.ler(
+                Channels.newChannel(new ByteArrayInputStream("1,a\n".getBytes(StandardCharsets.US_ASCII))), 2));
+    }
+
+}
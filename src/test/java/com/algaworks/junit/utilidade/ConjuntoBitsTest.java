@@ -0,0 +1,67 @@
+package com.algaworks.junit.utilidade;
+
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class ConjuntoBitsTest {
+
+    int[] numeros = IntStream.rangeClosed(-70, 69).toArray();
+
+    @Test
+    public void Dado_um_array_de_numeros_Quando_marcar_pares_Entao_deve_conter_apenas_posicoes_de_pares() {
+        ConjuntoBits pares = FiltroNumeros.posicoesPares(numeros);
+
+        assertEquals(numeros.length, pares.tamanho());
+        assertEquals(70, pares.cardinalidade());
+        assertTrue(pares.contem(0));
+        assertFalse(pares.contem(1));
+        assertTrue(pares.contem(138));
+    }
+
+    @Test
+    public void Dado_pares_e_positivos_Quando_combinar_Entao_deve_retornar_intersecao_e_uniao() {
+        ConjuntoBits pares = FiltroNumeros.posicoesPares(numeros);
+        ConjuntoBits positivos = FiltroNumeros.posicoesPositivos(numeros);
+
+        int[] paresPositivos = IntStream.of(pares.e(positivos).posicoes()).map(posicao -> numeros[posicao]).toArray();
+        assertArrayEquals(FiltroNumeros.numerosPares(FiltroNumeros.numerosPositivos(numeros)), paresPositivos);
+        assertEquals(70 + 35, pares.ou(positivos).cardinalidade());
+        assertEquals(FiltroNumeros.posicoesImpares(numeros).cardinalidade(), numeros.length - pares.cardinalidade());
+    }
+
+    @Test
+    public void Dado_um_conjunto_Quando_percorrer_Entao_deve_visitar_posicoes_em_ordem() {
+        ConjuntoBits conjunto = new ConjuntoBits(200);
+        conjunto.adicionar(3);
+        conjunto.adicionar(64);
+        conjunto.adicionar(199);
+
+        List<Integer> visitadas = new ArrayList<>();
+        conjunto.paraCadaPosicao(visitadas::add);
+
+        assertEquals(List.of(3, 64, 199), visitadas);
+        assertEquals(3, conjunto.proximaPosicao(0));
+        assertEquals(64, conjunto.proximaPosicao(4));
+        assertEquals(199, conjunto.proximaPosicao(65));
+        assertEquals(-1, conjunto.proximaPosicao(200));
+    }
+
+    @Test
+    public void Dado_conjuntos_de_tamanhos_diferentes_Quando_combinar_Entao_deve_lancar_exception() {
+        assertThrows(IllegalArgumentException.class, () -> new ConjuntoBits(10).e(new ConjuntoBits(11)));
+    }
+
+    @Test
+    public void Dado_posicao_fora_do_conjunto_Quando_adicionar_Entao_deve_lancar_exception() {
+        assertThrows(IndexOutOfBoundsException.class, () -> new ConjuntoBits(10).adicionar(10));
+    }
+
+}
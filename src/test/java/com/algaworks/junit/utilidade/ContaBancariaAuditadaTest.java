@@ -0,0 +1,56 @@
+package com.algaworks.junit.utilidade;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContaBancariaAuditadaTest {
+
+    @TempDir
+    Path diretorio;
+
+    @Test
+    void saqueEDepositoSobrevivemAReabertura() throws IOException {
+        try (ContaBancariaAuditada conta = ContaBancariaAuditada.abrir(diretorio, new BigDecimal("70.00"))) {
+            conta.saque(new BigDecimal("50.01"));
+            conta.deposito(BigDecimal.TEN);
+        }
+
+        try (ContaBancariaAuditada conta = ContaBancariaAuditada.abrir(diretorio, BigDecimal.ZERO)) {
+            assertEquals(new BigDecimal("29.99"), conta.saldo());
+        }
+    }
+
+    @Test
+    void saqueComValorMaiorFalhaSemRegistrar() throws IOException {
+        try (ContaBancariaAuditada conta = ContaBancariaAuditada.abrir(diretorio, BigDecimal.TEN)) {
+            assertThrows(RuntimeException.class, () -> conta.saque(new BigDecimal("20.0")));
+            assertEquals(new BigDecimal("10.00"), conta.saldo());
+        }
+    }
+
+    @Test
+    void valoresInvalidosFalham() throws IOException {
+        assertThrows(IllegalArgumentException.class, () -> ContaBancariaAuditada.abrir(diretorio, null));
+        try (ContaBancariaAuditada conta = ContaBancariaAuditada.abrir(diretorio, BigDecimal.TEN)) {
+            assertThrows(IllegalArgumentException.class, () -> conta.deposito(null));
+            assertThrows(IllegalArgumentException.class, () -> conta.saque(BigDecimal.ZERO));
+        }
+    }
+
+    @Test
+    void saldoEmInstanteAnteriorAosLancamentos() throws IOException {
+        try (ContaBancariaAuditada conta = ContaBancariaAuditada.abrir(diretorio, BigDecimal.TEN)) {
+            conta.deposito(BigDecimal.TEN);
+            assertEquals(new BigDecimal("10.00"), conta.saldoEm(Instant.EPOCH));
+            assertEquals(new BigDecimal("20.00"), conta.saldoEm(Instant.now().plusSeconds(60)));
+        }
+    }
+
+}
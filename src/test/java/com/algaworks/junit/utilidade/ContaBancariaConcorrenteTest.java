@@ -0,0 +1,125 @@
+package com.algaworks.junit.utilidade;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContaBancariaConcorrenteTest {
+
+    @Nested
+    class Operacoes {
+
+        @Test
+        void saque() {
+            ContaBancariaConcorrente conta = new ContaBancariaConcorrente(new BigDecimal("70.00"));
+            conta.saque(new BigDecimal("50.01"));
+            assertEquals(new BigDecimal("19.99"), conta.saldo());
+        }
+
+        @Test
+        void saqueComValorMaiorFalhaSemAlterarSaldo() {
+            ContaBancariaConcorrente conta = new ContaBancariaConcorrente(BigDecimal.TEN);
+            assertThrows(RuntimeException.class, () -> conta.saque(new BigDecimal("20.0")));
+            assertEquals(new BigDecimal("10.00"), conta.saldo());
+        }
+
+        @Test
+        void saqueComValorIgualNaoFalha() {
+            ContaBancariaConcorrente conta = new ContaBancariaConcorrente(BigDecimal.TEN);
+            conta.saque(new BigDecimal("10.00"));
+            assertEquals(new BigDecimal("0.00"), conta.saldo());
+        }
+
+        @Test
+        void deposito() {
+            ContaBancariaConcorrente conta = new ContaBancariaConcorrente(BigDecimal.TEN);
+            conta.deposito(BigDecimal.TEN);
+            assertEquals(new BigDecimal("20.00"), conta.saldo());
+        }
+
+        @Test
+        void valoresInvalidosFalham() {
+            ContaBancariaConcorrente conta = new ContaBancariaConcorrente(BigDecimal.TEN);
+            assertThrows(IllegalArgumentException.class, () -> conta.deposito(null));
+            assertThrows(IllegalArgumentException.class, () -> conta.deposito(BigDecimal.ZERO));
+            assertThrows(IllegalArgumentException.class, () -> conta.saque(new BigDecimal("-10.0")));
+            assertThrows(IllegalArgumentException.class, () -> conta.saque(new BigDecimal("0.001")));
+            assertThrows(IllegalArgumentException.class, () -> new ContaBancariaConcorrente(null));
+        }
+
+    }
+
+    @Nested
+    class Concorrencia {
+
+        @Test
+        void depositosESaquesConcorrentesNaoPerdemAtualizacoes() throws Exception {
+            int threads = 8;
+            int operacoesPorThread = 20_000;
+            ContaBancariaConcorrente conta = new ContaBancariaConcorrente(BigDecimal.ZERO);
+
+            executarConcorrentemente(threads, () -> {
+                for (int i = 0; i < operacoesPorThread; i++) {
+                    conta.depositoEmCentavos(3);
+                    conta.saqueEmCentavos(1);
+                }
+                return null;
+            });
+
+            assertEquals(2L * threads * operacoesPorThread, conta.saldoEmCentavos());
+        }
+
+        @Test
+        void saquesConcorrentesNuncaDeixamSaldoNegativo() throws Exception {
+            long saldoInicial = 10_000;
+            ContaBancariaConcorrente conta = new ContaBancariaConcorrente(BigDecimal.valueOf(saldoInicial, 2));
+            AtomicLong sacado = new AtomicLong();
+
+            executarConcorrentemente(8, () -> {
+                for (int i = 0; i < 5_000; i++) {
+                    if (conta.tentarSaqueEmCentavos(7)) {
+                        sacado.addAndGet(7);
+                    }
+                }
+                return null;
+            });
+
+            assertTrue(conta.saldoEmCentavos() >= 0);
+            assertTrue(conta.saldoEmCentavos() < 7);
+            assertEquals(saldoInicial, conta.saldoEmCentavos() + sacado.get());
+        }
+
+        private void executarConcorrentemente(int threads, Callable<Void> tarefa) throws Exception {
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            CountDownLatch largada = new CountDownLatch(1);
+            try {
+                List<Future<Void>> resultados = new ArrayList<>();
+                for (int i = 0; i < threads; i++) {
+                    resultados.add(executor.submit(() -> {
+                        largada.await();
+                        return tarefa.call();
+                    }));
+                }
+                largada.countDown();
+                for (Future<Void> resultado : resultados) {
+                    resultado.get();
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,125 @@
+package com.algaworks.junit.utilidade;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DiarioLancamentosTest {
+
+    @TempDir
+    Path diretorio;
+
+    AtomicLong relogio = new AtomicLong(1_000);
+
+    @Test
+    void registrarAtualizaSaldo() throws IOException {
+        try (DiarioLancamentos diario = abrir(100)) {
+            diario.registrar(500);
+            diario.registrar(-200);
+
+            assertEquals(400, diario.saldo());
+            assertEquals(2, diario.quantidadeLancamentos());
+        }
+    }
+
+    @Test
+    void reabrirRecuperaSaldoAPartirDoUltimoSnapshot() throws IOException {
+        try (DiarioLancamentos diario = abrir(100)) {
+            for (int i = 0; i < 25; i++) {
+                diario.registrar(10);
+            }
+        }
+
+        try (DiarioLancamentos diario = abrir(0)) {
+            assertEquals(350, diario.saldo());
+            assertEquals(25, diario.quantidadeLancamentos());
+            assertEquals(3, diario.quantidadeSnapshots()); //Inicial, após 10 e após 20 lançamentos
+        }
+    }
+
+    @Test
+    void reabrirDescartaLancamentoIncompleto() throws IOException {
+        try (DiarioLancamentos diario = abrir(0)) {
+            diario.registrar(10);
+            diario.registrar(20);
+        }
+        try (FileChannel arquivo = FileChannel.open(diretorio.resolve(DiarioLancamentos.ARQUIVO_LANCAMENTOS),
+                StandardOpenOption.WRITE)) {
+            arquivo.truncate(DiarioLancamentos.TAMANHO_LANCAMENTO + 5);
+        }
+
+        try (DiarioLancamentos diario = abrir(0)) {
+            assertEquals(10, diario.saldo());
+            assertEquals(1, diario.quantidadeLancamentos());
+        }
+    }
+
+    @Test
+    void saldoAposConsultaMomentoPassado() throws IOException {
+        try (DiarioLancamentos diario = abrir(0)) {
+            for (int i = 1; i <= 25; i++) {
+                diario.registrar(i);
+            }
+
+            assertEquals(0, diario.saldoApos(0));
+            assertEquals(55, diario.saldoApos(10));
+            assertEquals(78, diario.saldoApos(12));
+            assertEquals(325, diario.saldoApos(25));
+            assertThrows(IllegalArgumentException.class, () -> diario.saldoApos(26));
+        }
+    }
+
+    @Test
+    void saldoEmConsultaPorInstante() throws IOException {
+        try (DiarioLancamentos diario = abrir(0)) {
+            diario.registrar(100);
+            relogio.set(2_000);
+            diario.registrar(50);
+            diario.registrar(-30);
+            relogio.set(3_000);
+            diario.registrar(5);
+
+            assertEquals(0, diario.saldoEm(Instant.ofEpochMilli(999)));
+            assertEquals(100, diario.saldoEm(Instant.ofEpochMilli(1_999)));
+            assertEquals(120, diario.saldoEm(Instant.ofEpochMilli(2_000)));
+            assertEquals(125, diario.saldoEm(Instant.ofEpochMilli(3_000)));
+        }
+    }
+
+    @Test
+    void registrarValorZeradoFalha() throws IOException {
+        try (DiarioLancamentos diario = abrir(0)) {
+            assertThrows(IllegalArgumentException.class, () -> diario.registrar(0));
+        }
+    }
+
+    @Test
+    void registrarComFalhaNaGravacaoNaoAlteraSaldo() throws IOException {
+        DiarioLancamentos diario = abrir(100);
+        diario.registrar(10);
+        diario.close();
+
+        diario.registrar(20);
+        diario.registrar(30);
+        diario.registrar(40);
+        assertThrows(IOException.class, () -> diario.registrar(50)); //Completa o lote de 4
+
+        assertEquals(200, diario.saldo());
+        assertEquals(4, diario.quantidadeLancamentos());
+        assertThrows(IOException.class, () -> diario.registrar(50));
+        assertEquals(200, diario.saldo());
+    }
+
+    private DiarioLancamentos abrir(long saldoInicial) throws IOException {
+        return DiarioLancamentos.abrir(diretorio, saldoInicial, 4, 10, relogio::get);
+    }
+
+}
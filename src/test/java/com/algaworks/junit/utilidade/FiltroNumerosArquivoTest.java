@@ -0,0 +1,97 @@
+package com.algaworks.junit.utilidade;
+
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class FiltroNumerosArquivoTest {
+
+    @TempDir
+    Path diretorio;
+
+    ByteArrayOutputStream saida = new ByteArrayOutputStream();
+
+    @ParameterizedTest
+    @ValueSource(longs = {4, 7, FiltroNumerosArquivo.TAMANHO_JANELA})
+    public void Dado_um_arquivo_texto_Quando_filtrar_pares_Entao_deve_escrever_um_par_por_linha(long tamanhoJanela) throws IOException {
+        Path entrada = Files.writeString(diretorio.resolve("numeros.csv"),
+                "1,2,3\n40,-22,-7\r\n2147483647;-2147483648 1000000");
+
+        long escritos = FiltroNumerosArquivo.filtrar(entrada, FiltroNumerosArquivo.Formato.TEXTO,
+                numero -> numero % 2 == 0, Channels.newChannel(saida), tamanhoJanela);
+
+        assertEquals(5, escritos);
+        assertEquals("2\n40\n-22\n-2147483648\n1000000\n", saida.toString(StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    public void Dado_um_arquivo_binario_Quando_filtrar_positivos_Entao_deve_escrever_inteiros_binarios() throws IOException {
+        ByteBuffer numeros = ByteBuffer.allocate(5 * Integer.BYTES);
+        numeros.putInt(-1).putInt(0).putInt(7).putInt(Integer.MIN_VALUE).putInt(42);
+        Path entrada = Files.write(diretorio.resolve("numeros.bin"), numeros.array());
+
+        long escritos = FiltroNumerosArquivo.filtrar(entrada, FiltroNumerosArquivo.Formato.BINARIO,
+                FiltroNumeros::isPositivo, Channels.newChannel(saida), 8);
+
+        ByteBuffer esperado = ByteBuffer.allocate(3 * Integer.BYTES).putInt(0).putInt(7).putInt(42);
+        assertEquals(3, escritos);
+        assertArrayEquals(esperado.array(), saida.toByteArray());
+    }
+
+    @Test
+    public void Dado_um_arquivo_grande_Quando_filtrar_Entao_deve_descarregar_a_saida_varias_vezes() throws IOException {
+        StringBuilder conteudo = new StringBuilder();
+        StringBuilder esperado = new StringBuilder();
+        for (int i = 0; i < 50_000; i++) {
+            conteudo.append(i).append(',');
+            if (i % 3 == 0) {
+                esperado.append(i).append('\n');
+            }
+        }
+        Path entrada = Files.writeString(diretorio.resolve("numeros.csv"), conteudo);
+
+        FiltroNumerosArquivo.filtrar(entrada, FiltroNumerosArquivo.Formato.TEXTO,
+                numero -> numero % 3 == 0, Channels.newChannel(saida));
+
+        assertEquals(esperado.toString(), saida.toString(StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    public void Dado_um_numero_maior_que_int_Quando_filtrar_Entao_deve_lancar_exception() throws IOException {
+        Path entrada = Files.writeString(diretorio.resolve("numeros.csv"), "1,2147483648");
+        assertThrows(IllegalArgumentException.class, () -> FiltroNumerosArquivo.filtrar(entrada,
+                FiltroNumerosArquivo.Formato.TEXTO, numero -> true, Channels.newChannel(saida)));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"10.10,10", "5-3", "1,2a", "x", "1,-,2", "1,--2", "7,-"})
+    public void Dado_um_texto_com_caractere_invalido_Quando_filtrar_Entao_deve_lancar_exception(String conteudo) throws IOException {
+        Path entrada = Files.writeString(diretorio.resolve("numeros.csv"), conteudo);
+        assertThrows(IllegalArgumentException.class, () -> FiltroNumerosArquivo.filtrar(entrada,
+                FiltroNumerosArquivo.Formato.TEXTO, numero -> true, Channels.newChannel(saida)));
+    }
+
+    @Test
+    public void Dado_um_arquivo_binario_com_tamanho_invalido_Quando_filtrar_Entao_deve_lancar_exception() throws IOException {
+        Path entrada = Files.write(diretorio.resolve("numeros.bin"), new byte[]{1, 2, 3});
+        assertThrows(IllegalArgumentException.class, () -> FiltroNumerosArquivo.filtrar(entrada,
+                FiltroNumerosArquivo.Formato.BINARIO, numero -> true, Channels.newChannel(saida)));
+    }
+
+}
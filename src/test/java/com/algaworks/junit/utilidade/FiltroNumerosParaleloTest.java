@@ -0,0 +1,29 @@
+package com.algaworks.junit.utilidade;
+
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class FiltroNumerosParaleloTest {
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 10, FiltroNumerosParalelo.LIMIAR_PARALELO, 1_000_003})
+    public void Dado_um_array_de_numeros_Quando_filtrar_em_paralelo_Entao_deve_retornar_o_mesmo_que_a_versao_sequencial(int tamanho) {
+        int[] numeros = new Random(tamanho).ints(tamanho).toArray();
+
+        assertArrayEquals(Arrays.stream(numeros).filter(numero -> numero % 2 == 0).toArray(),
+                FiltroNumerosParalelo.numerosPares(numeros));
+        assertArrayEquals(Arrays.stream(numeros).filter(numero -> numero % 2 != 0).toArray(),
+                FiltroNumerosParalelo.numerosImpares(numeros));
+        assertArrayEquals(Arrays.stream(numeros).filter(FiltroNumeros::isPositivo).toArray(),
+                FiltroNumerosParalelo.numerosPositivos(numeros));
+    }
+
+}
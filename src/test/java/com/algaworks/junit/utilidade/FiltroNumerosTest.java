@@ -4,9 +4,14 @@ import org.junit.jupiter.api.DisplayNameGeneration;
 import org.junit.jupiter.api.DisplayNameGenerator;
 import org.junit.jupiter.api.Test;
 
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
 import java.util.Arrays;
 import java.util.List;
+import java.util.stream.IntStream;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertIterableEquals;
 
 @DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
@@ -32,4 +37,64 @@ class FiltroNumerosTest {
         assertIterableEquals(numerosImparesEsperados, resultadoFiltro);
     }
 
-}
\ No newline at end of file
+    @Test
+    public void Dado_um_array_de_numeros_Quando_filtrar_por_pares_Entao_deve_retornar_apenas_numeros_pares() {
+        int[] numeros = {1, 2, 3, 4, -6, -7, 0};
+        assertArrayEquals(new int[]{2, 4, -6, 0}, FiltroNumeros.numerosPares(numeros));
+    }
+
+    @Test
+    public void Dado_um_array_de_numeros_Quando_filtrar_por_impares_Entao_deve_retornar_apenas_numeros_impares() {
+        int[] numeros = {1, 2, 3, 4, -6, -7, 0};
+        assertArrayEquals(new int[]{1, 3, -7}, FiltroNumeros.numerosImpares(numeros));
+    }
+
+    @Test
+    public void Dado_um_array_vazio_Quando_filtrar_Entao_deve_retornar_array_vazio() {
+        assertEquals(0, FiltroNumeros.numerosPares(new int[0]).length);
+        assertEquals(0, FiltroNumeros.numerosImpares(new int[]{2, 4}).length);
+    }
+
+    @Test
+    public void Dado_um_int_stream_Quando_filtrar_Entao_deve_retornar_pares_e_impares() {
+        assertArrayEquals(new int[]{2, 4}, FiltroNumeros.numerosPares(IntStream.rangeClosed(1, 4)).toArray());
+        assertArrayEquals(new int[]{1, 3}, FiltroNumeros.numerosImpares(IntStream.rangeClosed(1, 4)).toArray());
+    }
+
+    @Test
+    public void Dado_um_int_buffer_Quando_filtrar_Entao_deve_considerar_apenas_o_trecho_restante_sem_alterar_posicao() {
+        IntBuffer numeros = IntBuffer.wrap(new int[]{1, 2, 3, 4, 5, 6});
+        numeros.position(1).limit(5);
+
+        assertArrayEquals(new int[]{2, 4}, FiltroNumeros.numerosPares(numeros));
+        assertArrayEquals(new int[]{3, 5}, FiltroNumeros.numerosImpares(numeros));
+        assertEquals(1, numeros.position());
+    }
+
+    @Test
+    public void Dado_um_int_buffer_direto_maior_que_um_bloco_Quando_filtrar_Entao_deve_retornar_o_mesmo_que_o_array() {
+        int[] array = IntStream.range(-5_000, 5_000).map(numero -> numero * 7).toArray();
+        IntBuffer numeros = ByteBuffer.allocateDirect(array.length * Integer.BYTES).asIntBuffer().put(array);
+        numeros.position(3);
+
+        int[] trecho = Arrays.copyOfRange(array, 3, array.length);
+        assertArrayEquals(FiltroNumeros.numerosPares(trecho), FiltroNumeros.numerosPares(numeros));
+        assertArrayEquals(FiltroNumeros.numerosImpares(trecho), FiltroNumeros.numerosImpares(numeros));
+        assertEquals(3, numeros.position());
+    }
+
+    @Test
+    public void Dado_um_array_de_numeros_Quando_particionar_Entao_deve_separar_pares_e_impares_mantendo_a_ordem() {
+        FiltroNumeros.Particao particao = FiltroNumeros.particionar(new int[]{1, 2, 3, 4, -6, -7, 0, 9});
+
+        assertArrayEquals(new int[]{2, 4, -6, 0}, particao.getPares());
+        assertArrayEquals(new int[]{1, 3, -7, 9}, particao.getImpares());
+    }
+
+    @Test
+    public void Dado_um_array_de_numeros_Quando_filtrar_por_positivos_Entao_deve_retornar_numeros_maiores_ou_iguais_a_zero() {
+        int[] numeros = {-1, 0, 5, Integer.MIN_VALUE, Integer.MAX_VALUE};
+        assertArrayEquals(new int[]{0, 5, Integer.MAX_VALUE}, FiltroNumeros.numerosPositivos(numeros));
+    }
+
+}
@@ -4,6 +4,9 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.EnumSource;
 
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class MultiplicadorTest {
@@ -19,4 +22,53 @@ class MultiplicadorTest {
     void aplicarMultiplicadorTodos(Multiplicador multiplicador) {
         assertNotNull(multiplicador.aplicarMultiplicador(10.0));
     }
+
+    @Test
+    void aplicarMultiplicadorComNuloOuZeroRetornaZero() {
+        assertEquals(Double.valueOf(20.0), Multiplicador.DOBRO.aplicarMultiplicador(Double.valueOf(10.0)));
+        assertEquals(Double.valueOf(0.0), Multiplicador.DOBRO.aplicarMultiplicador((Double) null));
+        assertEquals(Double.valueOf(0.0), Multiplicador.DOBRO.aplicarMultiplicador(Double.valueOf(-0.0)));
+    }
+
+    @Test
+    void multiplicar() {
+        assertEquals(30.0, Multiplicador.TRIPLO.multiplicar(10.0));
+        assertEquals(0.0, Multiplicador.DOBRO.multiplicar(-0.0));
+    }
+
+    @Test
+    void aplicarEmLoteNoProprioArray() {
+        double[] valores = {1.5, 0.0, -2.0};
+        Multiplicador.DOBRO.aplicarEmLote(valores);
+        assertArrayEquals(new double[]{3.0, 0.0, -4.0}, valores);
+    }
+
+    @Test
+    void aplicarEmLoteEmOutroArray() {
+        double[] origem = {1.0, 2.0};
+        double[] destino = new double[3];
+        Multiplicador.QUADRUPLO.aplicarEmLote(origem, destino);
+
+        assertArrayEquals(new double[]{4.0, 8.0, 0.0}, destino);
+        assertArrayEquals(new double[]{1.0, 2.0}, origem);
+        assertThrows(IllegalArgumentException.class, () -> Multiplicador.DOBRO.aplicarEmLote(destino, origem));
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = Multiplicador.class)
+    void aplicarEmLoteEmBufferDiretoOuHeap(Multiplicador multiplicador) {
+        DoubleBuffer heap = DoubleBuffer.wrap(new double[]{1.0, 2.0, 3.0});
+        DoubleBuffer direto = ByteBuffer.allocateDirect(3 * Double.BYTES).asDoubleBuffer().put(new double[]{1.0, 2.0, 3.0});
+        heap.position(1);
+        direto.position(1);
+
+        multiplicador.aplicarEmLote(heap);
+        multiplicador.aplicarEmLote(direto);
+
+        for (DoubleBuffer buffer : new DoubleBuffer[]{heap, direto}) {
+            assertEquals(1, buffer.position());
+            assertEquals(1.0, buffer.get(0));
+            assertEquals(multiplicador.multiplicar(3.0), buffer.get(2));
+        }
+    }
 }
\ No newline at end of file
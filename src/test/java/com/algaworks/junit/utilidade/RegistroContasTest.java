@@ -0,0 +1,91 @@
+package com.algaworks.junit.utilidade;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RegistroContasTest {
+
+    RegistroContas registro = new RegistroContas(4);
+
+    @Test
+    void abrirContaRetornaIdsSequenciais() {
+        assertEquals(0, registro.abrirConta(BigDecimal.TEN));
+        assertEquals(1, registro.abrirConta(new BigDecimal("29.90")));
+        assertEquals(new BigDecimal("29.90"), registro.saldo(1));
+        assertEquals(2, registro.quantidadeContas());
+    }
+
+    @Test
+    void saqueEDeposito() {
+        long id = registro.abrirConta(new BigDecimal("70.00"));
+        registro.saqueEmCentavos(id, 5001);
+        registro.depositoEmCentavos(id, 1000);
+        assertEquals(new BigDecimal("29.99"), registro.saldo(id));
+    }
+
+    @Test
+    void saqueComValorMaiorFalhaSemAlterarSaldo() {
+        long id = registro.abrirConta(BigDecimal.TEN);
+        assertThrows(RuntimeException.class, () -> registro.saqueEmCentavos(id, 1001));
+        assertEquals(1000, registro.saldoEmCentavos(id));
+    }
+
+    @Test
+    void operacoesInvalidasFalham() {
+        long id = registro.abrirConta(BigDecimal.TEN);
+        assertThrows(IllegalArgumentException.class, () -> registro.depositoEmCentavos(id, 0));
+        assertThrows(IllegalArgumentException.class, () -> registro.saldoEmCentavos(id + 1));
+        assertThrows(IllegalArgumentException.class, () -> registro.abrirConta(null));
+    }
+
+    @Test
+    void consultarSaldosEmLoteEAtravessandoSegmentos() {
+        for (int i = 0; i < 40_000; i++) {
+            registro.abrirContaEmCentavos(i);
+        }
+
+        long[] saldos = new long[3];
+        registro.saldosEmCentavos(new long[]{5, 16_384, 39_999}, saldos);
+
+        assertArrayEquals(new long[]{5, 16_384, 39_999}, saldos);
+        assertEquals(39_999L * 40_000 / 2, registro.saldoTotalEmCentavos());
+    }
+
+    @Test
+    void operacoesConcorrentesNaoPerdemAtualizacoes() throws Exception {
+        int quantidadeContas = 100;
+        for (int i = 0; i < quantidadeContas; i++) {
+            registro.abrirContaEmCentavos(0);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> resultados = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                resultados.add(executor.submit(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        registro.depositoEmCentavos(i % quantidadeContas, 2);
+                        registro.saqueEmCentavos(i % quantidadeContas, 1);
+                    }
+                }));
+            }
+            for (Future<?> resultado : resultados) {
+                resultado.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(8 * 10_000, registro.saldoTotalEmCentavos());
+        assertEquals(8 * 100, registro.saldoEmCentavos(0));
+    }
+
+}
@@ -0,0 +1,104 @@
+package com.algaworks.junit.utilidade;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransferidorContasTest {
+
+    @Test
+    void transferir() {
+        ContaBancariaConcorrente origem = new ContaBancariaConcorrente(new BigDecimal("50.00"));
+        ContaBancariaConcorrente destino = new ContaBancariaConcorrente(BigDecimal.TEN);
+
+        TransferidorContas.transferir(origem, destino, new BigDecimal("20.50"));
+
+        assertEquals(new BigDecimal("29.50"), origem.saldo());
+        assertEquals(new BigDecimal("30.50"), destino.saldo());
+    }
+
+    @Test
+    void transferirComSaldoInsuficienteFalhaSemAlterarContas() {
+        ContaBancariaConcorrente origem = new ContaBancariaConcorrente(BigDecimal.TEN);
+        ContaBancariaConcorrente destino = new ContaBancariaConcorrente(BigDecimal.TEN);
+
+        assertThrows(RuntimeException.class, () -> TransferidorContas.transferir(origem, destino, new BigDecimal("10.01")));
+        assertEquals(new BigDecimal("10.00"), origem.saldo());
+        assertEquals(new BigDecimal("10.00"), destino.saldo());
+    }
+
+    @Test
+    void transferirParaMesmaContaFalha() {
+        ContaBancariaConcorrente conta = new ContaBancariaConcorrente(BigDecimal.TEN);
+        assertThrows(IllegalArgumentException.class, () -> TransferidorContas.transferir(conta, conta, BigDecimal.ONE));
+    }
+
+    @Test
+    void transferirValorInvalidoFalha() {
+        ContaBancariaConcorrente origem = new ContaBancariaConcorrente(BigDecimal.TEN);
+        ContaBancariaConcorrente destino = new ContaBancariaConcorrente(BigDecimal.TEN);
+        assertThrows(IllegalArgumentException.class, () -> TransferidorContas.transferir(origem, destino, null));
+        assertThrows(IllegalArgumentException.class, () -> TransferidorContas.transferir(origem, destino, BigDecimal.ZERO));
+    }
+
+    @Test
+    void transferirEmLoteRetornaRecusadas() {
+        ContaBancariaConcorrente a = new ContaBancariaConcorrente(BigDecimal.TEN);
+        ContaBancariaConcorrente b = new ContaBancariaConcorrente(BigDecimal.ZERO);
+        ContaBancariaConcorrente c = new ContaBancariaConcorrente(BigDecimal.ZERO);
+        Transferencia semSaldo = new Transferencia(b, c, 1);
+
+        List<Transferencia> recusadas = TransferidorContas.transferirEmLote(List.of(
+                new Transferencia(a, c, 500), semSaldo));
+
+        assertEquals(List.of(semSaldo), recusadas);
+        assertEquals(500, a.saldoEmCentavos());
+        assertEquals(500, c.saldoEmCentavos());
+    }
+
+    @Test
+    void transferenciasAleatoriasConcorrentesConservamSaldoTotal() throws Exception {
+        int quantidadeContas = 16;
+        long saldoInicial = 1_000;
+        ContaBancariaConcorrente[] contas = new ContaBancariaConcorrente[quantidadeContas];
+        for (int i = 0; i < quantidadeContas; i++) {
+            contas[i] = new ContaBancariaConcorrente(BigDecimal.valueOf(saldoInicial, 2));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> resultados = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                long semente = t;
+                resultados.add(executor.submit(() -> {
+                    Random random = new Random(semente);
+                    for (int i = 0; i < 20_000; i++) {
+                        int origem = random.nextInt(quantidadeContas);
+                        int destino = (origem + 1 + random.nextInt(quantidadeContas - 1)) % quantidadeContas;
+                        TransferidorContas.tentarTransferir(
+                                new Transferencia(contas[origem], contas[destino], 1 + random.nextInt(300)));
+                    }
+                }));
+            }
+            for (Future<?> resultado : resultados) {
+                resultado.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertTrue(Arrays.stream(contas).allMatch(conta -> conta.saldoEmCentavos() >= 0));
+        assertEquals(quantidadeContas * saldoInicial,
+                Arrays.stream(contas).mapToLong(ContaBancariaConcorrente::saldoEmCentavos).sum());
+    }
+
+}